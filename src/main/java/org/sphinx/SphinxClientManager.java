@@ -4,7 +4,9 @@ import org.sphinx.config.BasicPooledDataSourceConfig;
 import org.sphinx.config.ConfigurationKey;
 import org.sphinx.config.ConfigurationReader;
 import org.sphinx.pool.PooledSphinxDataSource;
+import org.sphinx.pool.SphinxClientCallback;
 import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -60,6 +62,20 @@ public class SphinxClientManager {
         return dataSource.getSphinxClient();
     }
 
+    /**
+     * Runs a callback with a sphinx client from the pooled data source. The client is always
+     * returned to the pool when the callback completes.
+     *
+     * @see PooledSphinxDataSource#withClient(SphinxClientCallback)
+     * @param callback callback to run
+     * @param <T> callback result type
+     * @return result of the callback
+     * @throws SphinxException if thrown by the callback
+     */
+    public <T> T withClient(SphinxClientCallback<T> callback) throws SphinxException {
+        return dataSource.withClient(callback);
+    }
+
     /**
      * Lookup a data source by configuration. If the data source does not exist a new
      * instance will be created with the given host and port.
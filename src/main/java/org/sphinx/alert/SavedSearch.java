@@ -0,0 +1,162 @@
+package org.sphinx.alert;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+
+/**
+ * Search request that is re-run on a schedule by a {@link SavedSearchPoller}, reporting only the matches
+ * that are new since the previous run.
+ *
+ * New matches are tracked with a high-water mark, either the highest document id seen or the highest value
+ * of an integer or timestamp attribute. Each run only asks for matches above the mark, sorted by the mark,
+ * so the cost of a run depends on the number of new documents rather than on the number of matches.
+ * The mark can be saved and passed back in when the search is re-registered, to resume without
+ * reporting matches twice.
+ *
+ * Several documents can share an attribute value. When a run stops part way through the matches tied at
+ * the mark, the document id of the last reported match is kept as well, and the next run reports the rest
+ * of the tied matches by id before moving past the mark.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class SavedSearch {
+
+    private final String id;
+    private final SearchRequest request;
+    private final long intervalMillis;
+    private final String markAttribute;
+
+    private volatile long highWaterMark;
+    private volatile long markDocId;
+    private volatile long nextRun;
+
+
+    /**
+     * Creates a saved search tracking new matches by document id.
+     *
+     * @param id saved search id
+     * @param request search request
+     * @param intervalMillis time in milliseconds between runs
+     * @param highWaterMark highest document id already reported, 0 to report all matches
+     */
+    public SavedSearch(String id, SearchRequest request, long intervalMillis, long highWaterMark) {
+        this(id, request, intervalMillis, null, highWaterMark);
+    }
+
+    /**
+     * Creates a saved search tracking new matches by an attribute value, such as a creation timestamp.
+     * Matches are reported once their attribute value is above the highest value already reported.
+     *
+     * @param id saved search id
+     * @param request search request
+     * @param intervalMillis time in milliseconds between runs
+     * @param markAttribute integer or timestamp attribute to track, null to track document ids
+     * @param highWaterMark highest attribute value already reported, 0 to report all matches
+     */
+    public SavedSearch(String id, SearchRequest request, long intervalMillis, String markAttribute, long highWaterMark) {
+        this(id, request, intervalMillis, markAttribute, highWaterMark, 0);
+    }
+
+    /**
+     * Creates a saved search resuming part way through the matches tied at the high-water mark.
+     *
+     * @param id saved search id
+     * @param request search request
+     * @param intervalMillis time in milliseconds between runs
+     * @param markAttribute integer or timestamp attribute to track
+     * @param highWaterMark highest attribute value already reported
+     * @param markDocId document id of the last reported match with the high-water mark value, 0 if all
+     *                  matches with that value have been reported
+     */
+    public SavedSearch(String id, SearchRequest request, long intervalMillis, String markAttribute, long highWaterMark, long markDocId) {
+        if (id == null) throw new IllegalArgumentException("id must not be null");
+        if (request == null) throw new IllegalArgumentException("request must not be null");
+        if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis must be positive");
+
+        this.id = id;
+        this.request = request;
+        this.intervalMillis = intervalMillis;
+        this.markAttribute = markAttribute;
+        this.highWaterMark = highWaterMark;
+        this.markDocId = markAttribute != null ? markDocId : 0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SearchRequest getRequest() {
+        return request;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Returns the attribute tracked for new matches.
+     *
+     * @return attribute name, null if new matches are tracked by document id
+     */
+    public String getMarkAttribute() {
+        return markAttribute;
+    }
+
+    /**
+     * Returns the highest document id or attribute value reported so far.
+     *
+     * @return high-water mark
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Returns the document id of the last reported match with the high-water mark value, while the matches
+     * tied at the mark are still being reported.
+     *
+     * @return document id, 0 if all matches with the high-water mark value have been reported
+     */
+    public long getMarkDocId() {
+        return markDocId;
+    }
+
+    /**
+     * Returns the request for the matches above the high-water mark, sorted by the mark in ascending order.
+     * While matches tied at the mark are outstanding, returns the request for those matches instead.
+     */
+    SearchRequest getDeltaRequest() {
+        SearchRequest.Builder delta = request.toBuilder();
+        if (markAttribute == null) {
+            delta.idRange(Math.max(request.getMinId(), highWaterMark + 1), request.getMaxId())
+                    .sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc");
+        } else if (markDocId != 0) {
+            delta.filterRange(markAttribute, highWaterMark, highWaterMark, false)
+                    .idRange(Math.max(request.getMinId(), markDocId + 1), request.getMaxId())
+                    .sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc");
+        } else {
+            delta.filterRange(markAttribute, highWaterMark + 1, Long.MAX_VALUE, false)
+                    .sortMode(SphinxClient.SPH_SORT_EXTENDED, markAttribute + " asc, @id asc");
+        }
+        return delta.build();
+    }
+
+    void setHighWaterMark(long highWaterMark, long markDocId) {
+        this.highWaterMark = highWaterMark;
+        this.markDocId = markDocId;
+    }
+
+    long getNextRun() {
+        return nextRun;
+    }
+
+    void setNextRun(long nextRun) {
+        this.nextRun = nextRun;
+    }
+
+    @Override
+    public String toString() {
+        return "SavedSearch{id=" + id + ", index=" + request.getIndex() + ", highWaterMark=" + highWaterMark + "}";
+    }
+}
@@ -0,0 +1,36 @@
+package org.sphinx.alert;
+
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxSchema;
+
+/**
+ * Receives the new matches of saved searches from a {@link SavedSearchPoller}.
+ *
+ * Callbacks run on the poller thread, and should hand off any slow work such as sending emails. Exceptions
+ * thrown by a callback are logged, and do not affect other searches or later runs.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public interface SavedSearchListener {
+
+    /**
+     * Called with the matches of a saved search that are new since the previous run, in ascending order
+     * of the high-water mark. The high-water mark of the search has already been advanced past the matches.
+     *
+     * @param search saved search
+     * @param schema schema of the matches
+     * @param matches new matches
+     */
+    void onMatches(SavedSearch search, SphinxSchema schema, SphinxMatch[] matches);
+
+    /**
+     * Called when a run of a saved search failed. The high-water mark is left as is, and the search runs
+     * again after its interval.
+     *
+     * @param search saved search
+     * @param e error
+     */
+    void onError(SavedSearch search, SphinxException e);
+}
@@ -0,0 +1,275 @@
+package org.sphinx.alert;
+
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxAttribute;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.api.SphinxSchema;
+import org.sphinx.pool.PooledSphinxDataSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs saved searches on a schedule, reporting only the matches that are new since the previous run.
+ *
+ * On every tick the poller collects the saved searches that are due, and runs them as multi-queries of up
+ * to the configured batch size, in the same way as {@link ISphinxClient#RunQueries()}. Each search only asks
+ * for the matches above its high-water mark, so the load on searchd grows with the number of new documents
+ * rather than with the number of saved searches. When a search has more new matches than its limit, the
+ * mark is advanced to the last reported match and the search runs again on the next tick.
+ *
+ * <code>
+ *      SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 1000);
+ *      poller.add(new SavedSearch("alert-42", request, 60000, "created", lastCreated));
+ *      ...
+ *      poller.close();
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SavedSearchPoller {
+
+    /** Default number of searches per multi-query, the searchd default for <code>max_batch_queries</code>. */
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    private static final Logger LOG = Logger.getLogger(SavedSearchPoller.class.getName());
+
+    private final PooledSphinxDataSource dataSource;
+    private final SavedSearchListener listener;
+    private final Map<String, SavedSearch> searches = new ConcurrentHashMap<String, SavedSearch>();
+    private final ScheduledExecutorService scheduler;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+
+    /**
+     * @param dataSource data source to run the searches on
+     * @param listener listener receiving the new matches
+     * @param tickMillis time in milliseconds between checks for due searches
+     */
+    public SavedSearchPoller(PooledSphinxDataSource dataSource, SavedSearchListener listener, long tickMillis) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+
+        this.dataSource = dataSource;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-saved-search-poller");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    // an exception escaping the task would cancel all later runs
+                    LOG.log(Level.WARNING, "Saved search poll failed", e);
+                }
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of searches sent in a single multi-query. Should not exceed the
+     * <code>max_batch_queries</code> setting of searchd.
+     *
+     * @param batchSize number of searches per multi-query
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds a saved search, replacing any saved search with the same id. The search is due immediately.
+     *
+     * @param search saved search
+     */
+    public void add(SavedSearch search) {
+        searches.put(search.getId(), search);
+    }
+
+    /**
+     * Removes a saved search.
+     *
+     * @param id saved search id
+     * @return removed search, null if there was no search with the given id
+     */
+    public SavedSearch remove(String id) {
+        return searches.remove(id);
+    }
+
+    public SavedSearch get(String id) {
+        return searches.get(id);
+    }
+
+    public Collection<SavedSearch> getSearches() {
+        return searches.values();
+    }
+
+    /**
+     * Runs all due searches. Called on every tick by the poller thread.
+     *
+     * @return number of searches run
+     */
+    public synchronized int poll() {
+        long now = System.currentTimeMillis();
+
+        List<SavedSearch> due = new ArrayList<SavedSearch>();
+        for (SavedSearch search : searches.values()) {
+            if (search.getNextRun() <= now) due.add(search);
+        }
+
+        int batchSize = this.batchSize;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<SavedSearch> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                run(batch, now);
+            } catch (RuntimeException e) {
+                fail(batch, now, new SphinxException("saved search failed: " + e));
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Runs a batch of searches as a single multi-query, and reports the new matches of each search.
+     */
+    private void run(List<SavedSearch> batch, long now) {
+        SearchRequest[] requests = new SearchRequest[batch.size()];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = batch.get(i).getDeltaRequest();
+        }
+
+        SphinxResult[] results;
+        try {
+            results = dataSource.execute(requests);
+
+        } catch (SphinxException e) {
+            fail(batch, now, e);
+            return;
+        } catch (RuntimeException e) {
+            // e.g. the pool has been closed
+            fail(batch, now, new SphinxException("saved search failed: " + e));
+            return;
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            SavedSearch search = batch.get(i);
+            SphinxResult result = results[i];
+
+            search.setNextRun(now + search.getIntervalMillis());
+            if (result.getStatus() == SphinxClient.SEARCHD_ERROR) {
+                notifyError(search, new SphinxException(result.error));
+                continue;
+            }
+
+            SphinxMatch[] matches = result.matches;
+            boolean truncated = result.totalFound > matches.length;
+            boolean tied = search.getMarkDocId() != 0;
+
+            if (matches.length == 0) {
+                if (tied) {
+                    // no more matches tied at the mark, move on past it
+                    search.setHighWaterMark(search.getHighWaterMark(), 0);
+                    search.setNextRun(now);
+                }
+                continue;
+            }
+
+            SphinxMatch last = matches[matches.length - 1];
+            try {
+                // matches after the last one may share its attribute value, continue from its id
+                long markDocId = truncated && search.getMarkAttribute() != null ? last.docId : 0;
+                search.setHighWaterMark(mark(search, result, last), markDocId);
+            } catch (RuntimeException e) {
+                notifyError(search, new SphinxException("cannot track attribute '" + search.getMarkAttribute() + "': " + e));
+                continue;
+            }
+
+            // more new matches than the limit, or matches above the tied mark, fetch the rest on the next tick
+            if (truncated || tied) {
+                search.setNextRun(now);
+            }
+
+            notifyMatches(search, result.schema, matches);
+        }
+    }
+
+    /**
+     * Reports a failed run of a batch of searches, which run again after their interval.
+     */
+    private void fail(List<SavedSearch> batch, long now, SphinxException e) {
+        for (SavedSearch search : batch) {
+            search.setNextRun(now + search.getIntervalMillis());
+            notifyError(search, e);
+        }
+    }
+
+    /**
+     * Calls the listener with new matches. A failing listener is logged, so that it can't stop other searches.
+     */
+    private void notifyMatches(SavedSearch search, SphinxSchema schema, SphinxMatch[] matches) {
+        try {
+            listener.onMatches(search, schema, matches);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Listener failed on the matches of saved search '" + search.getId() + "'", e);
+        }
+    }
+
+    /**
+     * Calls the listener with an error. A failing listener is logged, so that it can't stop other searches.
+     */
+    private void notifyError(SavedSearch search, SphinxException error) {
+        try {
+            listener.onError(search, error);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Listener failed on the error of saved search '" + search.getId() + "'", e);
+        }
+    }
+
+    /**
+     * Returns the high-water mark of a match, either its document id or the value of the tracked attribute.
+     */
+    private static long mark(SavedSearch search, SphinxResult result, SphinxMatch match) {
+        if (search.getMarkAttribute() == null) return match.docId;
+
+        SphinxAttribute attribute = result.schema.getAttribute(search.getMarkAttribute());
+        if (attribute == null) throw new IllegalArgumentException("attribute not in result");
+        return attribute.getLong(match);
+    }
+
+    /**
+     * Stops polling, waiting for a run in progress to finish.
+     */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
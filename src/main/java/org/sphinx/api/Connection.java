@@ -0,0 +1,67 @@
+package org.sphinx.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Stream connection to searchd, over TCP or a Unix domain socket.
+ *
+ * @see UnixSocketConnection
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+interface Connection extends Closeable {
+
+    InputStream getInputStream() throws IOException;
+
+    OutputStream getOutputStream() throws IOException;
+
+    boolean isConnected();
+
+
+    /**
+     * TCP connection.
+     */
+    final class Tcp implements Connection {
+
+        private final Socket socket;
+
+        Tcp(InetSocketAddress address, int timeout, boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) throws IOException {
+            this.socket = new Socket();
+            try {
+                socket.setSoTimeout(timeout);
+                socket.setTcpNoDelay(tcpNoDelay);
+                socket.setKeepAlive(keepAlive);
+                if (sendBufferSize > 0) socket.setSendBufferSize(sendBufferSize);
+                if (receiveBufferSize > 0) socket.setReceiveBufferSize(receiveBufferSize); // before connecting, so that it applies to the TCP window
+
+                socket.connect(address, timeout);
+
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        public InputStream getInputStream() throws IOException {
+            return socket.getInputStream();
+        }
+
+        public OutputStream getOutputStream() throws IOException {
+            return socket.getOutputStream();
+        }
+
+        public boolean isConnected() {
+            return socket.isConnected();
+        }
+
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
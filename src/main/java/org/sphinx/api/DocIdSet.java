@@ -0,0 +1,384 @@
+package org.sphinx.api;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of document ids, for combining the matches of several queries on the client.
+ *
+ * Ids are split into a high part and a 16 bit low part, and the low parts of all ids sharing the same high
+ * part are stored in a container. Sparse containers hold a sorted array of up to 4096 low parts (2 bytes per
+ * id), dense containers a 65536 bit bitmap (8 KB). Set operations work container by container on these
+ * primitive arrays, without boxing a single id, and pick the smaller representation for every result container.
+ *
+ * <code>
+ *      DocIdSet a = response.decodeIds(0);
+ *      DocIdSet b = response.decodeIds(1);
+ *      DocIdSet c = response.decodeIds(2);
+ *
+ *      DocIdSet result = a.andNot(b).and(c);
+ * </code>
+ *
+ * Document ids are unsigned, ids are ordered as unsigned 64-bit values.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class DocIdSet {
+
+    /** Empty set. */
+    public static final DocIdSet EMPTY = new DocIdSet(new long[0], new Container[0], 0);
+
+    private final long[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+
+    private DocIdSet(long[] keys, Container[] containers, int count) {
+        this.keys = keys.length == count ? keys : Arrays.copyOf(keys, count);
+        this.containers = containers.length == count ? containers : Arrays.copyOf(containers, count);
+
+        int cardinality = 0;
+        for (Container container : this.containers) {
+            cardinality += container.cardinality;
+        }
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Creates a set of the given document ids. The ids may be in any order and contain duplicates.
+     *
+     * @param ids document ids
+     * @return set of ids
+     */
+    public static DocIdSet of(long... ids) {
+        if (ids.length == 0) return EMPTY;
+
+        long[] sorted = ids.clone();
+        boolean ordered = true;
+        for (int i = 1; i < sorted.length && ordered; i++) {
+            ordered = Long.compareUnsigned(sorted[i - 1], sorted[i]) < 0;
+        }
+        if (!ordered) {
+            // flip the sign bit to sort unsigned values with the signed sort
+            for (int i = 0; i < sorted.length; i++) sorted[i] ^= Long.MIN_VALUE;
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) sorted[i] ^= Long.MIN_VALUE;
+        }
+        return ofSorted(sorted, sorted.length);
+    }
+
+    /**
+     * Creates a set from ids in ascending unsigned order, duplicates are dropped.
+     */
+    static DocIdSet ofSorted(long[] ids, int length) {
+        long[] keys = new long[length];
+        Container[] containers = new Container[length];
+        int count = 0;
+
+        int i = 0;
+        while (i < length) {
+            long key = ids[i] >>> 16;
+            char[] values = new char[Math.min(length - i, 65536)];
+            int n = 0;
+            for (; i < length && ids[i] >>> 16 == key; i++) {
+                char value = (char) ids[i];
+                if (n == 0 || values[n - 1] != value) values[n++] = value;
+            }
+            keys[count] = key;
+            containers[count++] = Container.of(values, n);
+        }
+
+        return new DocIdSet(keys, containers, count);
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return cardinality
+     */
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Returns true if the set contains the given document id.
+     *
+     * @param id document id
+     * @return true if contained
+     */
+    public boolean contains(long id) {
+        int i = indexOf(keys, keys.length, id >>> 16);
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    /**
+     * Returns the ids in ascending unsigned order.
+     *
+     * @return document ids
+     */
+    public long[] toArray() {
+        long[] ids = new long[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            n = containers[i].copyTo(ids, n, keys[i] << 16);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the union of this set and another set.
+     *
+     * @param other other set
+     * @return ids in either set
+     */
+    public DocIdSet or(DocIdSet other) {
+        long[] keys = new long[this.keys.length + other.keys.length];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+
+        int i = 0, j = 0;
+        while (i < this.keys.length || j < other.keys.length) {
+            int cmp = i == this.keys.length ? 1 : j == other.keys.length ? -1 : Long.compare(this.keys[i], other.keys[j]);
+            if (cmp < 0) {
+                keys[count] = this.keys[i];
+                containers[count++] = this.containers[i++];
+            } else if (cmp > 0) {
+                keys[count] = other.keys[j];
+                containers[count++] = other.containers[j++];
+            } else {
+                keys[count] = this.keys[i];
+                containers[count++] = this.containers[i++].or(other.containers[j++]);
+            }
+        }
+
+        return new DocIdSet(keys, containers, count);
+    }
+
+    /**
+     * Returns the intersection of this set and another set.
+     *
+     * @param other other set
+     * @return ids in both sets
+     */
+    public DocIdSet and(DocIdSet other) {
+        int size = Math.min(this.keys.length, other.keys.length);
+        long[] keys = new long[size];
+        Container[] containers = new Container[size];
+        int count = 0;
+
+        int i = 0, j = 0;
+        while (i < this.keys.length && j < other.keys.length) {
+            int cmp = Long.compare(this.keys[i], other.keys[j]);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                Container container = this.containers[i++].and(other.containers[j++]);
+                if (container.cardinality > 0) {
+                    keys[count] = this.keys[i - 1];
+                    containers[count++] = container;
+                }
+            }
+        }
+
+        return new DocIdSet(keys, containers, count);
+    }
+
+    /**
+     * Returns the difference of this set and another set.
+     *
+     * @param other other set
+     * @return ids in this set, but not in the other set
+     */
+    public DocIdSet andNot(DocIdSet other) {
+        long[] keys = new long[this.keys.length];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < this.keys[i]) j++;
+
+            Container container = this.containers[i];
+            if (j < other.keys.length && other.keys[j] == this.keys[i]) {
+                container = container.andNot(other.containers[j]);
+            }
+            if (container.cardinality > 0) {
+                keys[count] = this.keys[i];
+                containers[count++] = container;
+            }
+        }
+
+        return new DocIdSet(keys, containers, count);
+    }
+
+    /**
+     * Binary search over the high parts. High parts are at most 48 bits, and compare the same signed and unsigned.
+     */
+    private static int indexOf(long[] keys, int length, long key) {
+        return Arrays.binarySearch(keys, 0, length, key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DocIdSet)) return false;
+
+        DocIdSet other = (DocIdSet) o;
+        return cardinality == other.cardinality && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "DocIdSet{cardinality=" + cardinality + ", containers=" + keys.length + "}";
+    }
+
+
+    /**
+     * Low 16 bits of the ids sharing a high part, either as a sorted array or as a bitmap.
+     */
+    private static final class Container {
+
+        /** Largest number of values held as an array, an array of this size takes as much space as a bitmap. */
+        private static final int MAX_ARRAY_SIZE = 4096;
+
+        private final char[] values;    // sorted values, null for bitmap containers
+        private final long[] words;     // 1024 words of 64 bits, null for array containers
+        private final int cardinality;
+
+        private Container(char[] values, long[] words, int cardinality) {
+            this.values = values;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /** Creates a container of sorted, distinct values in the smaller representation. */
+        static Container of(char[] values, int n) {
+            if (n <= MAX_ARRAY_SIZE) {
+                return new Container(values.length == n ? values : Arrays.copyOf(values, n), null, n);
+            }
+            long[] words = new long[1024];
+            for (int i = 0; i < n; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new Container(null, words, n);
+        }
+
+        /** Creates a container from a bitmap in the smaller representation. */
+        static Container of(long[] words) {
+            int n = 0;
+            for (long word : words) n += Long.bitCount(word);
+            if (n > MAX_ARRAY_SIZE) return new Container(null, words, n);
+
+            char[] values = new char[n];
+            int k = 0;
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[k++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new Container(values, null, n);
+        }
+
+        boolean contains(char value) {
+            return values != null
+                    ? Arrays.binarySearch(values, value) >= 0
+                    : (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        int copyTo(long[] ids, int n, long high) {
+            if (values != null) {
+                for (char value : values) ids[n++] = high | value;
+                return n;
+            }
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    ids[n++] = high | ((w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return n;
+        }
+
+        Container or(Container other) {
+            if (values != null && other.values != null) {
+                char[] merged = new char[cardinality + other.cardinality];
+                int i = 0, j = 0, n = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    char a = values[i], b = other.values[j];
+                    merged[n++] = a <= b ? a : b;
+                    if (a <= b) i++;
+                    if (b <= a) j++;
+                }
+                while (i < cardinality) merged[n++] = values[i++];
+                while (j < other.cardinality) merged[n++] = other.values[j++];
+                return of(merged, n);
+            }
+
+            Container bitmap = words != null ? this : other;
+            Container rest = words != null ? other : this;
+            long[] words = bitmap.words.clone();
+            if (rest.values != null) {
+                for (char value : rest.values) words[value >>> 6] |= 1L << value;
+            } else {
+                for (int w = 0; w < words.length; w++) words[w] |= rest.words[w];
+            }
+            return of(words);
+        }
+
+        Container and(Container other) {
+            if (values != null || other.values != null) {
+                Container array = values != null ? this : other;
+                Container rest = values != null ? other : this;
+                char[] result = new char[array.cardinality];
+                int n = 0;
+                if (rest.values != null) {
+                    int i = 0, j = 0;
+                    while (i < array.cardinality && j < rest.cardinality) {
+                        char a = array.values[i], b = rest.values[j];
+                        if (a == b) result[n++] = a;
+                        if (a <= b) i++;
+                        if (b <= a) j++;
+                    }
+                } else {
+                    for (char value : array.values) {
+                        if (rest.contains(value)) result[n++] = value;
+                    }
+                }
+                return of(result, n);
+            }
+
+            long[] words = new long[1024];
+            for (int w = 0; w < words.length; w++) words[w] = this.words[w] & other.words[w];
+            return of(words);
+        }
+
+        Container andNot(Container other) {
+            if (values != null) {
+                char[] result = new char[cardinality];
+                int n = 0;
+                for (char value : values) {
+                    if (!other.contains(value)) result[n++] = value;
+                }
+                return of(result, n);
+            }
+
+            long[] words = this.words.clone();
+            if (other.values != null) {
+                for (char value : other.values) words[value >>> 6] &= ~(1L << value);
+            } else {
+                for (int w = 0; w < words.length; w++) words[w] &= ~other.words[w];
+            }
+            return of(words);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.sphinx.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Typed, immutable excerpt (snippet) options for {@link SphinxClient#BuildExcerpts(String[], String, String, ExcerptOptions)}.
+ *
+ * The options are encoded into their wire format once when built, so building excerpts with the
+ * same options object does not re-validate or re-encode anything. Options are created with a
+ * {@link Builder}, any option not set keeps the searchd default.
+ *
+ * <code>
+ *      ExcerptOptions opts = ExcerptOptions.builder().beforeMatch("&lt;em&gt;").afterMatch("&lt;/em&gt;").limit(200).build();
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class ExcerptOptions {
+
+    /** Options with all searchd defaults. */
+    public static final ExcerptOptions DEFAULT = builder().build();
+
+    /* excerpt flags */
+    private static final int FLAG_REMOVE_SPACES     = 1;
+    private static final int FLAG_EXACT_PHRASE      = 2;
+    private static final int FLAG_SINGLE_PASSAGE    = 4;
+    private static final int FLAG_USE_BOUNDARIES    = 8;
+    private static final int FLAG_WEIGHT_ORDER      = 16;
+    private static final int FLAG_QUERY_MODE        = 32;
+    private static final int FLAG_FORCE_ALL_WORDS   = 64;
+    private static final int FLAG_LOAD_FILES        = 128;
+    private static final int FLAG_ALLOW_EMPTY       = 256;
+
+    private final String beforeMatch;
+    private final String afterMatch;
+    private final String chunkSeparator;
+    private final String htmlStripMode;
+    private final int limit;
+    private final int around;
+    private final int limitPassages;
+    private final int limitWords;
+    private final int startPassageId;
+    private final int flags;
+
+    private final byte[] encoded;
+    private final int hashCode;
+
+
+    private ExcerptOptions(Builder builder) {
+        this.beforeMatch = builder.beforeMatch;
+        this.afterMatch = builder.afterMatch;
+        this.chunkSeparator = builder.chunkSeparator;
+        this.htmlStripMode = builder.htmlStripMode;
+        this.limit = builder.limit;
+        this.around = builder.around;
+        this.limitPassages = builder.limitPassages;
+        this.limitWords = builder.limitWords;
+        this.startPassageId = builder.startPassageId;
+        this.flags = builder.flags;
+
+        this.encoded = encode();
+        this.hashCode = 31 * flags + Arrays.hashCode(encoded);
+    }
+
+    /**
+     * Returns a new builder initialized with the searchd defaults.
+     *
+     * @return options builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds an options object from a legacy options map, as accepted by
+     * {@link SphinxClient#BuildExcerpts(String[], String, String, java.util.Map)}. Missing keys use
+     * the searchd defaults.
+     *
+     * @param opts map of String keys to String or Integer values, may be null
+     * @return options object
+     */
+    public static ExcerptOptions fromMap(Map<String, ?> opts) {
+        Builder builder = builder();
+        if (opts == null) return builder.build();
+
+        if (opts.containsKey("before_match")) builder.beforeMatch((String) opts.get("before_match"));
+        if (opts.containsKey("after_match")) builder.afterMatch((String) opts.get("after_match"));
+        if (opts.containsKey("chunk_separator")) builder.chunkSeparator((String) opts.get("chunk_separator"));
+        if (opts.containsKey("html_strip_mode")) builder.htmlStripMode((String) opts.get("html_strip_mode"));
+        if (opts.containsKey("limit")) builder.limit(intOpt(opts, "limit"));
+        if (opts.containsKey("around")) builder.around(intOpt(opts, "around"));
+        if (opts.containsKey("limit_passages")) builder.limitPassages(intOpt(opts, "limit_passages"));
+        if (opts.containsKey("limit_words")) builder.limitWords(intOpt(opts, "limit_words"));
+        if (opts.containsKey("start_passage_id")) builder.startPassageId(intOpt(opts, "start_passage_id"));
+
+        builder.flag(FLAG_EXACT_PHRASE, intOpt(opts, "exact_phrase") != 0);
+        builder.flag(FLAG_SINGLE_PASSAGE, intOpt(opts, "single_passage") != 0);
+        builder.flag(FLAG_USE_BOUNDARIES, intOpt(opts, "use_boundaries") != 0);
+        builder.flag(FLAG_WEIGHT_ORDER, intOpt(opts, "weight_order") != 0);
+        builder.flag(FLAG_QUERY_MODE, intOpt(opts, "query_mode") != 0);
+        builder.flag(FLAG_FORCE_ALL_WORDS, intOpt(opts, "force_all_words") != 0);
+        builder.flag(FLAG_LOAD_FILES, intOpt(opts, "load_files") != 0);
+        builder.flag(FLAG_ALLOW_EMPTY, intOpt(opts, "allow_empty") != 0);
+
+        return builder.build();
+    }
+
+    private static int intOpt(Map<String, ?> opts, String key) {
+        Object value = opts.get(key);
+        return value == null ? 0 : ((Integer) value).intValue();
+    }
+
+    /**
+     * Encodes the options that follow the index name and words in an excerpts request.
+     */
+    private byte[] encode() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        try {
+            SphinxClient.writeNetUTF8(out, beforeMatch);
+            SphinxClient.writeNetUTF8(out, afterMatch);
+            SphinxClient.writeNetUTF8(out, chunkSeparator);
+            out.writeInt(limit);
+            out.writeInt(around);
+            out.writeInt(limitPassages);
+            out.writeInt(limitWords);
+            out.writeInt(startPassageId);
+            SphinxClient.writeNetUTF8(out, htmlStripMode);
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode excerpt options", e);
+        }
+        return buf.toByteArray();
+    }
+
+    /** Excerpt flags, as sent to searchd. */
+    int getFlags() {
+        return flags;
+    }
+
+    /** Pre-encoded options, as sent to searchd. */
+    byte[] getEncoded() {
+        return encoded;
+    }
+
+    public String getBeforeMatch() {
+        return beforeMatch;
+    }
+
+    public String getAfterMatch() {
+        return afterMatch;
+    }
+
+    public String getChunkSeparator() {
+        return chunkSeparator;
+    }
+
+    public String getHtmlStripMode() {
+        return htmlStripMode;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getAround() {
+        return around;
+    }
+
+    public int getLimitPassages() {
+        return limitPassages;
+    }
+
+    public int getLimitWords() {
+        return limitWords;
+    }
+
+    public int getStartPassageId() {
+        return startPassageId;
+    }
+
+    public boolean isExactPhrase() {
+        return (flags & FLAG_EXACT_PHRASE) != 0;
+    }
+
+    public boolean isSinglePassage() {
+        return (flags & FLAG_SINGLE_PASSAGE) != 0;
+    }
+
+    public boolean isUseBoundaries() {
+        return (flags & FLAG_USE_BOUNDARIES) != 0;
+    }
+
+    public boolean isWeightOrder() {
+        return (flags & FLAG_WEIGHT_ORDER) != 0;
+    }
+
+    public boolean isQueryMode() {
+        return (flags & FLAG_QUERY_MODE) != 0;
+    }
+
+    public boolean isForceAllWords() {
+        return (flags & FLAG_FORCE_ALL_WORDS) != 0;
+    }
+
+    public boolean isLoadFiles() {
+        return (flags & FLAG_LOAD_FILES) != 0;
+    }
+
+    public boolean isAllowEmpty() {
+        return (flags & FLAG_ALLOW_EMPTY) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ExcerptOptions that = (ExcerptOptions) o;
+        return flags == that.flags && Arrays.equals(encoded, that.encoded);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+
+    /**
+     * Builder for {@link ExcerptOptions}, initialized with the searchd defaults.
+     */
+    public static class Builder {
+
+        private String beforeMatch = "<b>";
+        private String afterMatch = "</b>";
+        private String chunkSeparator = "...";
+        private String htmlStripMode = "index";
+        private int limit = 256;
+        private int around = 5;
+        private int limitPassages = 0;
+        private int limitWords = 0;
+        private int startPassageId = 1;
+        private int flags = FLAG_REMOVE_SPACES;
+
+        private Builder() {
+        }
+
+        public Builder beforeMatch(String beforeMatch) {
+            this.beforeMatch = beforeMatch;
+            return this;
+        }
+
+        public Builder afterMatch(String afterMatch) {
+            this.afterMatch = afterMatch;
+            return this;
+        }
+
+        public Builder chunkSeparator(String chunkSeparator) {
+            this.chunkSeparator = chunkSeparator;
+            return this;
+        }
+
+        public Builder htmlStripMode(String htmlStripMode) {
+            this.htmlStripMode = htmlStripMode;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder around(int around) {
+            this.around = around;
+            return this;
+        }
+
+        public Builder limitPassages(int limitPassages) {
+            this.limitPassages = limitPassages;
+            return this;
+        }
+
+        public Builder limitWords(int limitWords) {
+            this.limitWords = limitWords;
+            return this;
+        }
+
+        public Builder startPassageId(int startPassageId) {
+            this.startPassageId = startPassageId;
+            return this;
+        }
+
+        public Builder exactPhrase(boolean exactPhrase) {
+            return flag(FLAG_EXACT_PHRASE, exactPhrase);
+        }
+
+        public Builder singlePassage(boolean singlePassage) {
+            return flag(FLAG_SINGLE_PASSAGE, singlePassage);
+        }
+
+        public Builder useBoundaries(boolean useBoundaries) {
+            return flag(FLAG_USE_BOUNDARIES, useBoundaries);
+        }
+
+        public Builder weightOrder(boolean weightOrder) {
+            return flag(FLAG_WEIGHT_ORDER, weightOrder);
+        }
+
+        public Builder queryMode(boolean queryMode) {
+            return flag(FLAG_QUERY_MODE, queryMode);
+        }
+
+        public Builder forceAllWords(boolean forceAllWords) {
+            return flag(FLAG_FORCE_ALL_WORDS, forceAllWords);
+        }
+
+        public Builder loadFiles(boolean loadFiles) {
+            return flag(FLAG_LOAD_FILES, loadFiles);
+        }
+
+        public Builder allowEmpty(boolean allowEmpty) {
+            return flag(FLAG_ALLOW_EMPTY, allowEmpty);
+        }
+
+        private Builder flag(int flag, boolean set) {
+            flags = set ? flags | flag : flags & ~flag;
+            return this;
+        }
+
+        /**
+         * Validates and encodes the options.
+         *
+         * @return immutable options object
+         * @throws IllegalArgumentException if an option is out of range
+         */
+        public ExcerptOptions build() {
+            if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+            if (around < 0) throw new IllegalArgumentException("around must not be negative");
+            if (limitPassages < 0) throw new IllegalArgumentException("limit_passages must not be negative");
+            if (limitWords < 0) throw new IllegalArgumentException("limit_words must not be negative");
+            return new ExcerptOptions(this);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.sphinx.api;
+
+import java.util.Arrays;
+
+/**
+ * Counts of the matching documents for each value of an attribute, as returned by a {@link FacetQuery}.
+ *
+ * Buckets are held in two parallel primitive arrays, ordered by descending count.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class Facet {
+
+    private final String attribute;
+    private final long[] keys;
+    private final long[] counts;
+    private final int totalFound;
+
+
+    Facet(String attribute, long[] keys, long[] counts, int totalFound) {
+        this.attribute = attribute;
+        this.keys = keys;
+        this.counts = counts;
+        this.totalFound = totalFound;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return number of buckets
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the attribute value of a bucket.
+     *
+     * @param i bucket index
+     * @return attribute value
+     */
+    public long getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Returns the number of matching documents in a bucket.
+     *
+     * @param i bucket index
+     * @return document count
+     */
+    public long getCount(int i) {
+        return counts[i];
+    }
+
+    /**
+     * Returns the attribute values of all buckets. The array is shared and must not be modified.
+     *
+     * @return attribute values
+     */
+    public long[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the document counts of all buckets, in the same order as the keys. The array is shared
+     * and must not be modified.
+     *
+     * @return document counts
+     */
+    public long[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * Returns the document count for an attribute value.
+     *
+     * @param key attribute value
+     * @return document count, 0 if there is no bucket for the value
+     */
+    public long getCountOf(long key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) return counts[i];
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the total number of groups found for the attribute, as reported by searchd.
+     *
+     * @return total groups found
+     */
+    public int getTotalFound() {
+        return totalFound;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Facet{attribute=").append(attribute).append(", buckets={");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(keys[i]).append('=').append(counts[i]);
+        }
+        return builder.append("}}").toString();
+    }
+}
@@ -0,0 +1,218 @@
+package org.sphinx.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Faceted search: counts of the matching documents per value of a number of attributes.
+ *
+ * A group-by variant of the base request is built for each facet attribute, and all variants are sent
+ * together as a single multi-query. The group-by results are decoded straight from the response into
+ * primitive key and count arrays, without creating a {@link SphinxMatch} for every bucket.
+ *
+ * <code>
+ *      FacetQuery facets = FacetQuery.of(request, 10, "brand_id", "category_id");
+ *      Facet[] result = facets.execute(client);
+ *
+ *      for (int i = 0; i &lt; result[0].size(); i++) {
+ *          long brandId = result[0].getKey(i);
+ *          long count = result[0].getCount(i);
+ *      }
+ * </code>
+ *
+ * Facet queries are immutable and can be shared between threads.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class FacetQuery {
+
+    public static final int DEFAULT_MAX_BUCKETS = 20;
+
+    private final SearchRequest base;
+    private final String[] attributes;
+    private final SearchRequest[] requests;
+
+
+    private FacetQuery(SearchRequest base, int maxBuckets, String[] attributes) {
+        this.base = base;
+        this.attributes = attributes;
+        this.requests = new SearchRequest[attributes.length];
+
+        for (int i = 0; i < attributes.length; i++) {
+            requests[i] = base.toBuilder()
+                    .limits(0, maxBuckets, Math.max(base.getMaxMatches(), maxBuckets), base.getCutoff())
+                    .groupBy(attributes[i], SphinxClient.SPH_GROUPBY_ATTR, "@count desc")
+                    .groupDistinct(null)
+                    .build();
+        }
+    }
+
+    /**
+     * Creates a facet query returning up to {@link #DEFAULT_MAX_BUCKETS} buckets per facet.
+     *
+     * @param base search request to count matching documents of
+     * @param attributes facet attributes
+     * @return facet query
+     */
+    public static FacetQuery of(SearchRequest base, String... attributes) {
+        return of(base, DEFAULT_MAX_BUCKETS, attributes);
+    }
+
+    /**
+     * Creates a facet query. The buckets with the most matching documents are returned for each facet.
+     *
+     * @param base search request to count matching documents of, the limits and group-by settings are replaced
+     * @param maxBuckets maximum number of buckets per facet
+     * @param attributes facet attributes
+     * @return facet query
+     */
+    public static FacetQuery of(SearchRequest base, int maxBuckets, String... attributes) {
+        if (base == null) throw new IllegalArgumentException("base request must not be null");
+        if (maxBuckets <= 0) throw new IllegalArgumentException("maxBuckets must be positive");
+        if (attributes.length == 0) throw new IllegalArgumentException("at least one facet attribute is required");
+        for (String attribute : attributes) {
+            if (attribute == null || attribute.length() == 0) throw new IllegalArgumentException("facet attribute name must not be null or empty");
+        }
+        return new FacetQuery(base, maxBuckets, attributes.clone());
+    }
+
+    public SearchRequest getBase() {
+        return base;
+    }
+
+    public String[] getAttributes() {
+        return attributes.clone();
+    }
+
+    /**
+     * Returns the group-by search requests, one for each facet attribute.
+     *
+     * @return search requests
+     */
+    public SearchRequest[] getRequests() {
+        return requests.clone();
+    }
+
+    /**
+     * Runs the facet query as a single multi-query.
+     *
+     * @param client sphinx client
+     * @return facets, in the order of the facet attributes
+     * @throws SphinxException if the query failed
+     */
+    public Facet[] execute(ISphinxClient client) throws SphinxException {
+        SearchResponse response = client.FetchResults(requests);
+        if (response == null) {
+            throw new SphinxException(client.GetLastError());
+        }
+        return decode(response);
+    }
+
+    /**
+     * Decodes the facets from the response to the facet requests.
+     *
+     * @param response response to {@link #getRequests()}
+     * @return facets, in the order of the facet attributes
+     * @throws SphinxException if the query failed for any of the facets
+     */
+    public Facet[] decode(SearchResponse response) throws SphinxException {
+        if (response.getCount() != attributes.length) {
+            throw new IllegalArgumentException("expected a response with " + attributes.length + " results, got " + response.getCount());
+        }
+
+        try {
+            byte[] data = response.data();
+            int[] bounds = response.bounds();
+
+            Facet[] facets = new Facet[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                facets[i] = decode(attributes[i], data, bounds[i], bounds[i + 1]);
+            }
+            return facets;
+
+        } catch (IOException e) {
+            throw new SphinxException("incomplete reply");
+        }
+    }
+
+    /**
+     * Decodes a single group-by result, reading only the group key and count of each bucket.
+     */
+    private static Facet decode(String attribute, byte[] buf, int start, int end) throws IOException, SphinxException {
+        PacketBuffer.Reader in = PacketBuffer.reader(buf, start, end - start);
+
+        int status = in.readInt();
+        if (status != SphinxClient.SEARCHD_OK) {
+            String message = in.readNetUTF8(false);
+            if (status != SphinxClient.SEARCHD_WARNING) {
+                throw new SphinxException("facet '" + attribute + "' failed: " + message);
+            }
+        }
+
+        SphinxSchema schema = SchemaCache.SHARED.read(in);
+        int keyColumn = schema.getColumn("@groupby");
+        int countColumn = schema.getColumn("@count");
+        if (keyColumn < 0 || countColumn < 0) {
+            throw new SphinxException("facet '" + attribute + "' did not return a group-by result");
+        }
+
+        int count = in.readInt();
+        int head = (in.readInt() != 0 ? 8 : 4) + 4; // document id and weight
+        int nattrs = schema.getAttrCount();
+        boolean bigintKey;
+        switch (schema.getAttrType(keyColumn)) {
+            case SphinxClient.SPH_ATTR_INTEGER:
+            case SphinxClient.SPH_ATTR_TIMESTAMP:
+            case SphinxClient.SPH_ATTR_ORDINAL:
+            case SphinxClient.SPH_ATTR_BOOL:
+                bigintKey = false;
+                break;
+            case SphinxClient.SPH_ATTR_BIGINT:
+                bigintKey = true;
+                break;
+            default:
+                // float, string and multi-value keys cannot be read as a long
+                throw new SphinxException("facet '" + attribute + "' has an unsupported group key type " + schema.getAttrType(keyColumn));
+        }
+
+        long[] keys = new long[count];
+        long[] counts = new long[count];
+
+        int pos = in.position();
+        for (int i = 0; i < count; i++) {
+            pos += head;
+            for (int a = 0; a < nattrs; a++) {
+                if (a == keyColumn) {
+                    keys[i] = bigintKey ? getLong(buf, pos, end) : getDword(buf, pos, end);
+                } else if (a == countColumn) {
+                    counts[i] = getDword(buf, pos, end);
+                }
+                pos = schema.getDecoder(a).skip(buf, pos, end);
+            }
+            if (pos > end) throw new EOFException();
+        }
+
+        in.skip(pos - in.position());
+        in.readInt(); // total
+        int totalFound = in.readInt();
+
+        return new Facet(attribute, keys, counts, totalFound);
+    }
+
+    private static long getDword(byte[] buf, int pos, int limit) throws EOFException {
+        if (pos + 4 > limit) throw new EOFException();
+        return ((buf[pos] & 0xffL) << 24) | ((buf[pos + 1] & 0xff) << 16) | ((buf[pos + 2] & 0xff) << 8) | (buf[pos + 3] & 0xff);
+    }
+
+    private static long getLong(byte[] buf, int pos, int limit) throws EOFException {
+        if (pos + 8 > limit) throw new EOFException();
+        return (getDword(buf, pos, limit) << 32) | getDword(buf, pos + 4, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "FacetQuery{index=" + base.getIndex() + ", attributes=" + Arrays.toString(attributes) + "}";
+    }
+}
@@ -1,14 +1,17 @@
 package org.sphinx.api;
 
+import java.net.InetSocketAddress;
 import java.util.Map;
 
 /**
  * Sphinx client interface, extracted from the original SphinxClient provided by sphinx.org
  *
+ * Clients are {@link AutoCloseable}, closing a client is the same as calling {@link #Close()}.
+ *
  * @author Brian Cowdery
  * @since 28-05-2015
  */
-public interface ISphinxClient {
+public interface ISphinxClient extends AutoCloseable {
 
 	String GetLastError();
 
@@ -18,8 +21,16 @@ public interface ISphinxClient {
 
 	void SetServer(String host, int port) throws SphinxException;
 
+	void SetServer(InetSocketAddress address) throws SphinxException;
+
 	void SetConnectTimeout(int timeout);
 
+	void SetMaxBufferSize(int size) throws SphinxException;
+
+	void SetParallelDecode(boolean enabled);
+
+	void SetSocketOptions(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) throws SphinxException;
+
 	void SetLimits(int offset, int limit, int max, int cutoff) throws SphinxException;
 
 	void SetLimits(int offset, int limit, int max) throws SphinxException;
@@ -78,6 +89,8 @@ public interface ISphinxClient {
 
 	void ResetOverrides();
 
+	void ResetQuery();
+
 	SphinxResult Query(String query) throws SphinxException;
 
 	SphinxResult Query(String query, String index) throws SphinxException;
@@ -88,8 +101,18 @@ public interface ISphinxClient {
 
 	SphinxResult[] RunQueries() throws SphinxException;
 
+	SphinxResult Query(SearchRequest request) throws SphinxException;
+
+	int AddQuery(SearchRequest request) throws SphinxException;
+
+	SphinxResult[] RunQueries(SearchRequest... requests) throws SphinxException;
+
+	SearchResponse FetchResults(SearchRequest... requests) throws SphinxException;
+
 	String[] BuildExcerpts(String[] docs, String index, String words, Map opts) throws SphinxException;
 
+	String[] BuildExcerpts(String[] docs, String index, String words, ExcerptOptions opts) throws SphinxException;
+
 	int UpdateAttributes(String index, String[] attrs, long[][] values, boolean ignorenonexistent) throws SphinxException;
 
 	int UpdateAttributesMVA(String index, long docid, String[] attrs, int[][] values, boolean ignorenonexistent) throws SphinxException;
@@ -98,9 +121,17 @@ public interface ISphinxClient {
 
 	int UpdateAttributesMVA(String index, long docid, String[] attrs, int[][] values) throws SphinxException;
 
+	int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values, boolean ignorenonexistent, int maxPacketSize) throws SphinxException;
+
+	int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values) throws SphinxException;
+
 	Map[] BuildKeywords(String query, String index, boolean hits) throws SphinxException;
 
+	SphinxKeyword[] BuildKeywordList(String query, String index, boolean hits) throws SphinxException;
+
 	int FlushAttributes() throws SphinxException;
 
 	boolean Close();
+
+	void close();
 }
@@ -0,0 +1,176 @@
+package org.sphinx.api;
+
+/**
+ * Page of matches held column by column, one primitive array per attribute.
+ *
+ * Document ids and weights are held in their own arrays. Each attribute column is a <code>long[]</code> for
+ * integer, timestamp, bool and bigint attributes, a <code>float[]</code> for floats, a <code>String[]</code>
+ * for strings and a <code>long[][]</code> for multi-valued attributes. Consumers scanning a few attributes of
+ * many matches read them from contiguous arrays instead of a list of boxed values per match.
+ *
+ * <code>
+ *      MatchBatch batch = MatchBatch.of(result);
+ *      long[] prices = batch.getLongColumn("price");
+ *      for (int i = 0; i < batch.size(); i++) {
+ *          total += prices[i];
+ *      }
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class MatchBatch {
+
+    private final SphinxSchema schema;
+    private final long[] docIds;
+    private final int[] weights;
+    private final Object[] columns;
+
+
+    private MatchBatch(SphinxSchema schema, long[] docIds, int[] weights, Object[] columns) {
+        this.schema = schema;
+        this.docIds = docIds;
+        this.weights = weights;
+        this.columns = columns;
+    }
+
+    /**
+     * Converts the matches of a search result to columns.
+     *
+     * @param result search result
+     * @return batch of matches
+     */
+    public static MatchBatch of(SphinxResult result) {
+        SphinxSchema schema = result.schema;
+        SphinxMatch[] matches = result.matches == null ? new SphinxMatch[0] : result.matches;
+        int[] types = new int[schema.getAttrCount()];
+        for (int c = 0; c < types.length; c++) {
+            types[c] = schema.getAttrType(c);
+        }
+
+        long[] docIds = new long[matches.length];
+        int[] weights = new int[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            docIds[i] = matches[i].docId;
+            weights[i] = matches[i].weight;
+        }
+
+        Object[] columns = new Object[types.length];
+        for (int c = 0; c < types.length; c++) {
+            switch (types[c]) {
+                case SphinxClient.SPH_ATTR_FLOAT:
+                    float[] floats = new float[matches.length];
+                    for (int i = 0; i < matches.length; i++) floats[i] = (Float) matches[i].attrValues.get(c);
+                    columns[c] = floats;
+                    break;
+
+                case SphinxClient.SPH_ATTR_STRING:
+                    String[] strings = new String[matches.length];
+                    for (int i = 0; i < matches.length; i++) strings[i] = (String) matches[i].attrValues.get(c);
+                    columns[c] = strings;
+                    break;
+
+                case SphinxClient.SPH_ATTR_MULTI:
+                case SphinxClient.SPH_ATTR_MULTI64:
+                    long[][] multi = new long[matches.length][];
+                    for (int i = 0; i < matches.length; i++) multi[i] = (long[]) matches[i].attrValues.get(c);
+                    columns[c] = multi;
+                    break;
+
+                default:
+                    long[] longs = new long[matches.length];
+                    for (int i = 0; i < matches.length; i++) longs[i] = (Long) matches[i].attrValues.get(c);
+                    columns[c] = longs;
+            }
+        }
+
+        return new MatchBatch(schema, docIds, weights, columns);
+    }
+
+    public SphinxSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the number of matches in the batch.
+     *
+     * @return number of matches
+     */
+    public int size() {
+        return docIds.length;
+    }
+
+    /**
+     * Returns the document ids. The array is shared and must not be modified.
+     *
+     * @return document ids
+     */
+    public long[] getDocIds() {
+        return docIds;
+    }
+
+    /**
+     * Returns the match weights. The array is shared and must not be modified.
+     *
+     * @return weights
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Returns the values of an integer, timestamp, bool or bigint attribute. The array is shared and must
+     * not be modified.
+     *
+     * @param name attribute name
+     * @return attribute values
+     * @throws ClassCastException if the attribute is not an integer type
+     */
+    public long[] getLongColumn(String name) {
+        return (long[]) column(name);
+    }
+
+    /**
+     * Returns the values of a float attribute. The array is shared and must not be modified.
+     *
+     * @param name attribute name
+     * @return attribute values
+     * @throws ClassCastException if the attribute is not a float
+     */
+    public float[] getFloatColumn(String name) {
+        return (float[]) column(name);
+    }
+
+    /**
+     * Returns the values of a string attribute. The array is shared and must not be modified.
+     *
+     * @param name attribute name
+     * @return attribute values
+     * @throws ClassCastException if the attribute is not a string
+     */
+    public String[] getStringColumn(String name) {
+        return (String[]) column(name);
+    }
+
+    /**
+     * Returns the values of a multi-valued attribute. The arrays are shared and must not be modified.
+     *
+     * @param name attribute name
+     * @return attribute values
+     * @throws ClassCastException if the attribute is not multi-valued
+     */
+    public long[][] getMultiColumn(String name) {
+        return (long[][]) column(name);
+    }
+
+    private Object column(String name) {
+        int column = schema.getColumn(name);
+        if (column < 0) throw new IllegalArgumentException("no such attribute: " + name);
+        return columns[column];
+    }
+
+    @Override
+    public String toString() {
+        return "MatchBatch{size=" + docIds.length + ", attributes=" + columns.length + "}";
+    }
+}
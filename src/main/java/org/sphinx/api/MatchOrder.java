@@ -0,0 +1,192 @@
+package org.sphinx.api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Client-side ordering of matches, following the searchd sorting modes and sort clauses so that matches
+ * from several result sets can be merged into the order searchd would have produced.
+ *
+ * Sort clauses are parsed against the result schema. Attributes that are not part of the schema can
+ * not be sorted on client side and are skipped. Matches always fall back to ascending document id, as
+ * searchd does.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class MatchOrder implements Comparator<SphinxMatch> {
+
+    /** Upper bounds of the time segments of SPH_SORT_TIME_SEGMENTS, in seconds. */
+    private static final long[] TIME_SEGMENTS = { 3600, 24 * 3600, 7 * 24 * 3600, 30 * 24 * 3600, 90 * 24 * 3600 };
+
+    private final Key[] keys;
+
+
+    private MatchOrder(List<Key> keys) {
+        this.keys = keys.toArray(new Key[keys.size()]);
+    }
+
+    /**
+     * Returns the order of matches for a search request.
+     */
+    static MatchOrder forMatches(SearchRequest request, SphinxSchema schema) {
+        String sortBy = request.getSortBy();
+
+        switch (request.getSortMode()) {
+            case SphinxClient.SPH_SORT_ATTR_DESC:
+                return parse(sortBy + " desc, @weight desc", schema);
+
+            case SphinxClient.SPH_SORT_ATTR_ASC:
+                return parse(sortBy + " asc, @weight desc", schema);
+
+            case SphinxClient.SPH_SORT_TIME_SEGMENTS:
+                List<Key> keys = new ArrayList<Key>();
+                int column = schema.getColumn(sortBy);
+                if (column >= 0) keys.add(new TimeSegmentKey(column, System.currentTimeMillis() / 1000));
+                keys.add(new WeightKey(false));
+                keys.add(new IdKey(true));
+                return new MatchOrder(keys);
+
+            case SphinxClient.SPH_SORT_EXTENDED:
+                return parse(sortBy, schema);
+
+            case SphinxClient.SPH_SORT_EXPR:
+                return parse("@expr desc, @weight desc", schema);
+
+            default:
+                return parse("@weight desc", schema);
+        }
+    }
+
+    /**
+     * Returns the order of groups for a group-by search request.
+     */
+    static MatchOrder forGroups(SearchRequest request, SphinxSchema schema) {
+        return parse(request.getGroupSort(), schema);
+    }
+
+    /**
+     * Parses an extended sort clause, such as "@weight desc, price asc".
+     */
+    static MatchOrder parse(String clause, SphinxSchema schema) {
+        List<Key> keys = new ArrayList<Key>();
+
+        if (clause != null) {
+            for (String part : clause.split(",")) {
+                String[] tokens = part.trim().split("\\s+");
+                if (tokens[0].length() == 0) continue;
+
+                String name = tokens[0].toLowerCase(Locale.ROOT);
+                boolean ascending = tokens.length < 2 || !tokens[1].equalsIgnoreCase("desc");
+
+                if (name.equals("@weight") || name.equals("@relevance") || name.equals("@rank")) {
+                    keys.add(new WeightKey(ascending));
+
+                } else if (name.equals("@id")) {
+                    keys.add(new IdKey(ascending));
+
+                } else {
+                    // "@group" is the grouping key, returned as the "@groupby" attribute
+                    int column = schema.getColumn(name.equals("@group") ? "@groupby" : tokens[0]);
+                    if (column >= 0) keys.add(new AttributeKey(column, ascending));
+                }
+            }
+        }
+
+        keys.add(new IdKey(true));
+        return new MatchOrder(keys);
+    }
+
+    public int compare(SphinxMatch a, SphinxMatch b) {
+        for (Key key : keys) {
+            int c = key.compare(a, b);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+
+    private abstract static class Key {
+        final boolean ascending;
+
+        Key(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        int compare(SphinxMatch a, SphinxMatch b) {
+            int c = compareAscending(a, b);
+            return ascending ? c : -c;
+        }
+
+        abstract int compareAscending(SphinxMatch a, SphinxMatch b);
+    }
+
+    private static final class WeightKey extends Key {
+        WeightKey(boolean ascending) {
+            super(ascending);
+        }
+
+        int compareAscending(SphinxMatch a, SphinxMatch b) {
+            return a.weight < b.weight ? -1 : (a.weight == b.weight ? 0 : 1);
+        }
+    }
+
+    private static final class IdKey extends Key {
+        IdKey(boolean ascending) {
+            super(ascending);
+        }
+
+        int compareAscending(SphinxMatch a, SphinxMatch b) {
+            return a.docId < b.docId ? -1 : (a.docId == b.docId ? 0 : 1);
+        }
+    }
+
+    private static final class AttributeKey extends Key {
+        private final int column;
+
+        AttributeKey(int column, boolean ascending) {
+            super(ascending);
+            this.column = column;
+        }
+
+        @SuppressWarnings("unchecked")
+        int compareAscending(SphinxMatch a, SphinxMatch b) {
+            Object x = a.attrValues.get(column);
+            Object y = b.attrValues.get(column);
+            if (x instanceof Comparable && y != null && x.getClass() == y.getClass()) {
+                return ((Comparable<Object>) x).compareTo(y);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Orders by age segment of a timestamp (last hour, day, week, month, 3 months and everything else),
+     * newest segment first.
+     */
+    private static final class TimeSegmentKey extends Key {
+        private final int column;
+        private final long now;
+
+        TimeSegmentKey(int column, long now) {
+            super(true);
+            this.column = column;
+            this.now = now;
+        }
+
+        int compareAscending(SphinxMatch a, SphinxMatch b) {
+            return segment(a) - segment(b);
+        }
+
+        private int segment(SphinxMatch match) {
+            Object value = match.attrValues.get(column);
+            long age = now - (value instanceof Long ? (Long) value : 0L);
+            for (int i = 0; i < TIME_SEGMENTS.length; i++) {
+                if (age < TIME_SEGMENTS[i]) return i;
+            }
+            return TIME_SEGMENTS.length;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.sphinx.api;
+
+import java.nio.charset.Charset;
+
+/**
+ * UTF-8 codec for protocol strings, encoding straight into and decoding straight from packet buffers.
+ *
+ * Most protocol strings (field and attribute names, index names, sort clauses) are plain ASCII. Encoding
+ * scans the string once for its encoded length and then writes the bytes in place, and decoding takes an
+ * ASCII fast path that copies the bytes without going through the UTF-8 decoder. Malformed surrogates
+ * are replaced with '?', in the same way as {@link String#getBytes(String)}.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class NetUTF8 {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    private NetUTF8() {
+    }
+
+    /**
+     * Returns the number of bytes needed to encode the string.
+     */
+    static int encodedLength(String s) {
+        int length = s.length();
+        int bytes = length;
+
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) continue;
+
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 2; // 4 bytes for the pair of chars
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // malformed, replaced with '?'
+            } else {
+                bytes += 2;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Encodes the string into the given array, which must have room for {@link #encodedLength(String)} bytes.
+     *
+     * @return offset after the last byte written
+     */
+    static int encode(String s, byte[] dst, int off) {
+        int length = s.length();
+        int i = 0;
+
+        // ASCII fast path
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) break;
+            dst[off++] = (byte) c;
+        }
+
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                dst[off++] = (byte) c;
+
+            } else if (c < 0x800) {
+                dst[off++] = (byte) (0xc0 | (c >> 6));
+                dst[off++] = (byte) (0x80 | (c & 0x3f));
+
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                dst[off++] = (byte) (0xf0 | (cp >> 18));
+                dst[off++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                dst[off++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                dst[off++] = (byte) (0x80 | (cp & 0x3f));
+
+            } else if (Character.isSurrogate(c)) {
+                dst[off++] = '?';
+
+            } else {
+                dst[off++] = (byte) (0xe0 | (c >> 12));
+                dst[off++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                dst[off++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+
+        return off;
+    }
+
+    /**
+     * Decodes a string from the given range of bytes.
+     */
+    static String decode(byte[] src, int off, int len) {
+        return isAscii(src, off, len) ? new String(src, off, len, LATIN1) : new String(src, off, len, UTF8);
+    }
+
+    static boolean isAscii(byte[] src, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            if (src[i] < 0) return false;
+        }
+        return true;
+    }
+}
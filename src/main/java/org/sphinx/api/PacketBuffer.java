@@ -0,0 +1,320 @@
+package org.sphinx.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reusable byte buffers for encoding requests and reading responses on a single client connection.
+ *
+ * Buffers keep their backing array between calls so that steady-state querying does not allocate
+ * for I/O. The array grows as needed, and is trimmed back down to the typical observed packet size
+ * when it has grown past the retention limit, so a single oversized packet does not pin memory for
+ * the lifetime of a pooled connection.
+ *
+ * Not thread safe, buffers belong to the client that owns the connection.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class PacketBuffer {
+
+    static final int DEFAULT_INITIAL_SIZE = 4 * 1024;
+    static final int DEFAULT_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final byte[] HEADER = new byte[SphinxClient.PACKET_HEADER_SIZE];
+
+    private final Output output;
+    private final Input input;
+    private final Output queries;
+    private int maxRetainedSize;
+
+
+    PacketBuffer() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    PacketBuffer(int initialSize, int maxRetainedSize) {
+        this.output = new Output(initialSize);
+        this.input = new Input(initialSize);
+        this.queries = new Output(0); // grows on first use, not every client queues queries
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    /**
+     * Sets the largest buffer size kept between calls. Larger buffers are trimmed once released.
+     */
+    void setMaxRetainedSize(int maxRetainedSize) {
+        this.maxRetainedSize = maxRetainedSize;
+        trim();
+    }
+
+    int getMaxRetainedSize() {
+        return maxRetainedSize;
+    }
+
+    /**
+     * Returns the request buffer, emptied for writing a new request. Space for the packet header is
+     * reserved at the front of the buffer, so that the header can be filled in once the length of the
+     * request is known and sent together with the body.
+     */
+    Output output() {
+        output.trim(maxRetainedSize);
+        output.write(HEADER, 0, HEADER.length);
+        return output;
+    }
+
+    /**
+     * Returns the request buffer holding the request written since the last call to {@link #output()}.
+     */
+    Output request() {
+        return output;
+    }
+
+    /**
+     * Returns the buffer holding the search queries added since the last call to {@link #clearQueries()},
+     * encoded back to back. Queries are written here as they are added, and copied into the request
+     * buffer once the multi-query is sent.
+     */
+    Output queries() {
+        return queries;
+    }
+
+    /**
+     * Empties the search query buffer, trimming it to the retention limit.
+     */
+    void clearQueries() {
+        queries.trim(maxRetainedSize);
+    }
+
+    /**
+     * Returns the response buffer, sized to hold a response of the given length. The caller reads
+     * the response into {@link Input#array()} and then consumes it as a stream.
+     */
+    Input input(int length) {
+        if (length <= maxRetainedSize) input.trim(maxRetainedSize);
+        input.prepare(length);
+        return input;
+    }
+
+    /**
+     * Empties the request and response buffers and trims them to the retention limit, called when the
+     * connection is released. Queries that have been added but not yet sent are kept.
+     */
+    void trim() {
+        output.trim(maxRetainedSize);
+        input.trim(maxRetainedSize);
+    }
+
+    /**
+     * Returns the capacity currently held by all buffers, in bytes.
+     */
+    int getRetainedSize() {
+        return output.capacity() + input.capacity() + queries.capacity();
+    }
+
+
+    /**
+     * Returns a response stream over a copy of a response, detached from any client buffers.
+     */
+    static Reader reader(byte[] response) {
+        return new Reader(new Input(response, 0, response.length));
+    }
+
+    /**
+     * Returns a response stream over a range of a response. Positions of the stream are offsets in the
+     * given array.
+     */
+    static Reader reader(byte[] response, int off, int len) {
+        return new Reader(new Input(response, off, len));
+    }
+
+
+    /**
+     * Exponentially weighted average of observed packet sizes, used to pick the size of a trimmed buffer.
+     */
+    private static int average(int average, int size) {
+        return average == 0 ? size : (int) ((average * 7L + size) / 8);
+    }
+
+    private static int trimmedSize(int average, int maxRetainedSize) {
+        return Math.max(DEFAULT_INITIAL_SIZE, Math.min(average * 2, maxRetainedSize));
+    }
+
+
+    /**
+     * Growable request buffer exposing its backing array, so that it can be written to the socket without copying.
+     */
+    static final class Output extends ByteArrayOutputStream {
+        private int average;
+
+        private Output(int size) {
+            super(size);
+        }
+
+        /** Backing array, valid up to {@link #size()}, starting with the reserved packet header. */
+        byte[] array() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (count > 0) average = average(average, count);
+            super.reset();
+        }
+
+        /** Discards everything written after the given size, e.g. a partly written query. */
+        void truncate(int size) {
+            if (size < count) count = size;
+        }
+
+        /** Encodes a string of the given encoded length directly into the backing array. */
+        private void writeUTF8(String s, int length) {
+            if (count + length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + length));
+            }
+            count = NetUTF8.encode(s, buf, count);
+        }
+
+        /** Empties the buffer, dropping the backing array if it has grown past the retention limit. */
+        private void trim(int maxRetainedSize) {
+            reset();
+            if (buf.length > maxRetainedSize) {
+                buf = new byte[trimmedSize(average, maxRetainedSize)];
+            }
+        }
+    }
+
+    /**
+     * Response buffer that is re-filled for every response.
+     */
+    static final class Input extends ByteArrayInputStream {
+        private int average;
+
+        private Input(int size) {
+            super(new byte[size], 0, 0);
+        }
+
+        private Input(byte[] response, int off, int len) {
+            super(response, off, len);
+        }
+
+        /** Backing array, the response is read into the first {@code length} bytes. */
+        byte[] array() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        /** Length of the current response. */
+        int length() {
+            return count;
+        }
+
+        /** Offset of the next byte to read in the backing array. */
+        int position() {
+            return pos;
+        }
+
+        /** Decodes a string directly from the backing array. */
+        private String readUTF8(int length, boolean intern) throws EOFException {
+            if (length < 0 || length > count - pos) throw new EOFException();
+
+            String s = intern ? StringInterner.SHARED.intern(buf, pos, length) : NetUTF8.decode(buf, pos, length);
+            pos += length;
+            return s;
+        }
+
+        private void prepare(int length) {
+            average = average(average, length);
+            if (buf.length < length) {
+                buf = new byte[length];
+            }
+            pos = 0;
+            mark = 0;
+            count = length;
+        }
+
+        /** Drops the backing array if it has grown past the retention limit. */
+        private void trim(int maxRetainedSize) {
+            if (buf.length > maxRetainedSize) {
+                buf = new byte[trimmedSize(average, maxRetainedSize)];
+                pos = 0;
+                mark = 0;
+                count = 0;
+            }
+        }
+    }
+
+
+    /**
+     * Request stream writing protocol strings directly into the request buffer.
+     */
+    static final class Writer extends DataOutputStream {
+        private final Output output;
+
+        Writer(Output output) {
+            super(output);
+            this.output = output;
+        }
+
+        /** Writes a length-prefixed UTF-8 string, a null string is written as an empty string. */
+        void writeNetUTF8(String s) throws IOException {
+            if (s == null) {
+                writeInt(0);
+                return;
+            }
+
+            int length = NetUTF8.encodedLength(s);
+            writeInt(length);
+            output.writeUTF8(s, length);
+            written += length;
+        }
+    }
+
+    /**
+     * Response stream reading protocol strings directly from the response buffer.
+     */
+    static final class Reader extends DataInputStream {
+        private final Input input;
+
+        Reader(Input input) {
+            super(input);
+            this.input = input;
+        }
+
+        /**
+         * Reads a length-prefixed UTF-8 string.
+         *
+         * @param intern true to share the decoded string through the {@link StringInterner}
+         */
+        String readNetUTF8(boolean intern) throws IOException {
+            return input.readUTF8(readInt(), intern);
+        }
+
+        /** Backing array of the response buffer. */
+        byte[] array() {
+            return input.array();
+        }
+
+        /** Offset of the next byte to read in the backing array. */
+        int position() {
+            return input.position();
+        }
+
+        /** End of the current response in the backing array. */
+        int limit() {
+            return input.length();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.sphinx.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search request template with slots for the query string, the limits and a number of values filters.
+ *
+ * The static parts of the template (match mode, ranker, sorting, weights, fixed filters, grouping,
+ * select-list and so on) are encoded once when the query is prepared. Binding a query only copies these
+ * pre-encoded segments and writes the slot values in between, without re-encoding the rest of the request.
+ *
+ * <code>
+ *      PreparedQuery byTenant = PreparedQuery.prepare(
+ *              SearchRequest.builder().index("products").sortMode(SphinxClient.SPH_SORT_ATTR_DESC, "created").build(),
+ *              "tenant_id");
+ *
+ *      SphinxResult result = client.Query(byTenant.bind("hello world", 0, 20, 42));
+ * </code>
+ *
+ * Prepared queries are immutable and can be shared between threads.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class PreparedQuery {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final SearchRequest template;
+    private final String[] filterSlots;
+
+    private final byte[] ranking;       // match mode through sort-by, between the limits and the query string
+    private final byte[] scope;         // weights through the fixed filters, between the query string and the filter slots
+    private final byte[][] slotHeads;   // filter slot attribute name and type
+    private final byte[] grouping;      // everything after the filters
+
+
+    private PreparedQuery(SearchRequest template, String[] filterSlots) {
+        this.template = template;
+        this.filterSlots = filterSlots;
+
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+
+            template.encodeRanking(out);
+            out.flush();
+            this.ranking = buf.toByteArray();
+
+            buf.reset();
+            template.encodeScope(out);
+            out.writeInt(template.getFilters().size() + filterSlots.length);
+            for (SearchRequest.Filter filter : template.getFilters()) {
+                filter.encode(out);
+            }
+            out.flush();
+            this.scope = buf.toByteArray();
+
+            this.slotHeads = new byte[filterSlots.length][];
+            for (int i = 0; i < filterSlots.length; i++) {
+                buf.reset();
+                SphinxClient.writeNetUTF8(out, filterSlots[i]);
+                out.writeInt(SphinxClient.SPH_FILTER_VALUES);
+                out.flush();
+                this.slotHeads[i] = buf.toByteArray();
+            }
+
+            buf.reset();
+            template.encodeGrouping(out);
+            out.flush();
+            this.grouping = buf.toByteArray();
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode search request template", e);
+        }
+    }
+
+    /**
+     * Prepares a query template. The query string and limits of the template are replaced when binding,
+     * all other settings including the template filters are kept as is. A values filter is added for each
+     * of the given filter slot attributes.
+     *
+     * @param template search request template
+     * @param filterSlots attribute names of the values filters to bind on execution
+     * @return prepared query
+     */
+    public static PreparedQuery prepare(SearchRequest template, String... filterSlots) {
+        if (template == null) throw new IllegalArgumentException("template must not be null");
+        for (String attribute : filterSlots) {
+            if (attribute == null || attribute.length() == 0) throw new IllegalArgumentException("filter slot attribute name must not be null or empty");
+        }
+        return new PreparedQuery(template, filterSlots.clone());
+    }
+
+    /**
+     * Returns the search request template.
+     *
+     * @return template
+     */
+    public SearchRequest getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the attribute names of the filter slots, in binding order.
+     *
+     * @return filter slot attribute names
+     */
+    public String[] getFilterSlots() {
+        return filterSlots.clone();
+    }
+
+    /**
+     * Binds a single value to each filter slot.
+     *
+     * @param query full-text query
+     * @param offset matches offset
+     * @param limit matches limit
+     * @param values one value for each filter slot, in slot order
+     * @return search request, ready to execute
+     */
+    public SearchRequest bind(String query, int offset, int limit, long... values) {
+        long[][] slotValues = new long[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            slotValues[i] = new long[] { values[i] };
+        }
+        return bind(query, offset, limit, slotValues);
+    }
+
+    /**
+     * Binds a set of values to each filter slot.
+     *
+     * @param query full-text query
+     * @param offset matches offset
+     * @param limit matches limit
+     * @param values set of values for each filter slot, in slot order
+     * @return search request, ready to execute
+     */
+    public SearchRequest bind(String query, int offset, int limit, long[][] values) {
+        if (offset < 0) throw new IllegalArgumentException("offset must not be negative");
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        if (values.length != filterSlots.length) {
+            throw new IllegalArgumentException("expected " + filterSlots.length + " filter slot values, got " + values.length);
+        }
+
+        byte[] queryBytes = query == null ? new byte[0] : query.getBytes(UTF8);
+
+        int length = 8 + ranking.length + 4 + queryBytes.length + scope.length + grouping.length;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null || values[i].length == 0) throw new IllegalArgumentException("values for filter slot '" + filterSlots[i] + "' must not be empty");
+            length += slotHeads[i].length + 4 + values[i].length * 8 + 4;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putInt(offset);
+        out.putInt(limit);
+        out.put(ranking);
+        out.putInt(queryBytes.length);
+        out.put(queryBytes);
+        out.put(scope);
+
+        List<SearchRequest.Filter> filters = new ArrayList<SearchRequest.Filter>(template.getFilters());
+        for (int i = 0; i < values.length; i++) {
+            out.put(slotHeads[i]);
+            out.putInt(values[i].length);
+            for (long value : values[i]) {
+                out.putLong(value);
+            }
+            out.putInt(0); // exclude
+            filters.add(SearchRequest.Filter.values(filterSlots[i], values[i], false));
+        }
+
+        out.put(grouping);
+
+        return new SearchRequest(template, query == null ? "" : query, offset, limit, filters, out.array());
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedQuery{index=" + template.getIndex() + ", filterSlots=" + Arrays.toString(filterSlots) + "}";
+    }
+}
@@ -0,0 +1,183 @@
+package org.sphinx.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodes the results of a multi-query response in parallel, or only the document ids of a result.
+ *
+ * The response is first skip-scanned to find where each result starts. The scan only reads the status,
+ * schema and length prefixes, matches are skipped over using the attribute widths of the schema. The
+ * results are then decoded independently of each other on a fork-join pool.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class ResultDecoder {
+
+    /** Responses smaller than this are decoded on the calling thread, in bytes. */
+    static final int MIN_PARALLEL_SIZE = 64 * 1024;
+
+    private ResultDecoder() {
+    }
+
+    /**
+     * Finds the boundaries of the results in a multi-query response.
+     *
+     * @param buf response
+     * @param off offset of the first result
+     * @param limit end of the response
+     * @param count number of results
+     * @return offsets of the results, with the end of the last result as the final element
+     * @throws IOException if the response is incomplete
+     */
+    static int[] scan(byte[] buf, int off, int limit, int count) throws IOException {
+        int[] bounds = new int[count + 1];
+        PacketBuffer.Reader in = PacketBuffer.reader(buf, off, limit - off);
+
+        for (int i = 0; i < count; i++) {
+            bounds[i] = in.position();
+
+            int status = in.readInt();
+            if (status != SphinxClient.SEARCHD_OK) {
+                skip(in, in.readInt());
+                if (status != SphinxClient.SEARCHD_WARNING) continue;
+            }
+
+            SphinxSchema schema = SchemaCache.SHARED.read(in);
+
+            int matches = in.readInt();
+            boolean id64 = in.readInt() != 0;
+            skip(in, schema.matchesLength(buf, in.position(), limit, matches, id64));
+
+            skip(in, 12); // total, total found and time
+
+            int words = in.readInt();
+            for (int w = 0; w < words; w++) {
+                skip(in, in.readInt() + 8);
+            }
+        }
+
+        bounds[count] = in.position();
+        return bounds;
+    }
+
+    /**
+     * Decodes a single result between the given offsets.
+     */
+    static SphinxResult decode(byte[] buf, int start, int end) throws IOException {
+        return SphinxClient.readResults(PacketBuffer.reader(buf, start, end - start), 1)[0];
+    }
+
+    /**
+     * Decodes only the document ids of a single result between the given offsets.
+     *
+     * @throws SphinxException if the query failed
+     */
+    static DocIdSet decodeIds(byte[] buf, int start, int end) throws IOException, SphinxException {
+        PacketBuffer.Reader in = PacketBuffer.reader(buf, start, end - start);
+
+        int status = in.readInt();
+        if (status != SphinxClient.SEARCHD_OK) {
+            String message = in.readNetUTF8(false);
+            if (status != SphinxClient.SEARCHD_WARNING) throw new SphinxException(message);
+        }
+
+        SphinxSchema schema = SchemaCache.SHARED.read(in);
+        int count = in.readInt();
+        boolean id64 = in.readInt() != 0;
+        int nattrs = schema.getAttrCount();
+
+        long[] ids = new long[count];
+        int pos = in.position();
+        for (int i = 0; i < count; i++) {
+            if (pos + (id64 ? 12 : 8) > end) throw new EOFException();
+            ids[i] = id64 ? getLong(buf, pos) : getDword(buf, pos);
+            pos += (id64 ? 8 : 4) + 4; // document id and weight
+
+            for (int a = 0; a < nattrs; a++) {
+                pos = schema.getDecoder(a).skip(buf, pos, end);
+            }
+            if (pos > end) throw new EOFException();
+        }
+
+        return DocIdSet.of(ids);
+    }
+
+    private static long getDword(byte[] buf, int pos) {
+        return ((buf[pos] & 0xffL) << 24) | ((buf[pos + 1] & 0xff) << 16) | ((buf[pos + 2] & 0xff) << 8) | (buf[pos + 3] & 0xff);
+    }
+
+    private static long getLong(byte[] buf, int pos) {
+        return (getDword(buf, pos) << 32) | getDword(buf, pos + 4);
+    }
+
+    /**
+     * Decodes the results of a multi-query response, in parallel on the given pool.
+     *
+     * @param buf response
+     * @param off offset of the first result
+     * @param limit end of the response
+     * @param count number of results
+     * @param pool pool to decode on
+     * @return decoded results
+     * @throws IOException if the response is incomplete
+     */
+    static SphinxResult[] decode(byte[] buf, int off, int limit, int count, ForkJoinPool pool) throws IOException {
+        int[] bounds = scan(buf, off, limit, count);
+        SphinxResult[] results = new SphinxResult[count];
+        try {
+            pool.invoke(new DecodeTask(buf, bounds, results, 0, count));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return results;
+    }
+
+    private static void skip(PacketBuffer.Reader in, int length) throws IOException {
+        if (length < 0 || length > in.limit() - in.position()) throw new EOFException();
+        in.skip(length);
+    }
+
+
+    /**
+     * Decodes a range of results, splitting the range in half until single results are left.
+     */
+    private static final class DecodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] buf;
+        private final int[] bounds;
+        private final SphinxResult[] results;
+        private final int from;
+        private final int to;
+
+        DecodeTask(byte[] buf, int[] bounds, SphinxResult[] results, int from, int to) {
+            this.buf = buf;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DecodeTask(buf, bounds, results, from, mid), new DecodeTask(buf, bounds, results, mid, to));
+                return;
+            }
+
+            try {
+                for (int i = from; i < to; i++) {
+                    results[i] = decode(buf, bounds[i], bounds[i + 1]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
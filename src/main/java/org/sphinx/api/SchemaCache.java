@@ -0,0 +1,133 @@
+package org.sphinx.api;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Cache of decoded result schemas, so that results of the same index share a single {@link SphinxSchema}
+ * instead of decoding the field and attribute names of every result again.
+ *
+ * Like the {@link StringInterner}, the cache is a fixed size table indexed by a hash of the encoded schema.
+ * A lookup measures the extent of the schema in the response buffer and compares those bytes against the
+ * cached entry; on a hit the schema is skipped over without decoding. Entries are immutable, so the table
+ * can be shared between threads without locking.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class SchemaCache {
+
+    /** Schema cache shared by all clients. */
+    static final SchemaCache SHARED = new SchemaCache(256, 16 * 1024);
+
+    private final Entry[] table;
+    private final int mask;
+    private final int maxLength;
+
+
+    /**
+     * @param size number of cache slots, rounded up to a power of two
+     * @param maxLength largest encoded schema in bytes to cache, larger schemas are decoded without caching
+     */
+    SchemaCache(int size, int maxLength) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.table = new Entry[capacity];
+        this.mask = capacity - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the schema of a result from the response stream, from the cache if possible. Streams other
+     * than the client response buffer are decoded without caching.
+     */
+    SphinxSchema read(DataInputStream in) throws IOException {
+        if (!(in instanceof PacketBuffer.Reader)) {
+            return SphinxSchema.read(in);
+        }
+
+        PacketBuffer.Reader reader = (PacketBuffer.Reader) in;
+        byte[] buf = reader.array();
+        int off = reader.position();
+        int len = extent(buf, off, reader.limit());
+        if (len < 0 || len > maxLength) {
+            // truncated or oversized, let the decoder deal with it
+            return SphinxSchema.read(in);
+        }
+
+        int hash = 1;
+        for (int i = off, end = off + len; i < end; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        hash ^= (hash >>> 16);
+
+        int slot = hash & mask;
+        Entry entry = table[slot];
+        if (entry != null && entry.hash == hash && entry.matches(buf, off, len)) {
+            reader.skipBytes(len);
+            return entry.schema;
+        }
+
+        byte[] bytes = new byte[len];
+        System.arraycopy(buf, off, bytes, 0, len);
+        SphinxSchema schema = SphinxSchema.read(in);
+        table[slot] = new Entry(hash, bytes, schema);
+        return schema;
+    }
+
+    /**
+     * Returns the encoded length of the schema starting at the given offset, or -1 if the schema
+     * extends past the end of the buffer.
+     */
+    static int extent(byte[] buf, int off, int limit) {
+        int pos = off;
+
+        // fields, each a length-prefixed string
+        if (pos + 4 > limit) return -1;
+        int nfields = getInt(buf, pos);
+        pos += 4;
+        for (int i = 0; i < nfields; i++) {
+            if (pos + 4 > limit) return -1;
+            int length = getInt(buf, pos);
+            if (length < 0 || length > limit - pos - 4) return -1;
+            pos += 4 + length;
+        }
+
+        // attributes, each a length-prefixed name followed by the type
+        if (pos + 4 > limit) return -1;
+        int nattrs = getInt(buf, pos);
+        pos += 4;
+        for (int i = 0; i < nattrs; i++) {
+            if (pos + 4 > limit) return -1;
+            int length = getInt(buf, pos);
+            if (length < 0 || length > limit - pos - 8) return -1;
+            pos += 8 + length;
+        }
+
+        return pos - off;
+    }
+
+    private static int getInt(byte[] buf, int off) {
+        return (buf[off] << 24) | ((buf[off + 1] & 0xff) << 16) | ((buf[off + 2] & 0xff) << 8) | (buf[off + 3] & 0xff);
+    }
+
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final SphinxSchema schema;
+
+        private Entry(int hash, byte[] bytes, SphinxSchema schema) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.schema = schema;
+        }
+
+        private boolean matches(byte[] src, int off, int len) {
+            if (bytes.length != len) return false;
+            for (int i = 0; i < len; i++) {
+                if (bytes[i] != src[off + i]) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,794 @@
+package org.sphinx.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable search query, holding all query settings independently of any {@link SphinxClient} instance.
+ *
+ * Query settings on the client (limits, filters, sorting, grouping and so on) are mutable state that
+ * stays with the client after the query has run. With pooled clients that state leaks from one borrower
+ * to the next. A search request carries its own settings instead, and is serialized into the searchd
+ * wire format once when it is built. The same request can be shared between threads and executed any
+ * number of times with {@link SphinxClient#Query(SearchRequest)} without being re-encoded.
+ *
+ * <code>
+ *      SearchRequest request = SearchRequest.builder()
+ *              .query("hello world")
+ *              .index("products")
+ *              .limits(0, 50)
+ *              .filter("tenant_id", 42, false)
+ *              .sortMode(SphinxClient.SPH_SORT_ATTR_DESC, "created")
+ *              .build();
+ *
+ *      SphinxResult result = client.Query(request);
+ * </code>
+ *
+ * Deprecated attribute overrides are not supported, use the SphinxQL REMAP() function instead.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SearchRequest {
+
+    private static final long MAX_DWORD = 0xFFFFFFFFL;
+
+    private final String query;
+    private final String index;
+    private final String comment;
+    private final int offset;
+    private final int limit;
+    private final int maxMatches;
+    private final int cutoff;
+    private final int matchMode;
+    private final int ranker;
+    private final String rankExpr;
+    private final int sortMode;
+    private final String sortBy;
+    private final int[] weights;
+    private final long minId;
+    private final long maxId;
+    private final List<Filter> filters;
+    private final int groupFunc;
+    private final String groupBy;
+    private final String groupSort;
+    private final String groupDistinct;
+    private final int retryCount;
+    private final int retryDelay;
+    private final String latitudeAttr;
+    private final String longitudeAttr;
+    private final float latitude;
+    private final float longitude;
+    private final Map<String, Integer> indexWeights;
+    private final int maxQueryTime;
+    private final Map<String, Integer> fieldWeights;
+    private final String select;
+
+    private final byte[] encoded;
+
+
+    private SearchRequest(Builder builder) {
+        this.query = builder.query;
+        this.index = builder.index;
+        this.comment = builder.comment;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+        this.maxMatches = builder.maxMatches;
+        this.cutoff = builder.cutoff;
+        this.matchMode = builder.matchMode;
+        this.ranker = builder.ranker;
+        this.rankExpr = builder.rankExpr;
+        this.sortMode = builder.sortMode;
+        this.sortBy = builder.sortBy;
+        this.weights = builder.weights;
+        this.minId = builder.minId;
+        this.maxId = builder.maxId;
+        this.filters = Collections.unmodifiableList(new ArrayList<Filter>(builder.filters));
+        this.groupFunc = builder.groupFunc;
+        this.groupBy = builder.groupBy;
+        this.groupSort = builder.groupSort;
+        this.groupDistinct = builder.groupDistinct;
+        this.retryCount = builder.retryCount;
+        this.retryDelay = builder.retryDelay;
+        this.latitudeAttr = builder.latitudeAttr;
+        this.longitudeAttr = builder.longitudeAttr;
+        this.latitude = builder.latitude;
+        this.longitude = builder.longitude;
+        this.indexWeights = Collections.unmodifiableMap(new LinkedHashMap<String, Integer>(builder.indexWeights));
+        this.maxQueryTime = builder.maxQueryTime;
+        this.fieldWeights = Collections.unmodifiableMap(new LinkedHashMap<String, Integer>(builder.fieldWeights));
+        this.select = builder.select;
+
+        this.encoded = encode();
+    }
+
+    /**
+     * Returns a new builder initialized with the same defaults as a new {@link SphinxClient}.
+     *
+     * @return request builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a new builder initialized with the settings of this request, for deriving new requests.
+     *
+     * @return request builder
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Creates a copy of a template request with the query, limits and filters replaced, using an
+     * encoding that has already been built by the caller.
+     */
+    SearchRequest(SearchRequest template, String query, int offset, int limit, List<Filter> filters, byte[] encoded) {
+        this.query = query;
+        this.index = template.index;
+        this.comment = template.comment;
+        this.offset = offset;
+        this.limit = limit;
+        this.maxMatches = template.maxMatches;
+        this.cutoff = template.cutoff;
+        this.matchMode = template.matchMode;
+        this.ranker = template.ranker;
+        this.rankExpr = template.rankExpr;
+        this.sortMode = template.sortMode;
+        this.sortBy = template.sortBy;
+        this.weights = template.weights;
+        this.minId = template.minId;
+        this.maxId = template.maxId;
+        this.filters = Collections.unmodifiableList(filters);
+        this.groupFunc = template.groupFunc;
+        this.groupBy = template.groupBy;
+        this.groupSort = template.groupSort;
+        this.groupDistinct = template.groupDistinct;
+        this.retryCount = template.retryCount;
+        this.retryDelay = template.retryDelay;
+        this.latitudeAttr = template.latitudeAttr;
+        this.longitudeAttr = template.longitudeAttr;
+        this.latitude = template.latitude;
+        this.longitude = template.longitude;
+        this.indexWeights = template.indexWeights;
+        this.maxQueryTime = template.maxQueryTime;
+        this.fieldWeights = template.fieldWeights;
+        this.select = template.select;
+
+        this.encoded = encoded;
+    }
+
+    /**
+     * Encodes the request in the same format as {@link SphinxClient#AddQuery(String, String, String)}.
+     */
+    private byte[] encode() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        try {
+            out.writeInt(offset);
+            out.writeInt(limit);
+            encodeRanking(out);
+            SphinxClient.writeNetUTF8(out, query);
+            encodeScope(out);
+
+            out.writeInt(filters.size());
+            for (Filter filter : filters) {
+                filter.encode(out);
+            }
+
+            encodeGrouping(out);
+            out.flush();
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode search request", e);
+        }
+
+        return buf.toByteArray();
+    }
+
+    /**
+     * Encodes the settings between the limits and the query string: match mode, ranker and sorting.
+     */
+    void encodeRanking(DataOutputStream out) throws IOException {
+        out.writeInt(matchMode);
+        out.writeInt(ranker);
+        if (ranker == SphinxClient.SPH_RANK_EXPR) {
+            SphinxClient.writeNetUTF8(out, rankExpr);
+        }
+        out.writeInt(sortMode);
+        SphinxClient.writeNetUTF8(out, sortBy);
+    }
+
+    /**
+     * Encodes the settings between the query string and the filters: weights, indexes and the id range.
+     */
+    void encodeScope(DataOutputStream out) throws IOException {
+        out.writeInt(weights.length);
+        for (int weight : weights) {
+            out.writeInt(weight);
+        }
+
+        SphinxClient.writeNetUTF8(out, index);
+
+        /* id range, 32-bit like AddQuery() unless the ids need 64 bits */
+        if (minId >= 0 && maxId >= 0 && minId <= MAX_DWORD && maxId <= MAX_DWORD) {
+            out.writeInt(0);
+            out.writeInt((int) minId);
+            out.writeInt((int) maxId);
+        } else {
+            out.writeInt(1);
+            out.writeLong(minId);
+            out.writeLong(maxId);
+        }
+    }
+
+    /**
+     * Encodes all settings following the filters, from grouping through to the select-list.
+     */
+    void encodeGrouping(DataOutputStream out) throws IOException {
+        /* group-by, max matches, sort-by-group flag */
+        out.writeInt(groupFunc);
+        SphinxClient.writeNetUTF8(out, groupBy);
+        out.writeInt(maxMatches);
+        SphinxClient.writeNetUTF8(out, groupSort);
+
+        out.writeInt(cutoff);
+        out.writeInt(retryCount);
+        out.writeInt(retryDelay);
+
+        SphinxClient.writeNetUTF8(out, groupDistinct);
+
+        /* anchor point */
+        if (latitudeAttr == null || longitudeAttr == null) {
+            out.writeInt(0);
+        } else {
+            out.writeInt(1);
+            SphinxClient.writeNetUTF8(out, latitudeAttr);
+            SphinxClient.writeNetUTF8(out, longitudeAttr);
+            out.writeFloat(latitude);
+            out.writeFloat(longitude);
+        }
+
+        /* per-index weights */
+        out.writeInt(indexWeights.size());
+        for (Map.Entry<String, Integer> entry : indexWeights.entrySet()) {
+            SphinxClient.writeNetUTF8(out, entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+
+        /* max query time */
+        out.writeInt(maxQueryTime);
+
+        /* per-field weights */
+        out.writeInt(fieldWeights.size());
+        for (Map.Entry<String, Integer> entry : fieldWeights.entrySet()) {
+            SphinxClient.writeNetUTF8(out, entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+
+        /* comment */
+        SphinxClient.writeNetUTF8(out, comment);
+
+        /* overrides, not supported */
+        out.writeInt(0);
+
+        /* select-list */
+        SphinxClient.writeNetUTF8(out, select);
+    }
+
+    /**
+     * Returns the request in the searchd wire format, as added to a multi-query by {@link SphinxClient#AddQuery(SearchRequest)}.
+     *
+     * @return encoded request, must not be modified
+     */
+    byte[] getEncoded() {
+        return encoded;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMaxMatches() {
+        return maxMatches;
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    public int getMatchMode() {
+        return matchMode;
+    }
+
+    public int getRanker() {
+        return ranker;
+    }
+
+    public String getRankExpr() {
+        return rankExpr;
+    }
+
+    public int getSortMode() {
+        return sortMode;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public List<Filter> getFilters() {
+        return filters;
+    }
+
+    public int getGroupFunc() {
+        return groupFunc;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public String getGroupSort() {
+        return groupSort;
+    }
+
+    public String getGroupDistinct() {
+        return groupDistinct;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public int getRetryDelay() {
+        return retryDelay;
+    }
+
+    public Map<String, Integer> getIndexWeights() {
+        return indexWeights;
+    }
+
+    public int getMaxQueryTime() {
+        return maxQueryTime;
+    }
+
+    public Map<String, Integer> getFieldWeights() {
+        return fieldWeights;
+    }
+
+    public String getSelect() {
+        return select;
+    }
+
+
+    /**
+     * Immutable attribute filter.
+     */
+    public static final class Filter {
+
+        private final String attribute;
+        private final int type;
+        private final long[] values;
+        private final long min;
+        private final long max;
+        private final float floatMin;
+        private final float floatMax;
+        private final boolean exclude;
+
+        private Filter(String attribute, int type, long[] values, long min, long max, float floatMin, float floatMax, boolean exclude) {
+            this.attribute = attribute;
+            this.type = type;
+            this.values = values;
+            this.min = min;
+            this.max = max;
+            this.floatMin = floatMin;
+            this.floatMax = floatMax;
+            this.exclude = exclude;
+        }
+
+        /**
+         * Values filter. Only match records where attribute value is in given set.
+         */
+        public static Filter values(String attribute, long[] values, boolean exclude) {
+            if (attribute == null || attribute.length() == 0) throw new IllegalArgumentException("attribute name must not be null or empty");
+            if (values == null || values.length == 0) throw new IllegalArgumentException("values array must not be null or empty");
+            return new Filter(attribute, SphinxClient.SPH_FILTER_VALUES, values.clone(), 0, 0, 0, 0, exclude);
+        }
+
+        /**
+         * Integer range filter. Only match records if attribute value is between min and max (inclusive).
+         */
+        public static Filter range(String attribute, long min, long max, boolean exclude) {
+            if (attribute == null || attribute.length() == 0) throw new IllegalArgumentException("attribute name must not be null or empty");
+            if (min > max) throw new IllegalArgumentException("min must be less or equal to max");
+            return new Filter(attribute, SphinxClient.SPH_FILTER_RANGE, null, min, max, 0, 0, exclude);
+        }
+
+        /**
+         * Float range filter. Only match records if attribute value is between min and max (inclusive).
+         */
+        public static Filter floatRange(String attribute, float min, float max, boolean exclude) {
+            if (attribute == null || attribute.length() == 0) throw new IllegalArgumentException("attribute name must not be null or empty");
+            if (min > max) throw new IllegalArgumentException("min must be less or equal to max");
+            return new Filter(attribute, SphinxClient.SPH_FILTER_FLOATRANGE, null, 0, 0, min, max, exclude);
+        }
+
+        void encode(DataOutputStream out) throws IOException {
+            SphinxClient.writeNetUTF8(out, attribute);
+            out.writeInt(type);
+            switch (type) {
+                case SphinxClient.SPH_FILTER_VALUES:
+                    out.writeInt(values.length);
+                    for (long value : values) {
+                        out.writeLong(value);
+                    }
+                    break;
+
+                case SphinxClient.SPH_FILTER_RANGE:
+                    out.writeLong(min);
+                    out.writeLong(max);
+                    break;
+
+                default:
+                    out.writeFloat(floatMin);
+                    out.writeFloat(floatMax);
+                    break;
+            }
+            out.writeInt(exclude ? 1 : 0);
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public boolean isExclude() {
+            return exclude;
+        }
+
+        public long[] getValues() {
+            return values == null ? null : values.clone();
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public float getFloatMin() {
+            return floatMin;
+        }
+
+        public float getFloatMax() {
+            return floatMax;
+        }
+    }
+
+
+    /**
+     * Builder for {@link SearchRequest}. Setters validate their arguments like the corresponding
+     * {@link SphinxClient} methods, but throw {@link IllegalArgumentException} instead.
+     */
+    public static class Builder {
+
+        private String query = "";
+        private String index = "*";
+        private String comment = "";
+        private int offset = 0;
+        private int limit = 20;
+        private int maxMatches = 1000;
+        private int cutoff = 0;
+        private int matchMode = SphinxClient.SPH_MATCH_EXTENDED2;
+        private int ranker = SphinxClient.SPH_RANK_PROXIMITY_BM25;
+        private String rankExpr = "";
+        private int sortMode = SphinxClient.SPH_SORT_RELEVANCE;
+        private String sortBy = "";
+        private int[] weights = new int[0];
+        private long minId = 0;
+        private long maxId = 0;
+        private List<Filter> filters = new ArrayList<Filter>();
+        private int groupFunc = SphinxClient.SPH_GROUPBY_DAY;
+        private String groupBy = "";
+        private String groupSort = "@group desc";
+        private String groupDistinct = "";
+        private int retryCount = 0;
+        private int retryDelay = 0;
+        private String latitudeAttr;
+        private String longitudeAttr;
+        private float latitude;
+        private float longitude;
+        private Map<String, Integer> indexWeights = new LinkedHashMap<String, Integer>();
+        private int maxQueryTime = 0;
+        private Map<String, Integer> fieldWeights = new LinkedHashMap<String, Integer>();
+        private String select = "*";
+
+        private Builder() {
+        }
+
+        private Builder(SearchRequest request) {
+            this.query = request.query;
+            this.index = request.index;
+            this.comment = request.comment;
+            this.offset = request.offset;
+            this.limit = request.limit;
+            this.maxMatches = request.maxMatches;
+            this.cutoff = request.cutoff;
+            this.matchMode = request.matchMode;
+            this.ranker = request.ranker;
+            this.rankExpr = request.rankExpr;
+            this.sortMode = request.sortMode;
+            this.sortBy = request.sortBy;
+            this.weights = request.weights;
+            this.minId = request.minId;
+            this.maxId = request.maxId;
+            this.filters = new ArrayList<Filter>(request.filters);
+            this.groupFunc = request.groupFunc;
+            this.groupBy = request.groupBy;
+            this.groupSort = request.groupSort;
+            this.groupDistinct = request.groupDistinct;
+            this.retryCount = request.retryCount;
+            this.retryDelay = request.retryDelay;
+            this.latitudeAttr = request.latitudeAttr;
+            this.longitudeAttr = request.longitudeAttr;
+            this.latitude = request.latitude;
+            this.longitude = request.longitude;
+            this.indexWeights = new LinkedHashMap<String, Integer>(request.indexWeights);
+            this.maxQueryTime = request.maxQueryTime;
+            this.fieldWeights = new LinkedHashMap<String, Integer>(request.fieldWeights);
+            this.select = request.select;
+        }
+
+        /** Set the full-text query. */
+        public Builder query(String query) {
+            this.query = query == null ? "" : query;
+            return this;
+        }
+
+        /** Set the index name(s) to search, "*" for all indexes. */
+        public Builder index(String index) {
+            if (index == null || index.length() == 0) throw new IllegalArgumentException("index must not be empty");
+            this.index = index;
+            return this;
+        }
+
+        /** Set the query comment, shown in the searchd query log. */
+        public Builder comment(String comment) {
+            this.comment = comment == null ? "" : comment;
+            return this;
+        }
+
+        /** Set matches offset and limit to return to client, max matches to retrieve on server, and cutoff. */
+        public Builder limits(int offset, int limit, int max, int cutoff) {
+            if (offset < 0) throw new IllegalArgumentException("offset must not be negative");
+            if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+            if (max <= 0) throw new IllegalArgumentException("max must be positive");
+            if (cutoff < 0) throw new IllegalArgumentException("cutoff must not be negative");
+
+            this.offset = offset;
+            this.limit = limit;
+            this.maxMatches = max;
+            this.cutoff = cutoff;
+            return this;
+        }
+
+        /** Set matches offset and limit to return to client, and max matches to retrieve on server. */
+        public Builder limits(int offset, int limit, int max) {
+            return limits(offset, limit, max, cutoff);
+        }
+
+        /** Set matches offset and limit to return to client. */
+        public Builder limits(int offset, int limit) {
+            return limits(offset, limit, maxMatches, cutoff);
+        }
+
+        /** Set maximum query time, in milliseconds, per-index, 0 means "do not limit". */
+        public Builder maxQueryTime(int maxQueryTime) {
+            if (maxQueryTime < 0) throw new IllegalArgumentException("max_query_time must not be negative");
+            this.maxQueryTime = maxQueryTime;
+            return this;
+        }
+
+        /** Set matching mode. DEPRECATED, use the extended query syntax instead. */
+        public Builder matchMode(int matchMode) {
+            if (matchMode < SphinxClient.SPH_MATCH_ALL || matchMode > SphinxClient.SPH_MATCH_EXTENDED2) {
+                throw new IllegalArgumentException("unknown mode value; use one of the SPH_MATCH_xxx constants");
+            }
+            this.matchMode = matchMode;
+            return this;
+        }
+
+        /** Set ranking mode. */
+        public Builder rankingMode(int ranker, String rankExpr) {
+            if (ranker < 0 || ranker >= SphinxClient.SPH_RANK_TOTAL) {
+                throw new IllegalArgumentException("unknown ranker value; use one of the SPH_RANK_xxx constants");
+            }
+            this.ranker = ranker;
+            this.rankExpr = rankExpr == null ? "" : rankExpr;
+            return this;
+        }
+
+        /** Set sorting mode. */
+        public Builder sortMode(int sortMode, String sortBy) {
+            if (sortMode < SphinxClient.SPH_SORT_RELEVANCE || sortMode > SphinxClient.SPH_SORT_EXPR) {
+                throw new IllegalArgumentException("unknown mode value; use one of the available SPH_SORT_xxx constants");
+            }
+            if (sortMode != SphinxClient.SPH_SORT_RELEVANCE && (sortBy == null || sortBy.length() == 0)) {
+                throw new IllegalArgumentException("sortby string must not be empty in selected mode");
+            }
+            this.sortMode = sortMode;
+            this.sortBy = sortBy == null ? "" : sortBy;
+            return this;
+        }
+
+        /** Set per-field weights (all values must be positive). DEPRECATED, use fieldWeights() instead. */
+        public Builder weights(int[] weights) {
+            if (weights == null) throw new IllegalArgumentException("weights must not be null");
+            for (int weight : weights) {
+                if (weight <= 0) throw new IllegalArgumentException("all weights must be greater than 0");
+            }
+            this.weights = weights.clone();
+            return this;
+        }
+
+        /** Bind per-field weights by field name. */
+        public Builder fieldWeights(Map<String, Integer> fieldWeights) {
+            this.fieldWeights = fieldWeights == null ? new LinkedHashMap<String, Integer>() : new LinkedHashMap<String, Integer>(fieldWeights);
+            return this;
+        }
+
+        /** Bind per-index weights by index name. */
+        public Builder indexWeights(Map<String, Integer> indexWeights) {
+            this.indexWeights = indexWeights == null ? new LinkedHashMap<String, Integer>() : new LinkedHashMap<String, Integer>(indexWeights);
+            return this;
+        }
+
+        /** Set document IDs range to match, 0 for max means "no upper bound". */
+        public Builder idRange(long min, long max) {
+            if (max != 0 && min > max) throw new IllegalArgumentException("min must be less or equal to max");
+            this.minId = min;
+            this.maxId = max;
+            return this;
+        }
+
+        /** Add a filter. */
+        public Builder filter(Filter filter) {
+            this.filters.add(filter);
+            return this;
+        }
+
+        /** Add a values filter. Only match records where attribute value is in given set. */
+        public Builder filter(String attribute, long[] values, boolean exclude) {
+            return filter(Filter.values(attribute, values, exclude));
+        }
+
+        /** Add a values filter with a single value. */
+        public Builder filter(String attribute, long value, boolean exclude) {
+            return filter(Filter.values(attribute, new long[] { value }, exclude));
+        }
+
+        /** Add an integer range filter. Only match records if attribute value is between min and max (inclusive). */
+        public Builder filterRange(String attribute, long min, long max, boolean exclude) {
+            return filter(Filter.range(attribute, min, max, exclude));
+        }
+
+        /** Add a float range filter. Only match records if attribute value is between min and max (inclusive). */
+        public Builder filterFloatRange(String attribute, float min, float max, boolean exclude) {
+            return filter(Filter.floatRange(attribute, min, max, exclude));
+        }
+
+        /** Remove all filters and the geo anchor. */
+        public Builder resetFilters() {
+            this.filters = new ArrayList<Filter>();
+            this.latitudeAttr = null;
+            this.longitudeAttr = null;
+            this.latitude = 0;
+            this.longitude = 0;
+            return this;
+        }
+
+        /** Setup geographical anchor point. Required to use @geodist in filters and sorting. */
+        public Builder geoAnchor(String latitudeAttr, String longitudeAttr, float latitude, float longitude) {
+            if (latitudeAttr == null || latitudeAttr.length() == 0) throw new IllegalArgumentException("latitudeAttr string must not be null or empty");
+            if (longitudeAttr == null || longitudeAttr.length() == 0) throw new IllegalArgumentException("longitudeAttr string must not be null or empty");
+            this.latitudeAttr = latitudeAttr;
+            this.longitudeAttr = longitudeAttr;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            return this;
+        }
+
+        /** Set grouping attribute, function and group sorting clause. */
+        public Builder groupBy(String attribute, int func, String groupSort) {
+            if (func < SphinxClient.SPH_GROUPBY_DAY || func > SphinxClient.SPH_GROUPBY_ATTRPAIR) {
+                throw new IllegalArgumentException("unknown func value; use one of the available SPH_GROUPBY_xxx constants");
+            }
+            this.groupBy = attribute == null ? "" : attribute;
+            this.groupFunc = func;
+            this.groupSort = groupSort;
+            return this;
+        }
+
+        /** Set grouping attribute and function with default ("@group desc") group sorting. */
+        public Builder groupBy(String attribute, int func) {
+            return groupBy(attribute, func, "@group desc");
+        }
+
+        /** Set count-distinct attribute for group-by queries. */
+        public Builder groupDistinct(String attribute) {
+            this.groupDistinct = attribute == null ? "" : attribute;
+            return this;
+        }
+
+        /** Clear group-by settings. */
+        public Builder resetGroupBy() {
+            this.groupBy = "";
+            this.groupFunc = SphinxClient.SPH_GROUPBY_DAY;
+            this.groupSort = "@group desc";
+            this.groupDistinct = "";
+            return this;
+        }
+
+        /** Set distributed retries count and delay. */
+        public Builder retries(int count, int delay) {
+            if (count < 0) throw new IllegalArgumentException("count must not be negative");
+            if (delay < 0) throw new IllegalArgumentException("delay must not be negative");
+            this.retryCount = count;
+            this.retryDelay = delay;
+            return this;
+        }
+
+        /** Set select-list (attributes or expressions), SQL-like syntax. */
+        public Builder select(String select) {
+            if (select == null) throw new IllegalArgumentException("select clause string must not be null");
+            this.select = select;
+            return this;
+        }
+
+        /**
+         * Builds and encodes the request.
+         *
+         * @return immutable search request
+         */
+        public SearchRequest build() {
+            return new SearchRequest(this);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.sphinx.api;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Undecoded response to a search multi-query, as returned by {@link SphinxClient#FetchResults(SearchRequest...)}.
+ *
+ * The response holds a copy of the raw result packet, independent of the client that fetched it. This
+ * allows a pooled client to be returned to the pool as soon as the response has been read off the socket,
+ * and the (comparatively expensive) decoding of the results to happen after the connection has been released.
+ *
+ * <code>
+ *      SearchResponse response = client.FetchResults(request);
+ *      client.Close();
+ *
+ *      SphinxResult[] results = response.decode();
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class SearchResponse {
+
+    private final byte[] data;
+    private final int count;
+    private volatile int[] bounds;
+
+
+    SearchResponse(byte[] data, int count) {
+        this.data = data;
+        this.count = count;
+    }
+
+    /**
+     * Returns the number of results in the response, one for each search request.
+     *
+     * @return number of results
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the size of the undecoded response in bytes.
+     *
+     * @return response size
+     */
+    public int getSize() {
+        return data.length;
+    }
+
+    /**
+     * Decodes the results, in the order of the search requests. Results of failed queries have their
+     * status set to {@link SphinxClient#SEARCHD_ERROR} and carry the error message, as with
+     * {@link SphinxClient#RunQueries()}.
+     *
+     * @return decoded results
+     * @throws SphinxException if the response is incomplete
+     */
+    public SphinxResult[] decode() throws SphinxException {
+        try {
+            return SphinxClient.readResults(PacketBuffer.reader(data), count);
+        } catch (IOException e) {
+            throw new SphinxException("incomplete reply");
+        }
+    }
+
+    /**
+     * Decodes a single result, without decoding the results before it. The response is scanned for the
+     * result boundaries the first time a single result is decoded.
+     *
+     * @param index index of the result, in the order of the search requests
+     * @return decoded result
+     * @throws SphinxException if the response is incomplete
+     */
+    public SphinxResult decode(int index) throws SphinxException {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("result " + index + " of " + count);
+
+        try {
+            int[] bounds = bounds();
+            return ResultDecoder.decode(data, bounds[index], bounds[index + 1]);
+
+        } catch (IOException e) {
+            throw new SphinxException("incomplete reply");
+        }
+    }
+
+    /**
+     * Decodes only the document ids of a single result, skipping over the weights and attribute values.
+     *
+     * @param index index of the result, in the order of the search requests
+     * @return document ids of the matches
+     * @throws SphinxException if the query failed or the response is incomplete
+     */
+    public DocIdSet decodeIds(int index) throws SphinxException {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("result " + index + " of " + count);
+
+        try {
+            int[] bounds = bounds();
+            return ResultDecoder.decodeIds(data, bounds[index], bounds[index + 1]);
+
+        } catch (IOException e) {
+            throw new SphinxException("incomplete reply");
+        }
+    }
+
+    /** Raw response, starting with the first result. */
+    byte[] data() {
+        return data;
+    }
+
+    /** Offsets of the results in the raw response, scanned on first use. */
+    int[] bounds() throws IOException {
+        int[] bounds = this.bounds;
+        if (bounds == null) {
+            this.bounds = bounds = ResultDecoder.scan(data, 0, data.length, count);
+        }
+        return bounds;
+    }
+
+    /**
+     * Decodes the results in parallel on the common fork-join pool.
+     *
+     * @see #decodeParallel(ForkJoinPool)
+     * @return decoded results
+     * @throws SphinxException if the response is incomplete
+     */
+    public SphinxResult[] decodeParallel() throws SphinxException {
+        return decodeParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decodes the results in parallel. The response is scanned for the result boundaries, and each result
+     * is then decoded as a separate task. Worthwhile for large responses to multi-queries, small responses
+     * decode faster on the calling thread with {@link #decode()}.
+     *
+     * @param pool fork-join pool to decode on
+     * @return decoded results
+     * @throws SphinxException if the response is incomplete
+     */
+    public SphinxResult[] decodeParallel(ForkJoinPool pool) throws SphinxException {
+        try {
+            return ResultDecoder.decode(data, 0, data.length, count, pool);
+        } catch (IOException e) {
+            throw new SphinxException("incomplete reply");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.sphinx.api;
+
+/**
+ * Typed accessor for an attribute of a result schema, resolved once to its column so that
+ * attribute values can be read from matches without looking the attribute up by name.
+ *
+ * @see SphinxSchema#getAttribute(String)
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class SphinxAttribute {
+
+    private final String name;
+    private final int type;
+    private final int column;
+
+
+    SphinxAttribute(String name, int type, int column) {
+        this.name = name;
+        this.type = type;
+        this.column = column;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the attribute type, see the SPH_ATTR_xxx constants in {@link SphinxClient}.
+     *
+     * @return attribute type
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Returns the column index of the attribute in {@link SphinxMatch#attrValues}.
+     *
+     * @return column index
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns true if the attribute holds a set of values (SPH_ATTR_MULTI or SPH_ATTR_MULTI64).
+     *
+     * @return true if multi-valued
+     */
+    public boolean isMulti() {
+        return type == SphinxClient.SPH_ATTR_MULTI || type == SphinxClient.SPH_ATTR_MULTI64;
+    }
+
+    /**
+     * Returns the raw attribute value of a match.
+     *
+     * @param match match
+     * @return attribute value
+     */
+    public Object get(SphinxMatch match) {
+        return match.attrValues.get(column);
+    }
+
+    /**
+     * Returns the value of an integer, timestamp, bool or bigint attribute.
+     *
+     * @param match match
+     * @return attribute value
+     * @throws ClassCastException if the attribute is not an integer type
+     */
+    public long getLong(SphinxMatch match) {
+        return (Long) match.attrValues.get(column);
+    }
+
+    /**
+     * Returns the value of a float attribute.
+     *
+     * @param match match
+     * @return attribute value
+     * @throws ClassCastException if the attribute is not a float
+     */
+    public float getFloat(SphinxMatch match) {
+        return (Float) match.attrValues.get(column);
+    }
+
+    /**
+     * Returns the value of a string attribute.
+     *
+     * @param match match
+     * @return attribute value
+     * @throws ClassCastException if the attribute is not a string
+     */
+    public String getString(SphinxMatch match) {
+        return (String) match.attrValues.get(column);
+    }
+
+    /**
+     * Returns the values of a multi-valued attribute.
+     *
+     * @param match match
+     * @return attribute values, must not be modified
+     * @throws ClassCastException if the attribute is not multi-valued
+     */
+    public long[] getMulti(SphinxMatch match) {
+        return (long[]) match.attrValues.get(column);
+    }
+
+    @Override
+    public String toString() {
+        return "SphinxAttribute{name=" + name + ", type=" + type + ", column=" + column + "}";
+    }
+}
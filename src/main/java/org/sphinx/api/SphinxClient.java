@@ -24,6 +24,7 @@ package org.sphinx.api;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.net.SocketAddress.*;
 
 /** Sphinx client class */
@@ -98,16 +99,23 @@ public class SphinxClient implements ISphinxClient {
 	private final static int VER_COMMAND_KEYWORDS	= 0x100;
 	private final static int VER_COMMAND_FLUSHATTRS	= 0x100;
 
+	/* request and response packet header: command or status, version, body length */
+	final static int PACKET_HEADER_SIZE		= 8;
+
+	/* default searchd max_packet_size, used to split bulk updates */
+	public final static int SPH_MAX_PACKET_SIZE		= 8*1024*1024;
+
 	/* filter types */
-	private final static int SPH_FILTER_VALUES		= 0;
-	private final static int SPH_FILTER_RANGE		= 1;
-	private final static int SPH_FILTER_FLOATRANGE	= 2;
+	final static int SPH_FILTER_VALUES		= 0;
+	final static int SPH_FILTER_RANGE		= 1;
+	final static int SPH_FILTER_FLOATRANGE	= 2;
 
 
 	private String		_host;
 	private int			_port;
 	private String		_path;
-	private Socket		_socket;
+	private InetSocketAddress	_address;
+	private volatile Connection	_socket;
 
 	private int			_offset;
 	private int			_limit;
@@ -137,8 +145,12 @@ public class SphinxClient implements ISphinxClient {
 	private String		_warning;
 	private boolean		_connerror;
 	private int			_timeout;
+	private boolean		_tcpNoDelay;
+	private boolean		_keepAlive;
+	private int			_sendBufferSize;
+	private int			_receiveBufferSize;
 
-	private ArrayList	_reqs;
+	private int			_nreqs;
 	private Map			_indexWeights;
 	private int			_ranker;
 	private String		_rankexpr;
@@ -148,6 +160,14 @@ public class SphinxClient implements ISphinxClient {
 	private Map			_overrideValues;
 	private String		_select;
 
+	private boolean		_parallelDecode;
+
+	private PacketBuffer	_buffers;
+	private PacketBuffer.Writer	_requestOut;
+	private PacketBuffer.Writer	_queriesOut;
+	private PacketBuffer.Reader	_responseIn;
+	private byte[]		_responseHeader;
+
 	/** Creates a new SphinxClient instance. */
 	public SphinxClient()
 	{
@@ -159,7 +179,8 @@ public class SphinxClient implements ISphinxClient {
 	{
 		_host	= host;
 		_port	= port;
-		_path	= null;
+		_path	= _ParsePath ( host );
+		_address	= null;
 		_socket	= null;
 
 		_offset	= 0;
@@ -193,8 +214,12 @@ public class SphinxClient implements ISphinxClient {
 		_warning		= "";
 		_connerror		= false;
 		_timeout		= 1000;
+		_tcpNoDelay		= true;
+		_keepAlive		= false;
+		_sendBufferSize	= 0;
+		_receiveBufferSize	= 0;
 
-		_reqs			= new ArrayList();
+		_nreqs			= 0;
 		_weights		= null;
 		_indexWeights	= new LinkedHashMap();
 		_fieldWeights	= new LinkedHashMap();
@@ -204,6 +229,14 @@ public class SphinxClient implements ISphinxClient {
 		_overrideTypes	= new LinkedHashMap();
 		_overrideValues	= new LinkedHashMap();
 		_select			= "*";
+
+		_parallelDecode	= false;
+
+		_buffers		= new PacketBuffer();
+		_requestOut		= new PacketBuffer.Writer ( _buffers.output() );
+		_queriesOut		= new PacketBuffer.Writer ( _buffers.queries() );
+		_responseIn		= new PacketBuffer.Reader ( _buffers.input ( 0 ) );
+		_responseHeader	= new byte[PACKET_HEADER_SIZE];
 	}
 
 	/** Get last error message, if any. */
@@ -224,13 +257,44 @@ public class SphinxClient implements ISphinxClient {
 		return _connerror;
 	}
 
-	/** Set searchd host and port to connect to. */
+	/**
+	 * Set searchd host and port to connect to. The host may also be the path of a UNIX socket, given
+	 * either as "unix:///path/to/searchd.sock" or as an absolute path, in which case the port is ignored.
+	 */
 	public void SetServer(String host, int port) throws SphinxException
 	{
 		myAssert ( host!=null && host.length()>0, "host name must not be empty" );
-		myAssert ( port>0 && port<65536, "port must be in 1..65535 range" );
+		_path = _ParsePath ( host );
+		if ( _path==null )
+			myAssert ( port>0 && port<65536, "port must be in 1..65535 range" );
 		_host = host;
 		_port = port;
+		_address = null;
+	}
+
+	/**
+	 * Set an already resolved searchd address to connect to, so that connecting does not need to resolve the
+	 * host name again. Used by connection pools that cache resolved addresses.
+	 */
+	public void SetServer(InetSocketAddress address) throws SphinxException
+	{
+		myAssert ( address!=null, "address must not be null" );
+		_host = address.getHostString();
+		_port = address.getPort();
+		_path = null;
+		_address = address;
+	}
+
+	/** Internal method. Returns the UNIX socket path from a host specification, or null for a TCP host. */
+	private static String _ParsePath ( String host )
+	{
+		if ( host==null )
+			return null;
+		if ( host.startsWith ( "unix://" ) )
+			return host.substring ( 7 );
+		if ( host.startsWith ( "/" ) )
+			return host;
+		return null;
 	}
 
 	/** Set server connection timeout (0 to remove), in milliseconds. */
@@ -239,6 +303,20 @@ public class SphinxClient implements ISphinxClient {
 		_timeout = Math.max ( timeout, 0 );
 	}
 
+	/**
+	 * Set socket options for new connections. Nagle's algorithm is disabled by default, as every request
+	 * is sent as a single packet. Buffer sizes of 0 keep the system defaults.
+	 */
+	public void SetSocketOptions(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) throws SphinxException
+	{
+		myAssert ( sendBufferSize>=0, "send buffer size must not be negative" );
+		myAssert ( receiveBufferSize>=0, "receive buffer size must not be negative" );
+		_tcpNoDelay = tcpNoDelay;
+		_keepAlive = keepAlive;
+		_sendBufferSize = sendBufferSize;
+		_receiveBufferSize = receiveBufferSize;
+	}
+
 	/** Internal method. Sanity check. */
 	private void myAssert ( boolean condition, String err ) throws SphinxException
 	{
@@ -249,9 +327,15 @@ public class SphinxClient implements ISphinxClient {
 		}
 	}
 
-	/** Internal method. String IO helper. */
-	private static void writeNetUTF8 ( DataOutputStream ostream, String str ) throws IOException
+	/** Internal method. String IO helper. Strings are encoded in place when writing to the request buffer. */
+	static void writeNetUTF8 ( DataOutputStream ostream, String str ) throws IOException
 	{
+		if ( ostream instanceof PacketBuffer.Writer )
+		{
+			( (PacketBuffer.Writer) ostream ).writeNetUTF8 ( str );
+			return;
+		}
+
 		if ( str==null )
 		{
 			ostream.writeInt ( 0 );
@@ -265,15 +349,29 @@ public class SphinxClient implements ISphinxClient {
 		ostream.write ( sBytes );
 	}
 
-	/** Internal method. String IO helper. */
+	/** Internal method. String IO helper. Strings are decoded in place when reading from the response buffer. */
 	private static String readNetUTF8(DataInputStream istream) throws IOException
 	{
+		if ( istream instanceof PacketBuffer.Reader )
+			return ( (PacketBuffer.Reader) istream ).readNetUTF8 ( false );
+
 		int iLen = istream.readInt();
 		byte[] sBytes = new byte [ iLen ];
 		istream.readFully ( sBytes );
 		return new String ( sBytes, "UTF-8");
 	}
 
+	/**
+	 * Internal method. String IO helper for strings that repeat between responses, such as
+	 * field names, attribute names and string attribute values, which are shared once decoded.
+	 */
+	static String readNetUTF8Interned(DataInputStream istream) throws IOException
+	{
+		if ( istream instanceof PacketBuffer.Reader )
+			return ( (PacketBuffer.Reader) istream ).readNetUTF8 ( true );
+		return readNetUTF8 ( istream );
+	}
+
 	/** Internal method. Unsigned int IO helper. */
 	private static long readDword ( DataInputStream istream ) throws IOException
 	{
@@ -284,20 +382,20 @@ public class SphinxClient implements ISphinxClient {
 	}
 
 	/** Internal method. Connect to searchd and exchange versions. */
-	private Socket _Connect()
+	private Connection _Connect()
 	{
 		if ( _socket!=null )
 			return _socket;
 
 		_connerror = false;
-		Socket sock = null;
+		Connection sock = null;
 		try
 		{
-			sock = new Socket ();
-			sock.setSoTimeout ( _timeout );
-			InetSocketAddress addr = new InetSocketAddress ( _host, _port );
-			sock.connect ( addr, _timeout );
-			
+			if ( _path!=null )
+				sock = new UnixSocketConnection ( _path, _timeout, _sendBufferSize, _receiveBufferSize );
+			else
+				sock = new Connection.Tcp ( _address!=null ? _address : new InetSocketAddress ( _host, _port ), _timeout, _tcpNoDelay, _keepAlive, _sendBufferSize, _receiveBufferSize );
+
 			DataInputStream sIn = new DataInputStream ( sock.getInputStream() );
 			int version = sIn.readInt();
 			if ( version<1 )
@@ -307,12 +405,13 @@ public class SphinxClient implements ISphinxClient {
 				return null;
 			}
 
-			DataOutputStream sOut = new DataOutputStream ( sock.getOutputStream() );
-			sOut.writeInt ( VER_MAJOR_PROTO );
+			byte[] handshake = new byte[4];
+			_PutInt ( handshake, 0, VER_MAJOR_PROTO );
+			sock.getOutputStream().write ( handshake );
 
 		} catch ( IOException e )
 		{
-			_error = "connection to " + _host + ":" + _port + " failed: " + e;
+			_error = "connection to " + ( _path!=null ? _path : _host + ":" + _port ) + " failed: " + e;
 			_connerror = true;
 
 			try
@@ -326,8 +425,8 @@ public class SphinxClient implements ISphinxClient {
 		return sock;
 	}
 
-	/** Internal method. Get and check response packet from searchd. */
-	private byte[] _GetResponse ( Socket sock )
+	/** Internal method. Get and check response packet from searchd, read into the reusable response buffer. */
+	private DataInputStream _GetResponse ( Connection sock )
 	{
 		/* connect */
 		DataInputStream sIn = null;
@@ -344,15 +443,16 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* read response */
-		byte[] response = null;
+		PacketBuffer.Input response = null;
 		short status = 0, ver = 0;
 		int len = 0;
 		try
 		{
-			/* read status fields */
-			status = sIn.readShort();
-			ver = sIn.readShort();
-			len = sIn.readInt();
+			/* read status fields, in a single read */
+			sIn.readFully ( _responseHeader );
+			status = (short) ( ( (_responseHeader[0] & 0xff) << 8 ) | (_responseHeader[1] & 0xff) );
+			ver = (short) ( ( (_responseHeader[2] & 0xff) << 8 ) | (_responseHeader[3] & 0xff) );
+			len = ( (_responseHeader[4] & 0xff) << 24 ) | ( (_responseHeader[5] & 0xff) << 16 ) | ( (_responseHeader[6] & 0xff) << 8 ) | (_responseHeader[7] & 0xff);
 
 			/* read response if non-empty */
 			if ( len<=0 )
@@ -361,27 +461,24 @@ public class SphinxClient implements ISphinxClient {
 				return null;
 			}
 
-			response = new byte[len];
-			sIn.readFully ( response, 0, len );
+			response = _buffers.input ( len );
+			sIn.readFully ( response.array(), 0, len );
 
 			/* check status */
 			if ( status==SEARCHD_WARNING )
 			{
-				DataInputStream in = new DataInputStream ( new ByteArrayInputStream ( response ) );
-
-				int iWarnLen = in.readInt ();
-				_warning = new String ( response, 4, iWarnLen );
-
-				System.arraycopy ( response, 4+iWarnLen, response, 0, response.length-4-iWarnLen );
+				int iWarnLen = _responseIn.readInt ();
+				_warning = new String ( response.array(), 4, iWarnLen );
+				_responseIn.skipBytes ( iWarnLen );
 
 			} else if ( status==SEARCHD_ERROR )
 			{
-				_error = "searchd error: " + new String ( response, 4, response.length-4 );
+				_error = "searchd error: " + new String ( response.array(), 4, len-4 );
 				return null;
 
 			} else if ( status==SEARCHD_RETRY )
 			{
-				_error = "temporary searchd error: " + new String ( response, 4, response.length-4 );
+				_error = "temporary searchd error: " + new String ( response.array(), 4, len-4 );
 				return null;
 
 			} else if ( status!=SEARCHD_OK )
@@ -426,41 +523,88 @@ public class SphinxClient implements ISphinxClient {
 			}
 		}
 
-		return response;
+		return _responseIn;
 	}
 
-	/** Internal method. Connect to searchd, send request, get response as DataInputStream. */
-	private DataInputStream _DoRequest ( int command, int version, ByteArrayOutputStream req )
+	/** Internal method. Write a big-endian int into a packet. */
+	private static void _PutInt ( byte[] packet, int offset, int value )
 	{
-		/* connect */
-		Socket sock = _Connect();
-		if ( sock==null )
-			return null;
+		packet[offset]		= (byte) ( value>>>24 );
+		packet[offset+1]	= (byte) ( value>>>16 );
+		packet[offset+2]	= (byte) ( value>>>8 );
+		packet[offset+3]	= (byte) value;
+	}
 
-		/* send request */
-	   	byte[] reqBytes = req.toByteArray();
+	/**
+	 * Internal method. Send request packet to searchd, without waiting for the response.
+	 * The first PACKET_HEADER_SIZE bytes of the packet are reserved for the header, which is filled in
+	 * here so that the header and body go out in a single write.
+	 */
+	private boolean _SendRequest ( Connection sock, int command, int version, byte[] packet, int len )
+	{
 	   	try
 	   	{
-			DataOutputStream sockDS = new DataOutputStream ( sock.getOutputStream() );
-			sockDS.writeShort ( command );
-			sockDS.writeShort ( version );
-			sockDS.writeInt ( reqBytes.length );
-			sockDS.write ( reqBytes );
+			packet[0] = (byte) ( command>>>8 );
+			packet[1] = (byte) command;
+			packet[2] = (byte) ( version>>>8 );
+			packet[3] = (byte) version;
+			_PutInt ( packet, 4, len-PACKET_HEADER_SIZE );
+
+			OutputStream sockOut = sock.getOutputStream();
+			sockOut.write ( packet, 0, len );
+			sockOut.flush ();
 
 		} catch ( Exception e )
 		{
 			_error = "network error: " + e;
 			_connerror = true;
-			return null;
+			return false;
 		}
+		return true;
+	}
 
-		/* get response */
-		byte[] response = _GetResponse ( sock );
-		if ( response==null )
+	/** Internal method. Empty the reusable request buffer, and return a stream for writing a new request into it. */
+	private DataOutputStream _RequestBuffer ()
+	{
+		_buffers.output();
+		return _requestOut;
+	}
+
+	/** Internal method. Connect to searchd, send the request buffer, get response as DataInputStream. */
+	private DataInputStream _DoRequest ( int command, int version )
+	{
+		/* connect */
+		Connection sock = _Connect();
+		if ( sock==null )
+			return null;
+
+		/* send request */
+		PacketBuffer.Output req = _buffers.request();
+		if ( !_SendRequest ( sock, command, version, req.array(), req.size() ) )
 			return null;
 
-		/* spawn that tampon */
-		return new DataInputStream ( new ByteArrayInputStream ( response ) );
+		/* get response */
+		return _GetResponse ( sock );
+	}
+
+	/**
+	 * Set the largest request and response buffer size kept between calls, in bytes. Buffers are
+	 * reused for every request on this client, and trimmed back once they grow past this size.
+	 */
+	public void SetMaxBufferSize ( int size ) throws SphinxException
+	{
+		myAssert ( size>0, "buffer size must be positive" );
+		_buffers.setMaxRetainedSize ( size );
+	}
+
+	/**
+	 * Set whether large multi-query responses are decoded in parallel on the common fork-join pool.
+	 * Each result of the response is decoded as a separate task, responses to single queries and small
+	 * responses are always decoded on the calling thread.
+	 */
+	public void SetParallelDecode ( boolean enabled )
+	{
+		_parallelDecode = enabled;
 	}
 
 	/** Set matches offset and limit to return to client, max matches to retrieve on server, and cutoff. */
@@ -801,11 +945,11 @@ public class SphinxClient implements ISphinxClient {
 	/** Connect to searchd server and run current search query. */
 	public SphinxResult Query(String query, String index, String comment) throws SphinxException
 	{
-		myAssert ( _reqs==null || _reqs.size()==0, "AddQuery() and Query() can not be combined; use RunQueries() instead" );
+		myAssert ( _nreqs==0, "AddQuery() and Query() can not be combined; use RunQueries() instead" );
 
 		AddQuery ( query, index, comment );
 		SphinxResult[] results = RunQueries();
-		_reqs = new ArrayList(); /* just in case it failed too early */
+		_ClearQueries (); /* just in case it failed too early */
 		if ( results==null || results.length<1 )
 			return null; /* probably network error; error message should be already filled */
 
@@ -817,14 +961,55 @@ public class SphinxClient implements ISphinxClient {
 		return res;
 	}
 
+	/** Connect to searchd server and run a prebuilt search request. Client query settings are not used. */
+	public SphinxResult Query(SearchRequest request) throws SphinxException
+	{
+		myAssert ( _nreqs==0, "AddQuery() and Query() can not be combined; use RunQueries() instead" );
+
+		AddQuery ( request );
+		SphinxResult[] results = RunQueries();
+		_ClearQueries (); /* just in case it failed too early */
+		if ( results==null || results.length<1 )
+			return null; /* probably network error; error message should be already filled */
+
+		SphinxResult res = results[0];
+		_warning = res.warning;
+		_error = res.error;
+		if ( res==null || res.getStatus()==SEARCHD_ERROR )
+			return null;
+		return res;
+	}
+
+	/** Add a prebuilt search request to current search request. Its cached encoding is used as is. */
+	public int AddQuery(SearchRequest request) throws SphinxException
+	{
+		myAssert ( request!=null, "request must not be null" );
+
+		byte[] encoded = request.getEncoded();
+		_buffers.queries().write ( encoded, 0, encoded.length );
+		return _nreqs++;
+	}
+
+	/** Connect to searchd server and run the given prebuilt search requests as one multi-query. */
+	public SphinxResult[] RunQueries(SearchRequest... requests) throws SphinxException
+	{
+		myAssert ( _nreqs==0, "AddQuery() and RunQueries(SearchRequest...) can not be combined; use RunQueries() instead" );
+
+		for ( int i=0; i<requests.length; i++ )
+			AddQuery ( requests[i] );
+
+		SphinxResult[] results = RunQueries();
+		_ClearQueries (); /* just in case it failed too early */
+		return results;
+	}
+
 	/** Add new query with current settings to current search request. */
 	public int AddQuery(String query, String index, String comment) throws SphinxException
 	{
-		ByteArrayOutputStream req = new ByteArrayOutputStream();
-
-		/* build request */
+		/* build request, straight into the reusable queries buffer */
+		int start = _buffers.queries().size();
 		try {
-			DataOutputStream out = new DataOutputStream(req);
+			DataOutputStream out = _queriesOut;
 			out.writeInt(_offset);
 			out.writeInt(_limit);
 			out.writeInt(_mode);
@@ -850,7 +1035,7 @@ public class SphinxClient implements ISphinxClient {
 
 			/* filters */
 			out.writeInt(_filterCount);
-			out.write(_rawFilters.toByteArray());
+			_rawFilters.writeTo(out);
 
 			/* group-by, max matches, sort-by-group flag */
 			out.writeInt(_groupFunc);
@@ -931,12 +1116,11 @@ public class SphinxClient implements ISphinxClient {
 
 			/* done! */
 			out.flush ();
-			int qIndex = _reqs.size();
-			_reqs.add ( qIndex, req.toByteArray() );
-			return qIndex;
+			return _nreqs++;
 
 		} catch ( Exception e )
 		{
+			_buffers.queries().truncate ( start );
 			myAssert ( false, "error in AddQuery(): " + e + ": " + e.getMessage() );
 
 		} finally
@@ -956,23 +1140,76 @@ public class SphinxClient implements ISphinxClient {
 	/** Run all previously added search queries. */
 	public SphinxResult[] RunQueries() throws SphinxException
 	{
-		if ( _reqs==null || _reqs.size()<1 )
+		int nreqs = _nreqs;
+		DataInputStream in = _SendQueries();
+		if ( in==null )
+			return null;
+
+		try
+		{
+			/* large multi-query responses are decoded on all cores */
+			PacketBuffer.Reader reader = (PacketBuffer.Reader) in;
+			if ( _parallelDecode && nreqs>1 && reader.limit()-reader.position()>=ResultDecoder.MIN_PARALLEL_SIZE )
+				return ResultDecoder.decode ( reader.array(), reader.position(), reader.limit(), nreqs, ForkJoinPool.commonPool() );
+
+			return readResults ( in, nreqs );
+
+		} catch ( IOException e )
+		{
+			_error = "incomplete reply";
+			return null;
+		}
+	}
+
+	/**
+	 * Connect to searchd server and run the given prebuilt search requests as one multi-query, returning
+	 * the response without decoding it. The client and its connection are not needed to decode the response,
+	 * so a pooled client can be released before the results are decoded.
+	 *
+	 * @return null on failure, undecoded response on success.
+	 */
+	public SearchResponse FetchResults(SearchRequest... requests) throws SphinxException
+	{
+		myAssert ( _nreqs==0, "AddQuery() and FetchResults() can not be combined; use RunQueries() instead" );
+		myAssert ( requests.length>0, "at least one search request is required" );
+
+		for ( int i=0; i<requests.length; i++ )
+			AddQuery ( requests[i] );
+
+		DataInputStream in = _SendQueries();
+		_ClearQueries (); /* just in case it failed too early */
+		if ( in==null )
+			return null;
+
+		/* copy the results out of the reusable response buffer */
+		PacketBuffer.Reader reader = (PacketBuffer.Reader) in;
+		return new SearchResponse ( Arrays.copyOfRange ( reader.array(), reader.position(), reader.limit() ), requests.length );
+	}
+
+	/** Internal method. Drop all previously added search queries. */
+	private void _ClearQueries ()
+	{
+		_nreqs = 0;
+		_buffers.clearQueries();
+	}
+
+	/** Internal method. Send all previously added search queries as one request, get response as DataInputStream. */
+	private DataInputStream _SendQueries ()
+	{
+		if ( _nreqs<1 )
 		{
 			_error = "no queries defined, issue AddQuery() first";
 			return null;
 		}
 
 		/* build the mega-request */
-		int nreqs = _reqs.size();
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
+		DataOutputStream req = _RequestBuffer();
 		try
 		{
-			DataOutputStream req = new DataOutputStream ( reqBuf );
 			/* its a client */
 			req.writeInt(0);
-			req.writeInt ( nreqs );
-			for ( int i=0; i<nreqs; i++ )
-				req.write ( (byte[]) _reqs.get(i) );
+			req.writeInt ( _nreqs );
+			_buffers.queries().writeTo ( req );
 			req.flush ();
 
 		} catch ( Exception e )
@@ -981,131 +1218,64 @@ public class SphinxClient implements ISphinxClient {
 			return null;
 		}
 
-		DataInputStream in =_DoRequest ( SEARCHD_COMMAND_SEARCH, VER_COMMAND_SEARCH, reqBuf );
+		DataInputStream in =_DoRequest ( SEARCHD_COMMAND_SEARCH, VER_COMMAND_SEARCH );
 		if ( in==null )
 			return null;
 
-		SphinxResult[] results = new SphinxResult [ nreqs ];
-		_reqs = new ArrayList();
+		_ClearQueries ();
+		return in;
+	}
 
-		try
+	/** Internal method. Decode the results of a multi-query response. */
+	static SphinxResult[] readResults ( DataInputStream in, int nreqs ) throws IOException
+	{
+		SphinxResult[] results = new SphinxResult [ nreqs ];
+		for ( int ires=0; ires<nreqs; ires++ )
 		{
-			for ( int ires=0; ires<nreqs; ires++ )
-			{
-				SphinxResult res = new SphinxResult();
-				results[ires] = res;
-
-				int status = in.readInt();
-				res.setStatus ( status );
-				if (status != SEARCHD_OK) {
-					String message = readNetUTF8(in);
-					if (status == SEARCHD_WARNING) {
-						res.warning = message;
-					} else {
-						res.error = message;
-						continue;
-					}
+			SphinxResult res = new SphinxResult();
+			results[ires] = res;
+
+			int status = in.readInt();
+			res.setStatus ( status );
+			if (status != SEARCHD_OK) {
+				String message = readNetUTF8(in);
+				if (status == SEARCHD_WARNING) {
+					res.warning = message;
+				} else {
+					res.error = message;
+					continue;
 				}
+			}
 
-				/* read fields */
-				int nfields = in.readInt();
-				res.fields = new String[nfields];
-				int pos = 0;
-				for (int i = 0; i < nfields; i++)
-					res.fields[i] = readNetUTF8(in);
-
-				/* read arrts */
-				int nattrs = in.readInt();
-				res.attrTypes = new int[nattrs];
-				res.attrNames = new String[nattrs];
-				for (int i = 0; i < nattrs; i++) {
-					String AttrName = readNetUTF8(in);
-					int AttrType = in.readInt();
-					res.attrNames[i] = AttrName;
-					res.attrTypes[i] = AttrType;
-				}
-
-				/* read match count */
-				int count = in.readInt();
-				int id64 = in.readInt();
-				res.matches = new SphinxMatch[count];
-				for ( int matchesNo=0; matchesNo<count; matchesNo++ )
-				{
-					SphinxMatch docInfo;
-					docInfo = new SphinxMatch (
-							( id64==0 ) ? readDword(in) : in.readLong(),
-							in.readInt() );
-
-					/* read matches */
-					for (int attrNumber = 0; attrNumber < res.attrTypes.length; attrNumber++)
-					{
-						String attrName = res.attrNames[attrNumber];
-						int type = res.attrTypes[attrNumber];
-
-						/* handle bigints */
-						if ( type==SPH_ATTR_BIGINT )
-						{
-							docInfo.attrValues.add ( attrNumber, new Long ( in.readLong() ) );
-							continue;
-						}
-
-						/* handle floats */
-						if ( type==SPH_ATTR_FLOAT )
-						{
-							docInfo.attrValues.add ( attrNumber, new Float ( in.readFloat() ) );
-							continue;
-						}
-
-						/* handle strings */
-						if ( type==SPH_ATTR_STRING )
-						{
-							String s = readNetUTF8(in);
-							docInfo.attrValues.add ( attrNumber, s );
-							continue;
-						}
-
-						/* handle everything else as unsigned ints */
-						long val = readDword ( in );
-						if ( type==SPH_ATTR_MULTI )
-						{
-							long[] vals = new long [ (int)val ];
-							for ( int k=0; k<val; k++ )
-								vals[k] = readDword ( in );
-
-							docInfo.attrValues.add ( attrNumber, vals );
-							
-						} else if ( type==SPH_ATTR_MULTI64 )
-						{
-							val = val / 2;
-							long[] vals = new long [ (int)val ];
-							for ( int k=0; k<val; k++ )
-								vals[k] = in.readLong ();
-
-							docInfo.attrValues.add ( attrNumber, vals );
-							
-						} else
-						{
-							docInfo.attrValues.add ( attrNumber, new Long ( val ) );
-						}
-					}
-					res.matches[matchesNo] = docInfo;
-				}
+			/* read schema, shared between results with the same fields and attributes */
+			SphinxSchema schema = SchemaCache.SHARED.read ( in );
+			res.setSchema ( schema );
 
-				res.total = in.readInt();
-				res.totalFound = in.readInt();
-				res.time = in.readInt() / 1000.0f;
+			/* read matches */
+			int count = in.readInt();
+			int id64 = in.readInt();
+			int nattrs = schema.getAttrCount();
+			res.matches = new SphinxMatch[count];
+			for ( int matchesNo=0; matchesNo<count; matchesNo++ )
+			{
+				SphinxMatch docInfo = new SphinxMatch (
+						( id64==0 ) ? readDword(in) : in.readLong(),
+						in.readInt(),
+						nattrs );
 
-				res.words = new SphinxWordInfo [ in.readInt() ];
-				for ( int i=0; i<res.words.length; i++ )
-					res.words[i] = new SphinxWordInfo ( readNetUTF8(in), readDword(in), readDword(in) );
+				schema.readAttributes ( in, docInfo );
+				res.matches[matchesNo] = docInfo;
 			}
-			return results;
 
-		} catch ( IOException e )
-		{
-			_error = "incomplete reply";
-			return null;
+			res.total = in.readInt();
+			res.totalFound = in.readInt();
+			res.time = in.readInt() / 1000.0f;
+
+			res.words = new SphinxWordInfo [ in.readInt() ];
+			for ( int i=0; i<res.words.length; i++ )
+				res.words[i] = new SphinxWordInfo ( readNetUTF8Interned(in), readDword(in), readDword(in) );
 		}
+		return results;
 	}
 
 
@@ -1115,62 +1285,36 @@ public class SphinxClient implements ISphinxClient {
 	 * @param opts maps String keys to String or Integer values (see the documentation for complete keys list).
 	 * @return null on failure, array of snippets on success.
 	 */
+	@SuppressWarnings("unchecked")
 	public String[] BuildExcerpts(String[] docs, String index, String words, Map opts) throws SphinxException
+	{
+		/* unset options fall back to the searchd defaults */
+		return BuildExcerpts ( docs, index, words, ExcerptOptions.fromMap ( opts ) );
+	}
+
+	/**
+	 * Connect to searchd server and generate excerpts (snippets) from given documents.
+	 * @param opts pre-encoded excerpt options, or null to use the defaults.
+	 * @return null on failure, array of snippets on success.
+	 */
+	public String[] BuildExcerpts(String[] docs, String index, String words, ExcerptOptions opts) throws SphinxException
 	{
 		myAssert(docs != null && docs.length > 0, "BuildExcerpts: Have no documents to process");
 		myAssert(index != null && index.length() > 0, "BuildExcerpts: Have no index to process documents");
 		myAssert(words != null && words.length() > 0, "BuildExcerpts: Have no words to highlight");
-		if (opts == null) opts = new LinkedHashMap();
-
-		/* fixup options */
-		if (!opts.containsKey("before_match")) opts.put("before_match", "<b>");
-		if (!opts.containsKey("after_match")) opts.put("after_match", "</b>");
-		if (!opts.containsKey("chunk_separator")) opts.put("chunk_separator", "...");
-		if (!opts.containsKey("html_strip_mode")) opts.put("html_strip_mode", "index");
-		if (!opts.containsKey("limit")) opts.put("limit", new Integer(256));
-		if (!opts.containsKey("limit_passages")) opts.put("limit_passages", new Integer(0));
-		if (!opts.containsKey("limit_words")) opts.put("limit_words", new Integer(0));
-		if (!opts.containsKey("around")) opts.put("around", new Integer(5));
-		if (!opts.containsKey("start_passage_id")) opts.put("start_passage_id", new Integer(1));
-		if (!opts.containsKey("exact_phrase")) opts.put("exact_phrase", new Integer(0));
-		if (!opts.containsKey("single_passage")) opts.put("single_passage", new Integer(0));
-		if (!opts.containsKey("use_boundaries")) opts.put("use_boundaries", new Integer(0));
-		if (!opts.containsKey("weight_order")) opts.put("weight_order", new Integer(0));
-		if (!opts.containsKey("load_files")) opts.put("load_files", new Integer(0));
-		if (!opts.containsKey("allow_empty")) opts.put("allow_empty", new Integer(0));
-		if (!opts.containsKey("query_mode")) opts.put("query_mode", new Integer(0));
-		if (!opts.containsKey("force_all_words")) opts.put("force_all_words", new Integer(0));
+		if (opts == null) opts = ExcerptOptions.DEFAULT;
 
 		/* build request */
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
-		DataOutputStream req = new DataOutputStream ( reqBuf );
+		DataOutputStream req = _RequestBuffer();
 		try
 		{
 			req.writeInt(0);
-			int iFlags = 1; /* remove_spaces */
-			if ( ((Integer)opts.get("exact_phrase")).intValue()!=0 )	iFlags |= 2;
-			if ( ((Integer)opts.get("single_passage")).intValue()!=0 )	iFlags |= 4;
-			if ( ((Integer)opts.get("use_boundaries")).intValue()!=0 )	iFlags |= 8;
-			if ( ((Integer)opts.get("weight_order")).intValue()!=0 )	iFlags |= 16;
-			if ( ((Integer)opts.get("query_mode")).intValue()!=0 )		iFlags |= 32;
-			if ( ((Integer)opts.get("force_all_words")).intValue()!=0 )	iFlags |= 64;
-			if ( ((Integer)opts.get("load_files")).intValue()!=0 )		iFlags |= 128;
-			if ( ((Integer)opts.get("allow_empty")).intValue()!=0 )		iFlags |= 256;
-			req.writeInt ( iFlags );
+			req.writeInt ( opts.getFlags() );
 			writeNetUTF8 ( req, index );
 			writeNetUTF8 ( req, words );
 
 			/* send options */
-			writeNetUTF8 ( req, (String) opts.get("before_match") );
-			writeNetUTF8 ( req, (String) opts.get("after_match") );
-			writeNetUTF8 ( req, (String) opts.get("chunk_separator") );
-			req.writeInt ( ((Integer) opts.get("limit")).intValue() );
-			req.writeInt ( ((Integer) opts.get("around")).intValue() );
-			
-			req.writeInt ( ((Integer) opts.get("limit_passages")).intValue() );
-			req.writeInt ( ((Integer) opts.get("limit_words")).intValue() );
-			req.writeInt ( ((Integer) opts.get("start_passage_id")).intValue() );
-			writeNetUTF8 ( req, (String) opts.get("html_strip_mode") );
+			req.write ( opts.getEncoded() );
 
 			/* send documents */
 			req.writeInt ( docs.length );
@@ -1185,7 +1329,7 @@ public class SphinxClient implements ISphinxClient {
 			return null;
 		}
 
-		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_EXCERPT, VER_COMMAND_EXCERPT, reqBuf );
+		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_EXCERPT, VER_COMMAND_EXCERPT );
 		if ( in==null )
 			return null;
 
@@ -1243,8 +1387,7 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* build and send request */
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
-		DataOutputStream req = new DataOutputStream ( reqBuf );
+		DataOutputStream req = _RequestBuffer();
 		try
 		{
 			writeNetUTF8 ( req, index );
@@ -1274,7 +1417,7 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* get and parse response */
-		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_UPDATE, VER_COMMAND_UPDATE, reqBuf );
+		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_UPDATE, VER_COMMAND_UPDATE );
 		if ( in==null )
 			return -1;
 
@@ -1328,8 +1471,7 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* build and send request */
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
-		DataOutputStream req = new DataOutputStream ( reqBuf );
+		DataOutputStream req = _RequestBuffer();
 		try
 		{
 			writeNetUTF8 ( req, index );
@@ -1361,7 +1503,7 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* get and parse response */
-		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_UPDATE, VER_COMMAND_UPDATE, reqBuf );
+		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_UPDATE, VER_COMMAND_UPDATE );
 		if ( in==null )
 			return -1;
 
@@ -1375,6 +1517,151 @@ public class SphinxClient implements ISphinxClient {
 		}
 	}
 	
+	/**
+	 * Connect to searchd server and update given MVA attributes on many documents in given indexes.
+	 * Documents are encoded into as few update requests as possible, each at most maxPacketSize bytes
+	 * long. The requests are pipelined over a single persistent connection, opened for the duration
+	 * of the call if the client is not already connected.
+	 *
+	 * Requests are not atomic as a whole: if one fails, -1 is returned with the error of the first failed
+	 * request, documents sent in earlier requests may already have been updated, and the connection is
+	 * closed, since the replies left unread would otherwise be taken for the answers to later requests.
+	 *
+	 * @param index		index name(s) to update; might be distributed
+	 * @param attrs		array with the names of the MVA attributes to update
+	 * @param docids	ids of documents to update
+	 * @param values	array of updates, one per document; each int[][] entry must contain all new
+	 *					attribute values for the document, one int[] per attribute
+	 * @param ignorenonexistent	the flag whether to silently ignore non existent columns up update request
+	 * @param maxPacketSize	maximum size in bytes of a single update request
+	 * @return			-1 on failure, amount of actually found and updated documents (might be 0) on success
+	 *
+	 * @throws			SphinxException on invalid parameters
+	 */
+	public int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values, boolean ignorenonexistent, int maxPacketSize) throws SphinxException
+	{
+		/* check args */
+		myAssert ( index!=null && index.length()>0, "no index name provided" );
+		myAssert ( attrs!=null && attrs.length>0, "no attribute names provided" );
+		myAssert ( docids!=null && docids.length>0, "no document ids provided" );
+		myAssert ( values!=null && values.length==docids.length, "update entries do not match document ids" );
+		for ( int i=0; i<values.length; i++ )
+		{
+			myAssert ( docids[i]>0, "invalid document id #" + i );
+			myAssert ( values[i]!=null && values[i].length==attrs.length, "update entry #" + i + " has wrong length" );
+			for ( int j=0; j<values[i].length; j++ )
+				myAssert ( values[i][j]!=null, "update entry #" + i + " attribute #" + j + " is null" );
+		}
+
+		/* build requests, splitting documents so that no request exceeds the max packet size */
+		List<byte[]> chunks = new ArrayList<byte[]>();
+		try
+		{
+			ByteArrayOutputStream headerBuf = new ByteArrayOutputStream();
+			DataOutputStream header = new DataOutputStream ( headerBuf );
+			writeNetUTF8 ( header, index );
+			header.writeInt ( attrs.length );
+			header.writeInt ( ignorenonexistent ? 1 : 0 );
+			for ( int i=0; i<attrs.length; i++ )
+			{
+				writeNetUTF8 ( header, attrs[i] );
+				header.writeInt ( 1 ); // MVA attr
+			}
+			header.flush();
+			byte[] headerBytes = headerBuf.toByteArray();
+
+			ByteArrayOutputStream docsBuf = new ByteArrayOutputStream();
+			DataOutputStream docs = new DataOutputStream ( docsBuf );
+			int count = 0;
+
+			for ( int i=0; i<docids.length; i++ )
+			{
+				int docSize = 8;
+				for ( int j=0; j<values[i].length; j++ )
+					docSize += 4 + 4*values[i][j].length;
+
+				myAssert ( headerBytes.length + 4 + docSize <= maxPacketSize, "update entry #" + i + " exceeds max packet size" );
+
+				if ( count>0 && headerBytes.length + 4 + docsBuf.size() + docSize > maxPacketSize )
+				{
+					chunks.add ( _BuildUpdateChunk ( headerBytes, count, docsBuf ) );
+					docsBuf.reset();
+					count = 0;
+				}
+
+				docs.writeLong ( docids[i] ); /* send docid as 64bit value */
+				for ( int j=0; j<values[i].length; j++ )
+				{
+					docs.writeInt ( values[i][j].length ); /* send MVA's count */
+					for ( int k=0; k<values[i][j].length; k++ ) /* send MVAs itself*/
+						docs.writeInt ( values[i][j][k] );
+				}
+				count++;
+			}
+			chunks.add ( _BuildUpdateChunk ( headerBytes, count, docsBuf ) );
+
+		} catch ( IOException e )
+		{
+			_error = "internal error: failed to build request: " + e;
+			return -1;
+		}
+
+		/* pipeline the requests over a persistent connection */
+		boolean persistent = _socket!=null;
+		if ( !persistent && !Open() )
+			return -1;
+
+		/* once a request or reply is lost the pipeline is out of step, so the connection is dropped */
+		boolean broken = true;
+		try
+		{
+			for ( byte[] chunk : chunks )
+				if ( !_SendRequest ( _socket, SEARCHD_COMMAND_UPDATE, VER_COMMAND_UPDATE, chunk, chunk.length ) )
+					return -1;
+
+			int updated = 0;
+			for ( int i=0; i<chunks.size(); i++ )
+			{
+				DataInputStream response = _GetResponse ( _socket );
+				if ( response==null )
+					return -1;
+				updated += response.readInt();
+			}
+
+			broken = false;
+			return updated;
+
+		} catch ( IOException e )
+		{
+			_error = "incomplete reply";
+			return -1;
+
+		} finally
+		{
+			if ( ( !persistent || broken ) && _socket!=null )
+				Close();
+		}
+	}
+
+	/** Update given MVA attributes on many documents, split into requests of at most the default max packet size (syntax sugar). */
+	public int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values) throws SphinxException
+	{
+		return UpdateAttributesMVA ( index, attrs, docids, values, false, SPH_MAX_PACKET_SIZE );
+	}
+
+	/** Internal method. Assemble a single update request from the pre-encoded header and documents. */
+	private static byte[] _BuildUpdateChunk ( byte[] header, int count, ByteArrayOutputStream docs ) throws IOException
+	{
+		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream ( PACKET_HEADER_SIZE + header.length + 4 + docs.size() );
+		DataOutputStream req = new DataOutputStream ( reqBuf );
+		req.write ( new byte[PACKET_HEADER_SIZE] ); /* reserved for the packet header */
+		req.write ( header );
+		req.writeInt ( count );
+		docs.writeTo ( req );
+		req.flush();
+		return reqBuf.toByteArray();
+	}
+
 	public int UpdateAttributes(String index, String[] attrs, long[][] values) throws SphinxException
 	{
 		return UpdateAttributes ( index, attrs, values, false );
@@ -1390,10 +1677,34 @@ public class SphinxClient implements ISphinxClient {
      * Returns null on failure, an array of Maps with misc per-keyword info on success.
      */
 	public Map[] BuildKeywords(String query, String index, boolean hits) throws SphinxException
+	{
+		SphinxKeyword[] keywords = BuildKeywordList ( query, index, hits );
+		if ( keywords==null )
+			return null;
+
+		Map[] res = new Map[keywords.length];
+		for ( int i=0; i<keywords.length; i++ )
+		{
+			res[i] = new LinkedHashMap ();
+			res[i].put ( "tokenized", keywords[i].tokenized );
+			res[i].put ( "normalized", keywords[i].normalized );
+			if ( hits )
+			{
+				res[i].put ( "docs", new Long ( keywords[i].docs ) );
+				res[i].put ( "hits", new Long ( keywords[i].hits ) );
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Connect to searchd server, and generate keyword list for a given query.
+	 * Returns null on failure, an array of typed per-keyword info on success.
+	 */
+	public SphinxKeyword[] BuildKeywordList(String query, String index, boolean hits) throws SphinxException
 	{
 		/* build request */
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
-		DataOutputStream req = new DataOutputStream ( reqBuf );
+		DataOutputStream req = _RequestBuffer();
 		try
 		{
 			writeNetUTF8 ( req, query );
@@ -1407,7 +1718,7 @@ public class SphinxClient implements ISphinxClient {
 		}
 
 		/* run request */
-		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_KEYWORDS, VER_COMMAND_KEYWORDS, reqBuf );
+		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_KEYWORDS, VER_COMMAND_KEYWORDS );
 		if ( in==null )
 			return null;
 
@@ -1415,18 +1726,16 @@ public class SphinxClient implements ISphinxClient {
 		try
 		{
 			int iNumWords = in.readInt ();
-			Map[] res = new Map[iNumWords];
+			SphinxKeyword[] res = new SphinxKeyword[iNumWords];
 
 			for ( int i=0; i<iNumWords; i++ )
 			{
-				res[i] = new LinkedHashMap ();
-				res[i].put ( "tokenized", readNetUTF8 ( in ) );
-				res[i].put ( "normalized", readNetUTF8 ( in ) );
+				String tokenized = readNetUTF8 ( in );
+				String normalized = readNetUTF8 ( in );
 				if ( hits )
-				{
-					res[i].put ( "docs", new Long ( readDword ( in ) ) );
-					res[i].put ( "hits", new Long ( readDword ( in ) ) );
-				}
+					res[i] = new SphinxKeyword ( tokenized, normalized, readDword ( in ), readDword ( in ) );
+				else
+					res[i] = new SphinxKeyword ( tokenized, normalized, -1, -1 );
 			}
 			return res;
 
@@ -1446,10 +1755,10 @@ public class SphinxClient implements ISphinxClient {
 	public int FlushAttributes() throws SphinxException
 	{
 		/* build request */
-		ByteArrayOutputStream reqBuf = new ByteArrayOutputStream();
+		_RequestBuffer();
 
 		/* run request */
-		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_FLUSHATTRS, VER_COMMAND_FLUSHATTRS, reqBuf );
+		DataInputStream in = _DoRequest ( SEARCHD_COMMAND_FLUSHATTRS, VER_COMMAND_FLUSHATTRS );
 		if ( in==null )
 			return -1;
 
@@ -1483,18 +1792,22 @@ public class SphinxClient implements ISphinxClient {
 			return false;
 		}
 
-		Socket sock = _Connect();
+		Connection sock = _Connect();
 		if ( sock==null )
 			return false;
 
 		// command, command version = 0, body length = 4, body = 1
 		try
 		{
-			DataOutputStream sOut = new DataOutputStream ( sock.getOutputStream() );
-			sOut.writeShort ( SEARCHD_COMMAND_PERSIST );
-			sOut.writeShort ( 0 );
-			sOut.writeInt ( 4 );
-			sOut.writeInt ( 1 );
+			byte[] packet = new byte[PACKET_HEADER_SIZE+4];
+			packet[0] = (byte) ( SEARCHD_COMMAND_PERSIST>>>8 );
+			packet[1] = (byte) SEARCHD_COMMAND_PERSIST;
+			_PutInt ( packet, 4, 4 );
+			_PutInt ( packet, 8, 1 );
+
+			OutputStream sOut = sock.getOutputStream();
+			sOut.write ( packet );
+			sOut.flush ();
 		} catch ( IOException e )
 		{
 			_error = "network error: " + e;
@@ -1520,8 +1833,70 @@ public class SphinxClient implements ISphinxClient {
 		} catch ( IOException e )
 		{}
 		_socket = null;
+		_buffers.trim();
 		return true;
 	}
+
+	/** Close existing persistent connection, for use with try-with-resources. */
+	public void close()
+	{
+		Close ();
+	}
+
+	/**
+	 * Abort a request in progress on the persistent connection, from another thread. The connection is
+	 * closed under the request, which fails with a network error. The client must not be used again
+	 * until it has been closed and re-opened.
+	 */
+	public void Abort()
+	{
+		Connection sock = _socket;
+		if ( sock==null )
+			return;
+
+		try
+		{
+			sock.close();
+		} catch ( IOException e )
+		{}
+	}
+
+	/**
+	 * Reset all query settings, pending queries and the last error and warning to their defaults.
+	 * Server, connection and buffer settings are kept.
+	 */
+	public void ResetQuery()
+	{
+		_offset	= 0;
+		_limit	= 20;
+		_mode	= SPH_MATCH_EXTENDED2;
+		_sort	= SPH_SORT_RELEVANCE;
+		_sortby	= "";
+		_minId	= 0;
+		_maxId	= 0;
+
+		ResetFilters ();
+		ResetGroupBy ();
+		ResetOverrides ();
+
+		_maxMatches		= 1000;
+		_cutoff			= 0;
+		_retrycount		= 0;
+		_retrydelay		= 0;
+
+		_error			= "";
+		_warning		= "";
+		_connerror		= false;
+
+		_ClearQueries ();
+		_weights		= null;
+		_indexWeights	= new LinkedHashMap();
+		_fieldWeights	= new LinkedHashMap();
+		_ranker			= SPH_RANK_PROXIMITY_BM25;
+		_rankexpr		= "";
+		_maxQueryTime	= 0;
+		_select			= "*";
+	}
 }
 
 /*
@@ -0,0 +1,40 @@
+package org.sphinx.api;
+
+/**
+ * Per-keyword information, as returned by {@link SphinxClient#BuildKeywordList(String, String, boolean)}.
+ *
+ * Typed alternative to the <code>Map</code> entries returned by {@link SphinxClient#BuildKeywords(String, String, boolean)}.
+ * Document and hit counts are only populated when keyword statistics were requested, otherwise they are -1.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SphinxKeyword
+{
+	/** Keyword as tokenized from the query. */
+	public final String	tokenized;
+
+	/** Keyword after morphology and other normalization has been applied. */
+	public final String	normalized;
+
+	/** Total amount of matching documents in collection, or -1 if statistics were not requested. */
+	public final long	docs;
+
+	/** Total amount of hits (occurrences) in collection, or -1 if statistics were not requested. */
+	public final long	hits;
+
+	/** Trivial constructor. */
+	public SphinxKeyword ( String tokenized, String normalized, long docs, long hits )
+	{
+		this.tokenized = tokenized;
+		this.normalized = normalized;
+		this.docs = docs;
+		this.hits = hits;
+	}
+
+	/** Returns true if docs and hits statistics are available for this keyword. */
+	public boolean hasStats()
+	{
+		return docs>=0 && hits>=0;
+	}
+}
@@ -28,6 +28,14 @@ public class SphinxMatch
 		this.weight = weight;
 		this.attrValues = new ArrayList();
 	}
+
+	/** Constructor sizing the attribute values for the given number of attributes. */
+	SphinxMatch ( long docId, int weight, int nattrs )
+	{
+		this.docId = docId;
+		this.weight = weight;
+		this.attrValues = new ArrayList ( nattrs );
+	}
 }
 
 /*
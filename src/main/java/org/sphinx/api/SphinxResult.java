@@ -12,6 +12,9 @@ package org.sphinx.api;
  */
 public class SphinxResult
 {
+	/** Result schema, shared with other results of the same index. */
+	public SphinxSchema		schema;
+
 	/** Full-text field namess. */
 	public String[]			fields;
 
@@ -55,6 +58,7 @@ public class SphinxResult
 		this.words = new SphinxWordInfo[0];
 		this.fields = new String[0];
 		this.attrTypes = new int[0];
+		this.schema = SphinxSchema.EMPTY;
 	}
 
 	/** Get query status. */
@@ -68,6 +72,18 @@ public class SphinxResult
 	{
 		this.status = status;
 	}
+
+	/**
+	 * Set the result schema. The field and attribute arrays are copies, the shared schema can not be modified
+	 * through them (accessible from API package only).
+	 */
+	void setSchema ( SphinxSchema schema )
+	{
+		this.schema = schema;
+		this.fields = schema.getFields();
+		this.attrNames = schema.getAttrNames();
+		this.attrTypes = schema.getAttrTypes();
+	}
 }
 
 /*
@@ -0,0 +1,216 @@
+package org.sphinx.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the results of the same search request run against several shards of an index into a single
+ * result, as if the request had been run against one index holding all documents.
+ *
+ * Each shard must be queried for the first <code>offset + limit</code> matches. The merge keeps the top
+ * matches of all shards in a bounded heap, ordered by the sorting mode of the request, and then applies
+ * the offset and limit. For group-by requests, groups with the same <code>@groupby</code> key are combined,
+ * summing their <code>@count</code>, and ordered by the group sort clause. <code>@distinct</code> counts
+ * are summed as well, which over-counts values present on several shards.
+ *
+ * Totals and per-word statistics are summed, the query time is the slowest shard time. Shards that failed
+ * are left out of the merge and reported in the result warning; the merge only fails if no shard succeeded.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class SphinxResultMerger {
+
+    private SphinxResultMerger() {
+    }
+
+    /**
+     * Merges shard results.
+     *
+     * @param request search request, as run against each shard before adjusting the limits
+     * @param results shard results, results with an error status are counted as failed shards
+     * @param failures error messages of shards that did not return a result, for example on timeout
+     * @return merged result
+     */
+    public static SphinxResult merge(SearchRequest request, List<SphinxResult> results, List<String> failures) {
+        List<SphinxResult> succeeded = new ArrayList<SphinxResult>(results.size());
+        List<String> errors = new ArrayList<String>(failures);
+
+        SphinxSchema schema = null;
+        for (SphinxResult result : results) {
+            if (result == null) continue;
+
+            if (result.getStatus() == SphinxClient.SEARCHD_ERROR) {
+                errors.add(result.error);
+            } else if (schema != null && !sameSchema(schema, result.schema)) {
+                errors.add("result schema does not match the other shards");
+            } else {
+                if (schema == null) schema = result.schema;
+                succeeded.add(result);
+            }
+        }
+
+        SphinxResult merged = new SphinxResult();
+        int shards = succeeded.size() + errors.size();
+
+        if (succeeded.isEmpty()) {
+            merged.setStatus(SphinxClient.SEARCHD_ERROR);
+            merged.error = errors.isEmpty() ? "no shard results to merge" : "all " + shards + " shards failed: " + join(errors);
+            return merged;
+        }
+
+        merged.setSchema(schema);
+
+        // candidate matches, or combined groups for group-by requests
+        Comparator<SphinxMatch> order;
+        Collection<SphinxMatch> candidates;
+        if (request.getGroupBy().length() > 0 && schema.getColumn("@groupby") >= 0) {
+            order = MatchOrder.forGroups(request, schema);
+            candidates = mergeGroups(succeeded, schema, MatchOrder.forMatches(request, schema));
+        } else {
+            order = MatchOrder.forMatches(request, schema);
+            candidates = new ArrayList<SphinxMatch>();
+            for (SphinxResult result : succeeded) {
+                candidates.addAll(Arrays.asList(result.matches));
+            }
+        }
+
+        int offset = request.getOffset();
+        SphinxMatch[] top = top(candidates, order, (int) Math.min(Integer.MAX_VALUE, (long) offset + request.getLimit()));
+        merged.matches = offset >= top.length ? new SphinxMatch[0] : Arrays.copyOfRange(top, offset, top.length);
+
+        // totals, timing and word statistics
+        long total = 0;
+        long totalFound = 0;
+        Map<String, SphinxWordInfo> words = new LinkedHashMap<String, SphinxWordInfo>();
+        List<String> warnings = new ArrayList<String>();
+
+        for (SphinxResult result : succeeded) {
+            total += result.total;
+            totalFound += result.totalFound;
+            merged.time = Math.max(merged.time, result.time);
+
+            for (SphinxWordInfo word : result.words) {
+                SphinxWordInfo info = words.get(word.word);
+                if (info == null) {
+                    words.put(word.word, new SphinxWordInfo(word.word, word.docs, word.hits));
+                } else {
+                    info.docs += word.docs;
+                    info.hits += word.hits;
+                }
+            }
+
+            if (result.warning != null && result.warning.length() > 0 && !warnings.contains(result.warning)) {
+                warnings.add(result.warning);
+            }
+        }
+
+        merged.total = (int) Math.min(total, request.getMaxMatches());
+        merged.totalFound = (int) Math.min(totalFound, Integer.MAX_VALUE);
+        merged.words = words.values().toArray(new SphinxWordInfo[words.size()]);
+
+        if (!errors.isEmpty()) {
+            warnings.add("partial result, " + errors.size() + " of " + shards + " shards failed: " + join(errors));
+        }
+
+        if (warnings.isEmpty()) {
+            merged.setStatus(SphinxClient.SEARCHD_OK);
+        } else {
+            merged.setStatus(SphinxClient.SEARCHD_WARNING);
+            merged.warning = join(warnings);
+        }
+
+        return merged;
+    }
+
+    /**
+     * Combines groups with the same key, summing the counts and keeping the best match of the group.
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<SphinxMatch> mergeGroups(List<SphinxResult> results, SphinxSchema schema, Comparator<SphinxMatch> withinGroup) {
+        int keyColumn = schema.getColumn("@groupby");
+        int countColumn = schema.getColumn("@count");
+        int distinctColumn = schema.getColumn("@distinct");
+
+        Map<Object, SphinxMatch> groups = new HashMap<Object, SphinxMatch>();
+        Map<Object, long[]> counts = new HashMap<Object, long[]>();
+
+        for (SphinxResult result : results) {
+            for (SphinxMatch match : result.matches) {
+                Object key = match.attrValues.get(keyColumn);
+
+                long[] count = counts.get(key);
+                if (count == null) {
+                    counts.put(key, new long[] { value(match, countColumn), value(match, distinctColumn) });
+                    groups.put(key, match);
+                } else {
+                    count[0] += value(match, countColumn);
+                    count[1] += value(match, distinctColumn);
+                    if (withinGroup.compare(match, groups.get(key)) < 0) {
+                        groups.put(key, match);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Object, SphinxMatch> group : groups.entrySet()) {
+            long[] count = counts.get(group.getKey());
+            SphinxMatch match = group.getValue();
+            if (countColumn >= 0) match.attrValues.set(countColumn, Long.valueOf(count[0]));
+            if (distinctColumn >= 0) match.attrValues.set(distinctColumn, Long.valueOf(count[1]));
+        }
+
+        return groups.values();
+    }
+
+    private static long value(SphinxMatch match, int column) {
+        if (column < 0) return 0;
+        Object value = match.attrValues.get(column);
+        return value instanceof Long ? (Long) value : 0;
+    }
+
+    /**
+     * Returns the first k matches in order, using a bounded heap holding the best k matches seen so far.
+     */
+    static SphinxMatch[] top(Collection<SphinxMatch> matches, Comparator<SphinxMatch> order, int k) {
+        if (k <= 0) return new SphinxMatch[0];
+
+        // head of the heap is the worst of the best k matches
+        PriorityQueue<SphinxMatch> heap = new PriorityQueue<SphinxMatch>(Math.min(k, Math.max(1, matches.size())), Collections.reverseOrder(order));
+        for (SphinxMatch match : matches) {
+            if (heap.size() < k) {
+                heap.add(match);
+            } else if (order.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        SphinxMatch[] top = new SphinxMatch[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return top;
+    }
+
+    private static boolean sameSchema(SphinxSchema a, SphinxSchema b) {
+        return a == b || (Arrays.equals(a.getAttrNames(), b.getAttrNames()) && Arrays.equals(a.getAttrTypes(), b.getAttrTypes()));
+    }
+
+    private static String join(List<String> messages) {
+        StringBuilder builder = new StringBuilder();
+        for (String message : messages) {
+            if (builder.length() > 0) builder.append("; ");
+            builder.append(message);
+        }
+        return builder.toString();
+    }
+}
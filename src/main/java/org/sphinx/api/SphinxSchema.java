@@ -0,0 +1,282 @@
+package org.sphinx.api;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable schema of a search result: the full-text fields and the attribute names and types.
+ *
+ * Results with the same fields and attributes share a single schema instance, see {@link SchemaCache}.
+ * The schema holds a precomputed map of attribute names to columns and a pre-resolved decoder for each
+ * attribute, so matches are decoded without dispatching on the attribute type for every value.
+ *
+ * <code>
+ *      SphinxAttribute price = result.schema.getAttribute("price");
+ *      for (SphinxMatch match : result.matches) {
+ *          long value = price.getLong(match);
+ *      }
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class SphinxSchema {
+
+    /** Schema of results without fields or attributes. */
+    static final SphinxSchema EMPTY = new SphinxSchema(new String[0], new String[0], new int[0]);
+
+    private final String[] fields;
+    private final String[] attrNames;
+    private final int[] attrTypes;
+    private final Map<String, SphinxAttribute> attributes;
+    private final AttributeDecoder[] decoders;
+    private final int rowWidth;
+
+
+    SphinxSchema(String[] fields, String[] attrNames, int[] attrTypes) {
+        this.fields = fields;
+        this.attrNames = attrNames;
+        this.attrTypes = attrTypes;
+
+        Map<String, SphinxAttribute> attributes = new HashMap<String, SphinxAttribute>(attrNames.length * 2);
+        this.decoders = new AttributeDecoder[attrNames.length];
+        int rowWidth = 0;
+        for (int i = 0; i < attrNames.length; i++) {
+            attributes.put(attrNames[i], new SphinxAttribute(attrNames[i], attrTypes[i], i));
+            decoders[i] = AttributeDecoder.forType(attrTypes[i]);
+            rowWidth = rowWidth < 0 || decoders[i].width < 0 ? -1 : rowWidth + decoders[i].width;
+        }
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.rowWidth = rowWidth;
+    }
+
+    /**
+     * Reads the schema from the response stream, without caching.
+     */
+    static SphinxSchema read(DataInputStream in) throws IOException {
+        String[] fields = new String[in.readInt()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = SphinxClient.readNetUTF8Interned(in);
+        }
+
+        int nattrs = in.readInt();
+        String[] attrNames = new String[nattrs];
+        int[] attrTypes = new int[nattrs];
+        for (int i = 0; i < nattrs; i++) {
+            attrNames[i] = SphinxClient.readNetUTF8Interned(in);
+            attrTypes[i] = in.readInt();
+        }
+
+        return new SphinxSchema(fields, attrNames, attrTypes);
+    }
+
+    /**
+     * Decodes the attribute values of a single match.
+     */
+    @SuppressWarnings("unchecked")
+    void readAttributes(DataInputStream in, SphinxMatch match) throws IOException {
+        for (AttributeDecoder decoder : decoders) {
+            match.attrValues.add(decoder.decode(in));
+        }
+    }
+
+    /** Returns the decoder of an attribute column. */
+    AttributeDecoder getDecoder(int column) {
+        return decoders[column];
+    }
+
+    /**
+     * Returns the encoded length of a block of matches starting at the given offset, without decoding them.
+     * Schemas without string or multi-valued attributes have fixed width matches, and are skipped in one step.
+     *
+     * @throws EOFException if the matches extend past the end of the buffer
+     */
+    int matchesLength(byte[] buf, int off, int limit, int count, boolean id64) throws EOFException {
+        int head = (id64 ? 8 : 4) + 4; // document id and weight
+
+        if (rowWidth >= 0) {
+            long length = (long) count * (head + rowWidth);
+            if (count < 0 || length > limit - off) throw new EOFException();
+            return (int) length;
+        }
+
+        int pos = off;
+        for (int i = 0; i < count; i++) {
+            pos += head;
+            for (AttributeDecoder decoder : decoders) {
+                pos = decoder.skip(buf, pos, limit);
+            }
+            if (pos > limit) throw new EOFException();
+        }
+        return pos - off;
+    }
+
+    /**
+     * Returns the full-text field names.
+     *
+     * @return copy of the field names
+     */
+    public String[] getFields() {
+        return fields.clone();
+    }
+
+    /**
+     * Returns the attribute names.
+     *
+     * @return copy of the attribute names
+     */
+    public String[] getAttrNames() {
+        return attrNames.clone();
+    }
+
+    /**
+     * Returns the attribute types, see the SPH_ATTR_xxx constants in {@link SphinxClient}.
+     *
+     * @return copy of the attribute types
+     */
+    public int[] getAttrTypes() {
+        return attrTypes.clone();
+    }
+
+    /** Returns the number of attributes. */
+    int getAttrCount() {
+        return attrTypes.length;
+    }
+
+    /** Returns the type of an attribute column. */
+    int getAttrType(int column) {
+        return attrTypes[column];
+    }
+
+    /**
+     * Returns the column index of an attribute in {@link SphinxMatch#attrValues}.
+     *
+     * @param name attribute name
+     * @return column index, -1 if the schema has no such attribute
+     */
+    public int getColumn(String name) {
+        SphinxAttribute attribute = attributes.get(name);
+        return attribute == null ? -1 : attribute.getColumn();
+    }
+
+    /**
+     * Returns a typed accessor for an attribute.
+     *
+     * @param name attribute name
+     * @return attribute accessor, null if the schema has no such attribute
+     */
+    public SphinxAttribute getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Returns typed accessors for all attributes, keyed by attribute name.
+     *
+     * @return attribute accessors
+     */
+    public Map<String, SphinxAttribute> getAttributes() {
+        return attributes;
+    }
+
+
+    /**
+     * Decoder for the values of a single attribute type.
+     */
+    abstract static class AttributeDecoder {
+
+        /** Encoded width of a value in bytes, -1 for variable width values. */
+        final int width;
+
+        AttributeDecoder(int width) {
+            this.width = width;
+        }
+
+        abstract Object decode(DataInputStream in) throws IOException;
+
+        /** Skips over an encoded value, returning the offset of the next value. */
+        int skip(byte[] buf, int pos, int limit) throws EOFException {
+            return pos + width;
+        }
+
+        /** Reads the length or count prefix of a variable width value. */
+        static int prefix(byte[] buf, int pos, int limit) throws EOFException {
+            if (pos < 0 || pos + 4 > limit) throw new EOFException();
+            int n = (buf[pos] << 24) | ((buf[pos + 1] & 0xff) << 16) | ((buf[pos + 2] & 0xff) << 8) | (buf[pos + 3] & 0xff);
+            if (n < 0) throw new EOFException();
+            return n;
+        }
+
+        static final AttributeDecoder BIGINT = new AttributeDecoder(8) {
+            Object decode(DataInputStream in) throws IOException {
+                return Long.valueOf(in.readLong());
+            }
+        };
+
+        static final AttributeDecoder FLOAT = new AttributeDecoder(4) {
+            Object decode(DataInputStream in) throws IOException {
+                return Float.valueOf(in.readFloat());
+            }
+        };
+
+        static final AttributeDecoder STRING = new AttributeDecoder(-1) {
+            Object decode(DataInputStream in) throws IOException {
+                return SphinxClient.readNetUTF8Interned(in);
+            }
+
+            int skip(byte[] buf, int pos, int limit) throws EOFException {
+                return pos + 4 + prefix(buf, pos, limit);
+            }
+        };
+
+        static final AttributeDecoder MULTI = new AttributeDecoder(-1) {
+            Object decode(DataInputStream in) throws IOException {
+                long[] values = new long[in.readInt()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = in.readInt() & 0xffffffffL;
+                }
+                return values;
+            }
+
+            int skip(byte[] buf, int pos, int limit) throws EOFException {
+                return pos + 4 + 4 * prefix(buf, pos, limit);
+            }
+        };
+
+        static final AttributeDecoder MULTI64 = new AttributeDecoder(-1) {
+            Object decode(DataInputStream in) throws IOException {
+                long[] values = new long[in.readInt() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = in.readLong();
+                }
+                return values;
+            }
+
+            // the count is in dwords, values are written as longs
+            int skip(byte[] buf, int pos, int limit) throws EOFException {
+                return pos + 4 + 8 * (prefix(buf, pos, limit) / 2);
+            }
+        };
+
+        /** Unsigned 32-bit integer, used for all other attribute types. */
+        static final AttributeDecoder DWORD = new AttributeDecoder(4) {
+            Object decode(DataInputStream in) throws IOException {
+                return Long.valueOf(in.readInt() & 0xffffffffL);
+            }
+        };
+
+        static AttributeDecoder forType(int type) {
+            switch (type) {
+                case SphinxClient.SPH_ATTR_BIGINT:  return BIGINT;
+                case SphinxClient.SPH_ATTR_FLOAT:   return FLOAT;
+                case SphinxClient.SPH_ATTR_STRING:  return STRING;
+                case SphinxClient.SPH_ATTR_MULTI:   return MULTI;
+                case SphinxClient.SPH_ATTR_MULTI64: return MULTI64;
+                default:                            return DWORD;
+            }
+        }
+    }
+}
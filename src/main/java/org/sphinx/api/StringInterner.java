@@ -0,0 +1,82 @@
+package org.sphinx.api;
+
+/**
+ * Cache of decoded protocol strings, so that strings repeated in every response (field names, attribute
+ * names, low-cardinality string attribute values) are decoded once and shared.
+ *
+ * The cache is a fixed size table indexed by a hash of the encoded bytes. A lookup compares the bytes
+ * in the packet buffer against the cached entry, and only decodes on a miss, replacing whatever was in
+ * that slot. Entries are immutable, so the table can be shared between threads without locking; a lost
+ * update only costs a later cache miss.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class StringInterner {
+
+    /** Interner shared by all clients. */
+    static final StringInterner SHARED = new StringInterner(4096, 64);
+
+    private final Entry[] table;
+    private final int mask;
+    private final int maxLength;
+
+
+    /**
+     * @param size number of cache slots, rounded up to a power of two
+     * @param maxLength longest string in bytes to cache, longer strings are decoded without caching
+     */
+    StringInterner(int size, int maxLength) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.table = new Entry[capacity];
+        this.mask = capacity - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the string decoded from the given range of bytes, from the cache if possible.
+     */
+    String intern(byte[] src, int off, int len) {
+        if (len == 0) return "";
+        if (len > maxLength) return NetUTF8.decode(src, off, len);
+
+        int hash = 1;
+        for (int i = off, end = off + len; i < end; i++) {
+            hash = 31 * hash + src[i];
+        }
+        hash ^= (hash >>> 16);
+
+        int slot = hash & mask;
+        Entry entry = table[slot];
+        if (entry != null && entry.hash == hash && entry.matches(src, off, len)) {
+            return entry.value;
+        }
+
+        byte[] bytes = new byte[len];
+        System.arraycopy(src, off, bytes, 0, len);
+        String value = NetUTF8.decode(bytes, 0, len);
+        table[slot] = new Entry(hash, bytes, value);
+        return value;
+    }
+
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String value;
+
+        private Entry(int hash, byte[] bytes, String value) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        private boolean matches(byte[] src, int off, int len) {
+            if (bytes.length != len) return false;
+            for (int i = 0; i < len; i++) {
+                if (bytes[i] != src[off + i]) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.sphinx.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection to searchd over a Unix domain socket, for clients running on the same host as searchd.
+ * Bypasses the TCP stack entirely.
+ *
+ * The channel is used in non-blocking mode so that the client timeout applies to reads and writes,
+ * in the same way as the socket timeout of a TCP connection.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+final class UnixSocketConnection implements Connection {
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final int timeout;
+    private final InputStream in;
+    private final OutputStream out;
+
+
+    UnixSocketConnection(String path, int timeout, int sendBufferSize, int receiveBufferSize) throws IOException {
+        this.timeout = timeout;
+        this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            if (sendBufferSize > 0) channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+            if (receiveBufferSize > 0) channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+
+            channel.connect(UnixDomainSocketAddress.of(path));
+            channel.configureBlocking(false);
+            this.selector = Selector.open();
+
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.in = new ChannelInputStream();
+        this.out = new ChannelOutputStream();
+    }
+
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    public boolean isConnected() {
+        return channel.isConnected();
+    }
+
+    /**
+     * Closes the connection. May be called from another thread to abort a read or write in progress, which
+     * then fails with an {@link AsynchronousCloseException}.
+     */
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            // wakes up a thread waiting in select
+            selector.close();
+        }
+    }
+
+    /**
+     * Waits until the channel is ready for the given operation, or the timeout expires. A select that
+     * returns early without the channel being ready, e.g. on a spurious wakeup, waits out the rest of the timeout.
+     *
+     * @throws AsynchronousCloseException if the connection was closed by another thread while waiting
+     */
+    private void await(int op) throws IOException {
+        try {
+            SelectionKey key = channel.register(selector, op);
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+                while (selector.select(remaining(deadline)) == 0) {
+                    if (!channel.isOpen()) throw new AsynchronousCloseException();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Unix socket " + describe(op) + " interrupted");
+                    }
+                    if (timeout > 0 && System.nanoTime() - deadline >= 0) {
+                        throw new SocketTimeoutException("Unix socket " + describe(op) + " timed out");
+                    }
+                }
+                selector.selectedKeys().clear();
+            } finally {
+                if (key.isValid()) key.interestOps(0);
+            }
+
+        } catch (ClosedSelectorException e) {
+            throw closedWhileWaiting(e);
+        } catch (CancelledKeyException e) {
+            throw closedWhileWaiting(e);
+        }
+    }
+
+    private static IOException closedWhileWaiting(RuntimeException cause) {
+        IOException e = new AsynchronousCloseException();
+        e.initCause(cause);
+        return e;
+    }
+
+    /**
+     * Returns the time left until the deadline in milliseconds, at least 1 so that it is never taken as
+     * "wait forever" by the selector, or 0 when there is no timeout.
+     */
+    private long remaining(long deadline) {
+        if (timeout <= 0) return 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    private static String describe(int op) {
+        return op == SelectionKey.OP_READ ? "read" : "write";
+    }
+
+
+    private final class ChannelInputStream extends InputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            int read;
+            while ((read = channel.read(buffer)) == 0) {
+                await(SelectionKey.OP_READ);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixSocketConnection.this.close();
+        }
+    }
+
+    private final class ChannelOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixSocketConnection.this.close();
+        }
+    }
+}
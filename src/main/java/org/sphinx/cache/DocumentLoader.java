@@ -0,0 +1,264 @@
+package org.sphinx.cache;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.pool.PooledSphinxDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches lookups of single documents by id into multi-get queries.
+ *
+ * Lookups made by any thread within a short window are collected, and loaded together with a query
+ * filtering on the <code>@id</code> values. Lookups of more documents than fit one filter are split over
+ * several queries, sent together as a single multi-query. Each lookup returns a future that completes with
+ * the matching document, or with null if the document does not match the template request.
+ *
+ * A {@link Scope} caches the lookups of a single unit of work, such as a web request, so that documents
+ * looked up repeatedly within the scope are only loaded once. Scopes are cheap, and are meant to be
+ * discarded with the unit of work rather than held on to.
+ *
+ * <code>
+ *      DocumentLoader loader = new DocumentLoader(dataSource, SearchRequest.builder().index("products").build());
+ *
+ *      DocumentLoader.Scope scope = loader.newScope();
+ *      CompletableFuture<SphinxMatch> product = scope.load(123L);
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class DocumentLoader {
+
+    public static final int DEFAULT_MAX_FILTER_SIZE = 1000;
+    public static final long DEFAULT_BATCH_WINDOW = 2;
+
+    private final PooledSphinxDataSource dataSource;
+    private final SearchRequest template;
+    private final int maxFilterSize;
+    private final long batchWindowMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private Map<Long, CompletableFuture<SphinxMatch>> pending = new LinkedHashMap<Long, CompletableFuture<SphinxMatch>>();
+    private boolean closed;
+
+
+    public DocumentLoader(PooledSphinxDataSource dataSource, SearchRequest template) {
+        this(dataSource, template, DEFAULT_MAX_FILTER_SIZE, DEFAULT_BATCH_WINDOW);
+    }
+
+    /**
+     * @param dataSource data source to load documents from
+     * @param template search request the documents are loaded with, the limits are replaced
+     * @param maxFilterSize maximum number of document ids per query, larger batches are split over several queries
+     * @param batchWindowMillis time in milliseconds lookups are collected before being loaded
+     */
+    public DocumentLoader(PooledSphinxDataSource dataSource, SearchRequest template, int maxFilterSize, long batchWindowMillis) {
+        if (maxFilterSize <= 0) throw new IllegalArgumentException("maxFilterSize must be positive");
+        if (batchWindowMillis < 0) throw new IllegalArgumentException("batchWindowMillis must not be negative");
+
+        this.dataSource = dataSource;
+        this.template = template;
+        this.maxFilterSize = maxFilterSize;
+        this.batchWindowMillis = batchWindowMillis;
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-document-loader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        // outstanding lookups are loaded by close(), no need to wait for their window to pass
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = scheduler;
+    }
+
+
+    /**
+     * Looks up a document, batched together with the other lookups made within the batch window.
+     * Concurrent lookups of the same document share a single future.
+     *
+     * @param docId document id
+     * @return future holding the matching document, or null if the document was not found
+     */
+    public CompletableFuture<SphinxMatch> load(long docId) {
+        CompletableFuture<SphinxMatch> future;
+
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Document loader has been closed.");
+
+            future = pending.get(docId);
+            if (future != null) return future;
+
+            future = new CompletableFuture<SphinxMatch>();
+            pending.put(docId, future);
+
+            if (pending.size() == 1) {
+                // first lookup of a new batch, load it once the window has passed
+                final Map<Long, CompletableFuture<SphinxMatch>> batch = pending;
+                scheduler.schedule(new Runnable() {
+                    public void run() {
+                        dispatch(batch);
+                    }
+                }, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Returns a new lookup scope, caching the documents loaded through it.
+     *
+     * @return lookup scope
+     */
+    public Scope newScope() {
+        return new Scope();
+    }
+
+    /**
+     * Loads a batch, unless it has already been loaded. Runs on the loader thread.
+     */
+    private void dispatch(Map<Long, CompletableFuture<SphinxMatch>> batch) {
+        synchronized (this) {
+            if (batch != pending) return;
+            pending = new LinkedHashMap<Long, CompletableFuture<SphinxMatch>>();
+        }
+
+        load(batch);
+    }
+
+    /**
+     * Loads a batch of documents with one query per filter sized chunk of ids, sent as a single multi-query,
+     * and completes the futures of all lookups in the batch.
+     */
+    private void load(Map<Long, CompletableFuture<SphinxMatch>> batch) {
+        if (batch.isEmpty()) return;
+
+        long[] ids = new long[batch.size()];
+        int n = 0;
+        for (Long id : batch.keySet()) {
+            ids[n++] = id;
+        }
+
+        SearchRequest[] requests = new SearchRequest[(ids.length + maxFilterSize - 1) / maxFilterSize];
+        for (int i = 0; i < requests.length; i++) {
+            long[] chunk = Arrays.copyOfRange(ids, i * maxFilterSize, Math.min(ids.length, (i + 1) * maxFilterSize));
+            requests[i] = template.toBuilder()
+                    .filter("@id", chunk, false)
+                    .limits(0, chunk.length, Math.max(template.getMaxMatches(), chunk.length))
+                    .build();
+        }
+
+        try {
+            SphinxResult[] results = dataSource.execute(requests);
+
+            Map<Long, SphinxMatch> found = new HashMap<Long, SphinxMatch>(ids.length * 2);
+            for (SphinxResult result : results) {
+                if (result.getStatus() == SphinxClient.SEARCHD_ERROR) throw new SphinxException(result.error);
+                for (SphinxMatch match : result.matches) {
+                    found.put(match.docId, match);
+                }
+            }
+
+            for (Map.Entry<Long, CompletableFuture<SphinxMatch>> entry : batch.entrySet()) {
+                entry.getValue().complete(found.get(entry.getKey()));
+            }
+
+        } catch (Exception e) {
+            for (CompletableFuture<SphinxMatch> future : batch.values()) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Loads all outstanding lookups and stops the loader, waiting for the outstanding lookups to complete.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+
+            final Map<Long, CompletableFuture<SphinxMatch>> batch = pending;
+            scheduler.execute(new Runnable() {
+                public void run() {
+                    dispatch(batch);
+                }
+            });
+        }
+        scheduler.shutdown();
+
+        try {
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Lookups of a single unit of work. Documents are loaded at most once per scope, later lookups of the
+     * same document return the same future. Scopes are thread safe.
+     */
+    public final class Scope {
+        private final Map<Long, CompletableFuture<SphinxMatch>> loaded = new ConcurrentHashMap<Long, CompletableFuture<SphinxMatch>>();
+
+        private Scope() {
+        }
+
+        /**
+         * Looks up a document, returning the cached lookup if the document was already loaded in this scope.
+         *
+         * @param docId document id
+         * @return future holding the matching document, or null if the document was not found
+         */
+        public CompletableFuture<SphinxMatch> load(long docId) {
+            CompletableFuture<SphinxMatch> future = loaded.get(docId);
+            if (future == null) {
+                future = DocumentLoader.this.load(docId);
+                CompletableFuture<SphinxMatch> existing = loaded.putIfAbsent(docId, future);
+                if (existing != null) future = existing;
+            }
+            return future;
+        }
+
+        /**
+         * Looks up several documents.
+         *
+         * @param docIds document ids
+         * @return futures holding the matching documents, in the order of the ids
+         */
+        public List<CompletableFuture<SphinxMatch>> loadAll(long... docIds) {
+            List<CompletableFuture<SphinxMatch>> futures = new ArrayList<CompletableFuture<SphinxMatch>>(docIds.length);
+            for (long docId : docIds) {
+                futures.add(load(docId));
+            }
+            return futures;
+        }
+
+        /**
+         * Drops the cached lookup of a document, so the next lookup loads it again.
+         *
+         * @param docId document id
+         */
+        public void invalidate(long docId) {
+            loaded.remove(docId);
+        }
+    }
+}
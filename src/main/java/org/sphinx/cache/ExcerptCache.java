@@ -0,0 +1,277 @@
+package org.sphinx.cache;
+
+import org.sphinx.api.ExcerptOptions;
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.pool.PooledSphinxDataSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Cache of excerpts (snippets) built by {@link ISphinxClient#BuildExcerpts(String[], String, String, ExcerptOptions)}.
+ *
+ * Excerpts are cached by a hash of the document body together with the index, highlighted words and
+ * excerpt options, so the cache does not hold on to the (possibly very large) documents themselves.
+ * Only documents without a cached excerpt are sent to searchd. The cache is bounded to a maximum number
+ * of excerpts, evicting the least recently used when full. A cache size of 0 disables caching.
+ *
+ * When constructed with an {@link ExecutorService}, documents that need to go to searchd are split into
+ * chunks that are sent in parallel, each over its own pooled connection. This keeps a large batch of
+ * long documents from being serialized behind a single searchd worker.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class ExcerptCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final int DEFAULT_CHUNK_SIZE = 10;
+
+    private final PooledSphinxDataSource dataSource;
+    private final int maxEntries;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final Map<Key, String> cache;
+
+
+    public ExcerptCache(PooledSphinxDataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ExcerptCache(PooledSphinxDataSource dataSource, int maxEntries) {
+        this(dataSource, maxEntries, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param dataSource data source used to build excerpts
+     * @param maxEntries maximum number of excerpts to hold in the cache, or 0 to disable caching
+     * @param executor executor used to send chunks in parallel, or null to send all documents in one request
+     * @param chunkSize maximum number of documents per request when sending in parallel
+     */
+    public ExcerptCache(PooledSphinxDataSource dataSource, final int maxEntries, ExecutorService executor, int chunkSize) {
+        if (maxEntries < 0) throw new IllegalArgumentException("maxEntries must not be negative");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+
+        this.dataSource = dataSource;
+        this.maxEntries = maxEntries;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.cache = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Builds excerpts for the given documents, using cached excerpts where available.
+     *
+     * @param docs documents to build excerpts for
+     * @param index index name, used for tokenizing settings
+     * @param words words to highlight
+     * @param opts excerpt options, or null for the defaults
+     * @return excerpts in document order
+     * @throws SphinxException if excerpts could not be built by searchd
+     */
+    public String[] buildExcerpts(String[] docs, String index, String words, ExcerptOptions opts) throws SphinxException {
+        if (docs == null || docs.length == 0) throw new SphinxException("BuildExcerpts: Have no documents to process");
+        if (opts == null) opts = ExcerptOptions.DEFAULT;
+
+        String[] excerpts = new String[docs.length];
+        Key[] keys = new Key[docs.length];
+
+        // collect the documents that still need to go to searchd
+        List<Integer> misses = new ArrayList<Integer>();
+        for (int i = 0; i < docs.length; i++) {
+            keys[i] = new Key(docs[i], index, words, opts);
+            excerpts[i] = lookup(keys[i]);
+            if (excerpts[i] == null) {
+                misses.add(i);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return excerpts;
+        }
+
+        String[] missedDocs = new String[misses.size()];
+        for (int i = 0; i < missedDocs.length; i++) {
+            missedDocs[i] = docs[misses.get(i)];
+        }
+
+        String[] built = executor == null || missedDocs.length <= chunkSize
+                ? build(missedDocs, index, words, opts)
+                : buildParallel(missedDocs, index, words, opts);
+
+        for (int i = 0; i < built.length; i++) {
+            int doc = misses.get(i);
+            excerpts[doc] = built[i];
+            store(keys[doc], built[i]);
+        }
+
+        return excerpts;
+    }
+
+    /**
+     * Builds excerpts for all documents in a single request.
+     */
+    private String[] build(String[] docs, String index, String words, ExcerptOptions opts) throws SphinxException {
+        ISphinxClient client = dataSource.getSphinxClient();
+        try {
+            String[] excerpts = client.BuildExcerpts(docs, index, words, opts);
+            if (excerpts == null) throw new SphinxException(client.GetLastError());
+            return excerpts;
+
+        } finally {
+            client.Close();
+        }
+    }
+
+    /**
+     * Splits the documents into chunks and builds excerpts for each chunk in parallel.
+     */
+    private String[] buildParallel(String[] docs, final String index, final String words, final ExcerptOptions opts) throws SphinxException {
+        List<Future<String[]>> futures = new ArrayList<Future<String[]>>();
+
+        for (int offset = 0; offset < docs.length; offset += chunkSize) {
+            final String[] chunk = new String[Math.min(chunkSize, docs.length - offset)];
+            System.arraycopy(docs, offset, chunk, 0, chunk.length);
+
+            futures.add(executor.submit(new Callable<String[]>() {
+                public String[] call() throws Exception {
+                    return build(chunk, index, words, opts);
+                }
+            }));
+        }
+
+        String[] excerpts = new String[docs.length];
+        int offset = 0;
+
+        try {
+            for (Future<String[]> future : futures) {
+                String[] chunk = future.get();
+                System.arraycopy(chunk, 0, excerpts, offset, chunk.length);
+                offset += chunk.length;
+            }
+
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new SphinxException("interrupted while building excerpts");
+
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof SphinxException) throw (SphinxException) e.getCause();
+            throw new SphinxException("failed to build excerpts: " + e.getCause());
+        }
+
+        return excerpts;
+    }
+
+    private static void cancel(List<Future<String[]>> futures) {
+        for (Future<String[]> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private String lookup(Key key) {
+        if (maxEntries == 0) return null;
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void store(Key key, String excerpt) {
+        if (maxEntries == 0) return;
+        synchronized (cache) {
+            cache.put(key, excerpt);
+        }
+    }
+
+    /**
+     * Removes all cached excerpts.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the number of excerpts currently held in the cache.
+     *
+     * @return number of cached excerpts
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+
+    /**
+     * Cache key identifying a document by its length and two independent hashes of its
+     * contents, so that the document body itself does not need to be retained.
+     */
+    private static final class Key {
+        private final int length;
+        private final int hash32;
+        private final long hash64;
+        private final String index;
+        private final String words;
+        private final ExcerptOptions opts;
+
+        private Key(String doc, String index, String words, ExcerptOptions opts) {
+            this.length = doc == null ? -1 : doc.length();
+            this.hash32 = doc == null ? 0 : doc.hashCode();
+            this.hash64 = doc == null ? 0 : fnv64(doc);
+            this.index = index;
+            this.words = words;
+            this.opts = opts;
+        }
+
+        /** 64-bit FNV-1a hash over the characters of the string. */
+        private static long fnv64(String s) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                hash ^= s.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            if (length != that.length) return false;
+            if (hash32 != that.hash32) return false;
+            if (hash64 != that.hash64) return false;
+            if (index != null ? !index.equals(that.index) : that.index != null) return false;
+            if (words != null ? !words.equals(that.words) : that.words != null) return false;
+            return opts.equals(that.opts);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hash32;
+            result = 31 * result + (int) (hash64 ^ (hash64 >>> 32));
+            result = 31 * result + (index != null ? index.hashCode() : 0);
+            result = 31 * result + (words != null ? words.hashCode() : 0);
+            result = 31 * result + opts.hashCode();
+            return result;
+        }
+    }
+}
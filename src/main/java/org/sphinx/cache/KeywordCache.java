@@ -0,0 +1,359 @@
+package org.sphinx.cache;
+
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxKeyword;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.sphinx.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-index, per-term cache of keyword statistics returned by {@link ISphinxClient#BuildKeywordList(String, String, boolean)}.
+ *
+ * Queries are split into whitespace separated terms, and each term is looked up in the cache before
+ * going to the sphinx server. Terms that have not been seen before are sent to searchd together in a
+ * single batched request, so a query made entirely of cached terms is answered without borrowing a
+ * client from the pool at all.
+ *
+ * The cache is bounded to a maximum number of terms, evicting the least recently used term when full.
+ * Entries can optionally expire after a time-to-live so that docs/hits statistics follow index updates.
+ *
+ * <code>
+ *      KeywordCache cache = new KeywordCache(dataSource, 10000, 60000);
+ *      SphinxKeyword[] keywords = cache.getKeywords("hello world", "products");
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class KeywordCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final PooledSphinxDataSource dataSource;
+    private final long ttlMillis;
+    private final Map<Key, CachedTerm> cache;
+
+    private long hitCount;
+    private long missCount;
+
+
+    public KeywordCache(PooledSphinxDataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * @param dataSource data source used to fetch statistics for unseen terms
+     * @param maxEntries maximum number of terms to hold in the cache
+     * @param ttlMillis time in milliseconds before a cached term expires, or 0 to never expire
+     */
+    public KeywordCache(PooledSphinxDataSource dataSource, final int maxEntries, long ttlMillis) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+
+        this.dataSource = dataSource;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<Key, CachedTerm>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedTerm> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Returns the keyword list and docs/hits statistics for the given query. Cached terms are answered
+     * locally, all remaining terms are fetched from searchd in one request.
+     *
+     * @param query query to build keywords for
+     * @param index index name
+     * @return keywords for all terms of the query, in query order
+     * @throws SphinxException if the keywords could not be fetched from searchd
+     */
+    public SphinxKeyword[] getKeywords(String query, String index) throws SphinxException {
+        String[] terms = split(query);
+        SphinxKeyword[][] resolved = new SphinxKeyword[terms.length][];
+
+        // answer what we can locally
+        Set<String> misses = new LinkedHashSet<String>();
+        for (int i = 0; i < terms.length; i++) {
+            resolved[i] = lookup(index, terms[i]);
+            if (resolved[i] == null) {
+                misses.add(terms[i]);
+            }
+        }
+
+        // fetch everything else in one go
+        if (!misses.isEmpty()) {
+            List<String> missed = new ArrayList<String>(misses);
+
+            ISphinxClient client = dataSource.getSphinxClient();
+            try {
+                SphinxKeyword[] keywords = buildKeywords(client, join(missed), index);
+                Map<String, SphinxKeyword[]> fetched = align(missed, keywords);
+
+                if (fetched == null) {
+                    // keywords can't be traced back to their terms, answer the whole query without caching
+                    return missed.size() == terms.length ? keywords : buildKeywords(client, join(Arrays.asList(terms)), index);
+                }
+
+                store(index, fetched);
+                for (int i = 0; i < terms.length; i++) {
+                    if (resolved[i] == null) {
+                        resolved[i] = fetched.get(terms[i]);
+                    }
+                }
+
+            } finally {
+                client.Close();
+            }
+        }
+
+        List<SphinxKeyword> keywords = new ArrayList<SphinxKeyword>(terms.length);
+        for (SphinxKeyword[] termKeywords : resolved) {
+            for (SphinxKeyword keyword : termKeywords) {
+                keywords.add(keyword);
+            }
+        }
+        return keywords.toArray(new SphinxKeyword[keywords.size()]);
+    }
+
+    private static SphinxKeyword[] buildKeywords(ISphinxClient client, String query, String index) throws SphinxException {
+        SphinxKeyword[] keywords = client.BuildKeywordList(query, index, true);
+        if (keywords == null) throw new SphinxException(client.GetLastError());
+        return keywords;
+    }
+
+    /**
+     * Maps the keywords returned for a batched query back to the terms they were tokenized from.
+     *
+     * Searchd returns keywords in query order, but a term may produce no keywords at all (stop-words) or
+     * several (split on separators), so keywords are assigned by finding each tokenized form as a whole
+     * token in its term, moving on to the next term when it does not occur past the previous match. The
+     * keywords are assigned both to the earliest and to the latest terms they fit in; if the two differ,
+     * a keyword could belong to more than one term and the alignment is rejected.
+     *
+     * @param terms terms sent to searchd, in query order
+     * @param keywords keywords returned by searchd
+     * @return keywords by term, or null if the keywords can't be traced back to their terms unambiguously
+     */
+    static Map<String, SphinxKeyword[]> align(List<String> terms, SphinxKeyword[] keywords) {
+        String[] texts = new String[terms.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = terms.get(i).toLowerCase(Locale.ROOT);
+        }
+        for (SphinxKeyword keyword : keywords) {
+            if (keyword.tokenized == null) return null;
+        }
+
+        // index of the first keyword of each term, assigning keywords to the earliest possible term
+        int[] earliest = new int[texts.length + 1];
+        int k = 0;
+        for (int i = 0; i < texts.length; i++) {
+            earliest[i] = k;
+            int offset = 0;
+            while (k < keywords.length) {
+                String token = keywords[k].tokenized.toLowerCase(Locale.ROOT);
+                int pos = indexOfToken(texts[i], token, offset);
+                if (pos < 0) break;
+
+                offset = pos + token.length();
+                k++;
+            }
+        }
+        if (k != keywords.length) return null;
+        earliest[texts.length] = k;
+
+        // and to the latest possible term, working back from the last keyword
+        int[] latest = new int[texts.length + 1];
+        latest[texts.length] = k;
+        for (int i = texts.length - 1; i >= 0; i--) {
+            int end = texts[i].length();
+            while (k > 0) {
+                String token = keywords[k - 1].tokenized.toLowerCase(Locale.ROOT);
+                int pos = lastIndexOfToken(texts[i], token, end);
+                if (pos < 0) break;
+
+                end = pos;
+                k--;
+            }
+            latest[i] = k;
+        }
+        if (k != 0 || !Arrays.equals(earliest, latest)) return null;
+
+        Map<String, SphinxKeyword[]> aligned = new HashMap<String, SphinxKeyword[]>();
+        for (int i = 0; i < texts.length; i++) {
+            aligned.put(terms.get(i), Arrays.copyOfRange(keywords, earliest[i], earliest[i + 1]));
+        }
+        return aligned;
+    }
+
+    /**
+     * Returns the position of the first whole-token occurrence of a token at or after the given offset, or -1.
+     */
+    private static int indexOfToken(String text, String token, int offset) {
+        for (int pos = text.indexOf(token, offset); pos >= 0; pos = text.indexOf(token, pos + 1)) {
+            if (isTokenAt(text, token, pos)) return pos;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the last whole-token occurrence of a token ending at or before the given end, or -1.
+     */
+    private static int lastIndexOfToken(String text, String token, int end) {
+        for (int pos = text.lastIndexOf(token, end - token.length()); pos >= 0; pos = text.lastIndexOf(token, pos - 1)) {
+            if (isTokenAt(text, token, pos)) return pos;
+        }
+        return -1;
+    }
+
+    private static boolean isTokenAt(String text, String token, int pos) {
+        int end = pos + token.length();
+        return (pos == 0 || !Character.isLetterOrDigit(text.charAt(pos - 1)))
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+
+    private void store(String index, Map<String, SphinxKeyword[]> fetched) {
+        long expires = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        synchronized (cache) {
+            for (Map.Entry<String, SphinxKeyword[]> entry : fetched.entrySet()) {
+                cache.put(new Key(index, entry.getKey()), new CachedTerm(entry.getValue(), expires));
+            }
+        }
+    }
+
+    private SphinxKeyword[] lookup(String index, String term) {
+        Key key = new Key(index, term);
+        synchronized (cache) {
+            CachedTerm entry = cache.get(key);
+            if (entry != null && entry.expires < System.currentTimeMillis()) {
+                cache.remove(key);
+                entry = null;
+            }
+
+            if (entry == null) {
+                missCount++;
+                return null;
+            }
+
+            hitCount++;
+            return entry.keywords;
+        }
+    }
+
+    /**
+     * Removes all cached terms for the given index, e.g. after the index has been rebuilt.
+     *
+     * @param index index name
+     */
+    public void invalidate(String index) {
+        synchronized (cache) {
+            for (Iterator<Key> it = cache.keySet().iterator(); it.hasNext();) {
+                if (it.next().index.equals(index)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached terms.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the number of terms currently held in the cache.
+     *
+     * @return number of cached terms
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the number of term lookups answered from the cache.
+     *
+     * @return cache hits
+     */
+    public long getHitCount() {
+        synchronized (cache) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Returns the number of term lookups that had to go to searchd.
+     *
+     * @return cache misses
+     */
+    public long getMissCount() {
+        synchronized (cache) {
+            return missCount;
+        }
+    }
+
+    private static String[] split(String query) {
+        return StringUtils.isNullOrEmpty(query) ? new String[0] : query.trim().split("\\s+");
+    }
+
+    private static String join(List<String> terms) {
+        StringBuilder builder = new StringBuilder();
+        for (String term : terms) {
+            if (builder.length() > 0) builder.append(' ');
+            builder.append(term);
+        }
+        return builder.toString();
+    }
+
+
+    private static final class Key {
+        private final String index;
+        private final String term;
+
+        private Key(String index, String term) {
+            this.index = index;
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+            return index.equals(that.index) && term.equals(that.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * index.hashCode() + term.hashCode();
+        }
+    }
+
+    private static final class CachedTerm {
+        private final SphinxKeyword[] keywords;
+        private final long expires;
+
+        private CachedTerm(SphinxKeyword[] keywords, long expires) {
+            this.keywords = keywords;
+            this.expires = expires;
+        }
+    }
+}
@@ -15,6 +15,10 @@ public class BasicPooledDataSourceConfig {
     private final int minIdle;
     private final int maxIdle;
     private final int maxTotal;
+    private final boolean tcpNoDelay;
+    private final boolean keepAlive;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
 
 
     public BasicPooledDataSourceConfig(String host, int port) {
@@ -22,6 +26,11 @@ public class BasicPooledDataSourceConfig {
     }
 
     public BasicPooledDataSourceConfig(String host, int port, boolean testOnBorrow, boolean testOnReturn, int minIdle, int maxIdle, int maxTotal) {
+        this(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal, true, false, 0, 0);
+    }
+
+    public BasicPooledDataSourceConfig(String host, int port, boolean testOnBorrow, boolean testOnReturn, int minIdle, int maxIdle, int maxTotal,
+                                       boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) {
         this.host = host;
         this.port = port;
         this.testOnBorrow = testOnBorrow;
@@ -29,6 +38,10 @@ public class BasicPooledDataSourceConfig {
         this.minIdle = minIdle;
         this.maxIdle = maxIdle;
         this.maxTotal = maxTotal;
+        this.tcpNoDelay = tcpNoDelay;
+        this.keepAlive = keepAlive;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
     }
 
 
@@ -60,6 +73,22 @@ public class BasicPooledDataSourceConfig {
         return maxTotal;
     }
 
+    public boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public boolean getKeepAlive() {
+        return keepAlive;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
     /**
      * Returns a config object with an updated sphinx server host and port.
      *
@@ -68,7 +97,8 @@ public class BasicPooledDataSourceConfig {
      * @return new config object with set host and port
      */
     public BasicPooledDataSourceConfig withServer(String host, int port) {
-        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal);
+        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal,
+                                               tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
     }
 
     /**
@@ -82,7 +112,22 @@ public class BasicPooledDataSourceConfig {
      * @return new config object with set data source options
      */
     public BasicPooledDataSourceConfig withOptions(boolean testOnBorrow, boolean testOnReturn, int minIdle, int maxIdle, int maxTotal) {
-        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal);
+        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal,
+                                               tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
+    }
+
+    /**
+     * Returns a config object with updated socket options.
+     *
+     * @param tcpNoDelay disable Nagle's algorithm, so that requests are sent without delay
+     * @param keepAlive enable TCP keepalive probes on idle connections
+     * @param sendBufferSize socket send buffer size in bytes, 0 for the system default
+     * @param receiveBufferSize socket receive buffer size in bytes, 0 for the system default
+     * @return new config object with set socket options
+     */
+    public BasicPooledDataSourceConfig withSocketOptions(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) {
+        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal,
+                                               tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
     }
 
     @Override
@@ -98,6 +143,10 @@ public class BasicPooledDataSourceConfig {
         if (minIdle != that.minIdle) return false;
         if (maxIdle != that.maxIdle) return false;
         if (maxTotal != that.maxTotal) return false;
+        if (tcpNoDelay != that.tcpNoDelay) return false;
+        if (keepAlive != that.keepAlive) return false;
+        if (sendBufferSize != that.sendBufferSize) return false;
+        if (receiveBufferSize != that.receiveBufferSize) return false;
         return !(host != null ? !host.equals(that.host) : that.host != null);
     }
 
@@ -110,6 +159,10 @@ public class BasicPooledDataSourceConfig {
         result = 31 * result + minIdle;
         result = 31 * result + maxIdle;
         result = 31 * result + maxTotal;
+        result = 31 * result + (tcpNoDelay ? 1 : 0);
+        result = 31 * result + (keepAlive ? 1 : 0);
+        result = 31 * result + sendBufferSize;
+        result = 31 * result + receiveBufferSize;
         return result;
     }
 }
@@ -45,13 +45,18 @@ public class ConfigurationReader {
      */
     public BasicPooledDataSourceConfig getConfigObject() {
         final String host = config.getString("sphinx.dataSource.host");
-        final int port = config.getInt("sphinx.dataSource.port");
+        final int port = config.getInt("sphinx.dataSource.port", 9312); // not used for unix socket hosts
         final boolean testOnBorrow = config.getBoolean("sphinx.dataSource.testOnBorrow");
         final boolean testOnReturn = config.getBoolean("sphinx.dataSource.testOnReturn");
         final int minIdle = config.getInt("sphinx.dataSource.minIdle");
         final int maxIdle = config.getInt("sphinx.dataSource.maxIdle");
         final int maxTotal = config.getInt("sphinx.dataSource.maxTotal");
+        final boolean tcpNoDelay = config.getBoolean("sphinx.dataSource.tcpNoDelay", true);
+        final boolean keepAlive = config.getBoolean("sphinx.dataSource.keepAlive", false);
+        final int sendBufferSize = config.getInt("sphinx.dataSource.sendBufferSize", 0);
+        final int receiveBufferSize = config.getInt("sphinx.dataSource.receiveBufferSize", 0);
 
-        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal);
+        return new BasicPooledDataSourceConfig(host, port, testOnBorrow, testOnReturn, minIdle, maxIdle, maxTotal,
+                                               tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
     }
 }
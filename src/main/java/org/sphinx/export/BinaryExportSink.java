@@ -0,0 +1,102 @@
+package org.sphinx.export;
+
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported matches in a compact binary format.
+ *
+ * The stream starts with the magic bytes "SPHX", a format version, and the schema as the number of
+ * attributes followed by the name and SPH_ATTR_xxx type (int) of each attribute. Each match follows as
+ * a 1 byte marker, the document id (long), the weight (int) and the attribute values: integers as int,
+ * bigints as long, floats as float, strings as a byte length (int) followed by the UTF-8 bytes, like the
+ * searchd protocol, and multi-valued attributes as the number of values followed by the values as longs. The stream ends with a 0 marker byte, an
+ * export without any matches is written as the end marker alone.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class BinaryExportSink implements ExportSink {
+
+    public static final int MAGIC = 0x53504858; // "SPHX"
+    public static final int VERSION = 2;
+
+    private final DataOutputStream out;
+    private int[] types;
+
+
+    /**
+     * @param out stream to write matches to, not closed by the sink
+     */
+    public BinaryExportSink(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+    }
+
+    public void write(SphinxSchema schema, SphinxMatch[] matches) throws IOException {
+        if (types == null) {
+            types = schema.getAttrTypes();
+            String[] names = schema.getAttrNames();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(types.length);
+            for (int i = 0; i < types.length; i++) {
+                writeString(names[i]);
+                out.writeInt(types[i]);
+            }
+        }
+
+        for (SphinxMatch match : matches) {
+            out.writeByte(1);
+            out.writeLong(match.docId);
+            out.writeInt(match.weight);
+
+            for (int i = 0; i < types.length; i++) {
+                Object value = match.attrValues.get(i);
+                switch (types[i]) {
+                    case SphinxClient.SPH_ATTR_BIGINT:
+                        out.writeLong((Long) value);
+                        break;
+
+                    case SphinxClient.SPH_ATTR_FLOAT:
+                        out.writeFloat((Float) value);
+                        break;
+
+                    case SphinxClient.SPH_ATTR_STRING:
+                        writeString((String) value);
+                        break;
+
+                    case SphinxClient.SPH_ATTR_MULTI:
+                    case SphinxClient.SPH_ATTR_MULTI64:
+                        long[] values = (long[]) value;
+                        out.writeInt(values.length);
+                        for (long v : values) {
+                            out.writeLong(v);
+                        }
+                        break;
+
+                    default:
+                        out.writeInt(((Long) value).intValue());
+                        break;
+                }
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public void flush() throws IOException {
+        out.writeByte(0);
+        out.flush();
+    }
+}
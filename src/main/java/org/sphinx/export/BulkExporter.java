@@ -0,0 +1,240 @@
+package org.sphinx.export;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.pool.PooledSphinxDataSource;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports all matches of a search request, beyond the max matches limit of a single query.
+ *
+ * The document id space is split into ranges, and each range is queried separately with an id range
+ * and sorted by document id. Ranges are queried concurrently on pooled connections, with at most
+ * <code>parallelism</code> ranges in flight, and written to the sink in ascending id order as they
+ * complete. Memory use is bounded by the number of ranges in flight.
+ *
+ * Range sizes adapt to the observed density of matches, so that each range returns roughly the target
+ * number of matches. A range holding more matches than a single query returns is continued from the
+ * last exported id.
+ *
+ * <code>
+ *      BulkExporter exporter = new BulkExporter(dataSource);
+ *      exporter.setParallelism(8);
+ *
+ *      Writer writer = new BufferedWriter(new FileWriter("products.csv"));
+ *      long exported = exporter.export(SearchRequest.builder().index("products").build(), new CsvExportSink(writer));
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class BulkExporter {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_TARGET_RANGE_SIZE = 1000;
+
+    private final PooledSphinxDataSource dataSource;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int targetRangeSize = DEFAULT_TARGET_RANGE_SIZE;
+
+
+    public BulkExporter(PooledSphinxDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of id ranges queried at the same time. Each range in flight holds a pooled
+     * connection while querying, and its matches in memory until written.
+     *
+     * @param parallelism maximum number of concurrent range queries
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    public int getTargetRangeSize() {
+        return targetRangeSize;
+    }
+
+    /**
+     * Sets the number of matches each id range should return. Ranges are sized from the density of
+     * matches seen so far, and return at most twice this number of matches per query.
+     *
+     * @param targetRangeSize target number of matches per range
+     */
+    public void setTargetRangeSize(int targetRangeSize) {
+        if (targetRangeSize <= 0) throw new IllegalArgumentException("targetRangeSize must be positive");
+        this.targetRangeSize = targetRangeSize;
+    }
+
+    /**
+     * Exports all matches of a search request. If the request has an id range, only that range is
+     * exported. Unless the range has an upper bound, the lowest and highest matching document ids are
+     * looked up first.
+     *
+     * @param request search request, the limits, sorting and id range are replaced for each range
+     * @param sink sink to write the matches to
+     * @return number of exported matches
+     * @throws SphinxException if a range query failed
+     * @throws IOException if the matches could not be written
+     */
+    public long export(SearchRequest request, ExportSink sink) throws SphinxException, IOException {
+        long minId = request.getMinId();
+        long maxId = request.getMaxId();
+
+        if (maxId == 0) {
+            // no upper bound, look up the matching ids within the requested lower bound
+            SearchRequest bounds = request.toBuilder().limits(0, 1).resetGroupBy().build();
+            SphinxResult lowest = dataSource.execute(bounds.toBuilder().sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc").build());
+            if (lowest.matches.length == 0) {
+                sink.flush();
+                return 0;
+            }
+            SphinxResult highest = dataSource.execute(bounds.toBuilder().sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id desc").build());
+
+            minId = lowest.matches[0].docId;
+            maxId = highest.matches.length > 0 ? highest.matches[0].docId : minId;
+        }
+
+        return export(request, minId, maxId, sink);
+    }
+
+    /**
+     * Exports all matches of a search request with document ids in the given range.
+     *
+     * @param request search request, the limits, sorting and id range are replaced for each range
+     * @param minId lowest document id to export
+     * @param maxId highest document id to export
+     * @param sink sink to write the matches to
+     * @return number of exported matches
+     * @throws SphinxException if a range query failed
+     * @throws IOException if the matches could not be written
+     */
+    public long export(SearchRequest request, long minId, long maxId, ExportSink sink) throws SphinxException, IOException {
+        if (minId > maxId) throw new IllegalArgumentException("minId must not be greater than maxId");
+
+        final int limit = (int) Math.min(Integer.MAX_VALUE / 2, targetRangeSize * 2L);
+        final SearchRequest template = request.toBuilder()
+                .limits(0, limit, Math.max(request.getMaxMatches(), limit), request.getCutoff())
+                .sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc")
+                .build();
+
+        // initial guess, spread the id space over a few rounds of parallel ranges
+        double density = 0;
+        long width = Math.max(1, (maxId - minId) / (parallelism * 8L) + 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-bulk-export-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        Deque<Range> inFlight = new ArrayDeque<Range>(parallelism + 1);
+        long next = minId;
+        boolean more = true;
+        long exported = 0;
+
+        try {
+            while (more || !inFlight.isEmpty()) {
+
+                // keep up to the parallelism limit of ranges in flight
+                while (more && inFlight.size() < parallelism) {
+                    long end = maxId - next < width ? maxId : next + width - 1;
+                    inFlight.addLast(submit(executor, template, next, end));
+                    more = end < maxId;
+                    next = end + 1; // may overflow once the last range is submitted
+                }
+
+                // write the lowest range once complete, ranges complete in any order
+                Range range = inFlight.removeFirst();
+                SphinxResult result = range.get();
+
+                if (result.matches.length > 0) {
+                    sink.write(result.schema, result.matches);
+                    exported += result.matches.length;
+                }
+
+                long last = result.matches.length > 0 ? result.matches[result.matches.length - 1].docId : range.maxId;
+                if (result.totalFound > result.matches.length && last < range.maxId) {
+                    // more matches than a single query returns, continue the range after the last match
+                    inFlight.addFirst(submit(executor, template, last + 1, range.maxId));
+                }
+
+                // adapt the width of new ranges to the observed density of matches
+                double observed = result.totalFound / ((double) range.maxId - range.minId + 1);
+                density = density == 0 ? observed : (density * 3 + observed) / 4;
+                width = density <= 0 ? Math.max(width, width * 2) : Math.max(1, (long) (targetRangeSize / density));
+            }
+
+        } finally {
+            for (Range range : inFlight) {
+                range.future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+
+        sink.flush();
+        return exported;
+    }
+
+    private Range submit(ExecutorService executor, SearchRequest template, long minId, long maxId) {
+        final SearchRequest request = template.toBuilder().idRange(minId, maxId).build();
+        Future<SphinxResult> future = executor.submit(new Callable<SphinxResult>() {
+            public SphinxResult call() throws Exception {
+                return dataSource.execute(request);
+            }
+        });
+        return new Range(minId, maxId, future);
+    }
+
+
+    private static final class Range {
+        private final long minId;
+        private final long maxId;
+        private final Future<SphinxResult> future;
+
+        private Range(long minId, long maxId, Future<SphinxResult> future) {
+            this.minId = minId;
+            this.maxId = maxId;
+            this.future = future;
+        }
+
+        private SphinxResult get() throws SphinxException {
+            try {
+                return future.get();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SphinxException("export interrupted");
+
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SphinxException) throw (SphinxException) cause;
+                throw new SphinxException("export of ids " + minId + " to " + maxId + " failed: " + cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.sphinx.export;
+
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxSchema;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes exported matches as CSV, with a header row naming the columns.
+ *
+ * Each row holds the document id, the weight and the attribute values of a match. Multi-valued attributes
+ * are written as a single field with the values separated by semicolons. Fields are quoted when needed.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class CsvExportSink implements ExportSink {
+
+    private final Writer writer;
+    private SphinxSchema schema;
+
+
+    /**
+     * @param writer writer to write rows to, not closed by the sink
+     */
+    public CsvExportSink(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void write(SphinxSchema schema, SphinxMatch[] matches) throws IOException {
+        if (this.schema == null) {
+            this.schema = schema;
+            writer.write("id,weight");
+            for (String name : schema.getAttrNames()) {
+                writer.write(',');
+                writeField(name);
+            }
+            writer.write('\n');
+        }
+
+        StringBuilder row = new StringBuilder();
+        for (SphinxMatch match : matches) {
+            row.setLength(0);
+            row.append(match.docId).append(',').append(match.weight);
+            for (Object value : match.attrValues) {
+                row.append(',');
+                if (value instanceof long[]) {
+                    long[] values = (long[]) value;
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) row.append(';');
+                        row.append(values[i]);
+                    }
+                } else if (value instanceof String) {
+                    appendField(row, (String) value);
+                } else {
+                    row.append(value);
+                }
+            }
+            row.append('\n');
+            writer.write(row.toString());
+        }
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        StringBuilder field = new StringBuilder();
+        appendField(field, value);
+        writer.write(field.toString());
+    }
+
+    private static void appendField(StringBuilder row, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') row.append('"');
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
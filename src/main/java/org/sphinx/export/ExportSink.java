@@ -0,0 +1,34 @@
+package org.sphinx.export;
+
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxSchema;
+
+import java.io.IOException;
+
+/**
+ * Destination of the matches of a bulk export, see {@link BulkExporter}.
+ *
+ * Matches are written in ascending document id order, one block of matches per exported id range. All
+ * writes happen on the thread running the export.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public interface ExportSink {
+
+    /**
+     * Writes a block of matches.
+     *
+     * @param schema result schema of the matches
+     * @param matches matches, in ascending document id order
+     * @throws IOException if the matches could not be written
+     */
+    void write(SphinxSchema schema, SphinxMatch[] matches) throws IOException;
+
+    /**
+     * Called once all matches have been written.
+     *
+     * @throws IOException if buffered matches could not be written
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,56 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.SphinxClient;
+
+/**
+ * Handle for abandoning a query in flight on a pooled client.
+ *
+ * Aborting closes the connection of the client running the query, so the query fails right away instead of
+ * holding the connection until searchd replies. The client is then destroyed rather than returned to the
+ * pool, since its connection may be left halfway through a reply. Aborting before the query has been sent
+ * keeps it from being sent at all.
+ *
+ * @see PooledSphinxDataSource#fetch(AbortHandle, org.sphinx.api.SearchRequest...)
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class AbortHandle {
+
+    private volatile boolean aborted;
+    private volatile SphinxClient client;
+
+
+    /**
+     * Aborts the query, closing its connection if the query is in flight.
+     */
+    public void abort() {
+        aborted = true;
+
+        SphinxClient current = client;
+        if (current != null) {
+            current.Abort();
+        }
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Attaches the client about to run the query. Returns false if the query has already been aborted.
+     */
+    boolean attach(SphinxClient client) {
+        this.client = client;
+        return !aborted;
+    }
+
+    /**
+     * Detaches the client once the query has completed. Returns false if the query was aborted while in
+     * flight, in which case the client must be discarded.
+     */
+    boolean detach() {
+        this.client = null;
+        return !aborted;
+    }
+}
@@ -0,0 +1,192 @@
+package org.sphinx.pool;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the sphinx host name to socket addresses, caching the result so that new connections do not
+ * trigger a DNS lookup.
+ *
+ * Resolved addresses are kept for the configured TTL. When background refresh is enabled the addresses
+ * are looked up again on a timer before they expire, so connecting never waits on DNS. Without background
+ * refresh the first connection after expiry performs the lookup. If a lookup fails the last known addresses
+ * are kept, a DNS outage does not take down an otherwise healthy pool.
+ *
+ * When the host name resolves to several addresses, connections are spread across all of them in turn.
+ *
+ * <code>
+ *      EndpointResolver resolver = new EndpointResolver("sphinx.example.com", 9312, 30000, true);
+ *      dataSource.setEndpointResolver(resolver);
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class EndpointResolver {
+
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sphinx-endpoint-resolver");
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
+
+    private static final long FAILED_LOOKUP_RETRY_MILLIS = 1000;
+
+    private final String host;
+    private final int port;
+    private final long ttlMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile InetSocketAddress[] addresses;
+    private volatile long expires;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refresh;
+
+
+    /**
+     * Creates a resolver that looks up addresses on demand once the TTL has expired.
+     *
+     * @param host sphinx host name
+     * @param port sphinx port
+     * @param ttlMillis time in milliseconds to keep resolved addresses
+     */
+    public EndpointResolver(String host, int port, long ttlMillis) {
+        this(host, port, ttlMillis, false);
+    }
+
+    /**
+     * Creates a resolver.
+     *
+     * @param host sphinx host name
+     * @param port sphinx port
+     * @param ttlMillis time in milliseconds to keep resolved addresses
+     * @param backgroundRefresh true to refresh addresses on a background thread before they expire
+     */
+    public EndpointResolver(String host, int port, long ttlMillis, boolean backgroundRefresh) {
+        if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be positive");
+
+        this.host = host;
+        this.port = port;
+        this.ttlMillis = ttlMillis;
+
+        if (backgroundRefresh) {
+            // refresh at a fraction of the TTL, so that a slow or failed lookup can be retried before expiry
+            long period = Math.max(1, ttlMillis / 2);
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+            this.refresh = scheduler.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    refresh();
+                }
+            }, 0, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Returns the next resolved address, rotating through all addresses of the host.
+     *
+     * @return resolved socket address
+     * @throws UnknownHostException if the host has never been resolved successfully
+     */
+    public InetSocketAddress resolve() throws UnknownHostException {
+        InetSocketAddress[] current = addresses;
+
+        if (current == null || System.currentTimeMillis() >= expires) {
+            current = refreshIfExpired();
+            if (current == null) {
+                throw new UnknownHostException("Could not resolve sphinx host: " + host);
+            }
+        }
+
+        return current[(next.getAndIncrement() & Integer.MAX_VALUE) % current.length];
+    }
+
+    /**
+     * Returns all currently cached addresses, without triggering a lookup.
+     *
+     * @return cached addresses, or an empty array if the host has not been resolved yet
+     */
+    public InetSocketAddress[] getAddresses() {
+        InetSocketAddress[] current = addresses;
+        return current == null ? new InetSocketAddress[0] : current.clone();
+    }
+
+    /**
+     * Refreshes the cached addresses unless another thread has already done so.
+     */
+    private synchronized InetSocketAddress[] refreshIfExpired() {
+        if (addresses != null && System.currentTimeMillis() < expires) {
+            return addresses;
+        }
+        return refresh();
+    }
+
+    /**
+     * Looks up the host addresses and replaces the cached addresses. The previous addresses are kept
+     * if the lookup fails.
+     *
+     * @return cached addresses after the refresh, null if the host has never been resolved
+     */
+    public synchronized InetSocketAddress[] refresh() {
+        try {
+            InetAddress[] resolved = lookup(host);
+            if (resolved.length > 0) {
+                InetSocketAddress[] updated = new InetSocketAddress[resolved.length];
+                for (int i = 0; i < resolved.length; i++) {
+                    updated[i] = new InetSocketAddress(resolved[i], port);
+                }
+                addresses = updated;
+                expires = System.currentTimeMillis() + ttlMillis;
+            }
+
+        } catch (UnknownHostException e) {
+            // keep the last known addresses, and retry shortly rather than on every connect
+            expires = System.currentTimeMillis() + Math.min(ttlMillis, FAILED_LOOKUP_RETRY_MILLIS);
+        }
+
+        return addresses;
+    }
+
+    /**
+     * Resolves all addresses of a host name.
+     *
+     * @param host host name
+     * @return addresses
+     * @throws UnknownHostException if the host could not be resolved
+     */
+    protected InetAddress[] lookup(String host) throws UnknownHostException {
+        return InetAddress.getAllByName(host);
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    public void close() {
+        if (scheduler != null) {
+            refresh.cancel(false);
+            scheduler.shutdown();
+        }
+    }
+}
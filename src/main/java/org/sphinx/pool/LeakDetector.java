@@ -0,0 +1,78 @@
+package org.sphinx.pool;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reports pooled clients that are held longer than a threshold, with the stack trace of the code that
+ * borrowed them.
+ *
+ * Outstanding clients are checked whenever another client is borrowed, so a client that is never closed
+ * is still reported once the pool is in use. Clients held past the threshold that are eventually closed
+ * are reported on close. Each client is reported at most once per borrow.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+class LeakDetector {
+
+    private static final Logger LOG = Logger.getLogger(PooledSphinxDataSource.class.getName());
+
+    private final long thresholdNanos;
+    private final Set<SphinxClientProxy> borrowed = Collections.newSetFromMap(new ConcurrentHashMap<SphinxClientProxy, Boolean>());
+
+
+    LeakDetector(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Records the borrow site of a client, and reports any other outstanding clients held past the threshold.
+     */
+    void borrowed(SphinxClientProxy proxy) {
+        long now = System.nanoTime();
+        proxy.track(this, now, new Throwable("Sphinx client borrowed here"));
+
+        for (SphinxClientProxy outstanding : borrowed) {
+            check(outstanding, now, "has not been returned to the pool");
+        }
+        borrowed.add(proxy);
+    }
+
+    /**
+     * Reports a client being returned to the pool after being held past the threshold.
+     */
+    void returned(SphinxClientProxy proxy) {
+        borrowed.remove(proxy);
+        check(proxy, System.nanoTime(), "was returned to the pool");
+    }
+
+    /**
+     * Returns the number of outstanding clients held past the threshold.
+     */
+    int getLeakedCount() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (SphinxClientProxy outstanding : borrowed) {
+            if (now - outstanding.getBorrowedAt() > thresholdNanos) count++;
+        }
+        return count;
+    }
+
+    private void check(SphinxClientProxy proxy, long now, String state) {
+        long held = now - proxy.getBorrowedAt();
+        if (held > thresholdNanos && proxy.markReported()) {
+            LOG.log(Level.WARNING, "Sphinx client " + state + " after " + TimeUnit.NANOSECONDS.toMillis(held)
+                    + " ms, exceeding the leak detection threshold of " + getThresholdMillis() + " ms",
+                    proxy.getBorrowSite());
+        }
+    }
+}
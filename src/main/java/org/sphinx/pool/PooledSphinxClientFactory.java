@@ -5,6 +5,7 @@ import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.sphinx.api.SphinxClient;
+import org.sphinx.config.BasicPooledDataSourceConfig;
 
 import java.io.InvalidObjectException;
 
@@ -18,6 +19,11 @@ public class PooledSphinxClientFactory extends BasePooledObjectFactory<SphinxCli
 
     private String host;
     private int port;
+    private boolean tcpNoDelay = true;
+    private boolean keepAlive = false;
+    private int sendBufferSize = 0;
+    private int receiveBufferSize = 0;
+    private EndpointResolver resolver;
 
 
     public PooledSphinxClientFactory() {
@@ -28,6 +34,15 @@ public class PooledSphinxClientFactory extends BasePooledObjectFactory<SphinxCli
         this.port = port;
     }
 
+    public PooledSphinxClientFactory(BasicPooledDataSourceConfig config) {
+        this.host = config.getHost();
+        this.port = config.getPort();
+        this.tcpNoDelay = config.getTcpNoDelay();
+        this.keepAlive = config.getKeepAlive();
+        this.sendBufferSize = config.getSendBufferSize();
+        this.receiveBufferSize = config.getReceiveBufferSize();
+    }
+
 
     /**
      * Returns the sphinx host URL.
@@ -62,14 +77,97 @@ public class PooledSphinxClientFactory extends BasePooledObjectFactory<SphinxCli
     }
 
     /**
-     * Creates a new instance of {@link SphinxClient} with the configured host and port.
+     * Returns true if Nagle's algorithm is disabled on client connections.
+     * @return TCP_NODELAY socket option
+     */
+    public boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Sets whether Nagle's algorithm is disabled on client connections.
+     * @param tcpNoDelay TCP_NODELAY socket option
+     */
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    /**
+     * Returns true if TCP keepalive is enabled on client connections.
+     * @return SO_KEEPALIVE socket option
+     */
+    public boolean getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets whether TCP keepalive is enabled on client connections.
+     * @param keepAlive SO_KEEPALIVE socket option
+     */
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Returns the socket send buffer size, 0 for the system default.
+     * @return SO_SNDBUF socket option
+     */
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * Sets the socket send buffer size, 0 for the system default.
+     * @param sendBufferSize SO_SNDBUF socket option
+     */
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    /**
+     * Returns the socket receive buffer size, 0 for the system default.
+     * @return SO_RCVBUF socket option
+     */
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * Sets the socket receive buffer size, 0 for the system default.
+     * @param receiveBufferSize SO_RCVBUF socket option
+     */
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    /**
+     * Returns the resolver used to look up the sphinx host address, or null if clients resolve the host themselves.
+     * @return endpoint resolver
+     */
+    public EndpointResolver getEndpointResolver() {
+        return resolver;
+    }
+
+    /**
+     * Sets the resolver used to look up the sphinx host address when clients connect. When set, the
+     * configured host and port are ignored in favour of the resolved addresses.
+     * @param resolver endpoint resolver, null to resolve the configured host on every connect
+     */
+    public void setEndpointResolver(EndpointResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Creates a new instance of {@link SphinxClient} with the configured host, port and socket options.
      *
      * @return new instance of the sphinx client
      * @throws Exception
      */
     @Override
     public SphinxClient create() throws Exception {
-        return StringUtils.isNullOrEmpty(host) ? new SphinxClient() : new SphinxClient(host, port);
+        SphinxClient client = StringUtils.isNullOrEmpty(host) ? new SphinxClient() : new SphinxClient(host, port);
+        client.SetSocketOptions(tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
+        return client;
     }
 
     /**
@@ -84,7 +182,7 @@ public class PooledSphinxClientFactory extends BasePooledObjectFactory<SphinxCli
     }
 
     /**
-     * Closes an open sphinx socket connection so that the pooled client
+     * Closes an open sphinx socket connection and resets the query settings so that the pooled client
      * can be safely returned to the pool.
      *
      * @param p pooled object
@@ -107,17 +205,24 @@ public class PooledSphinxClientFactory extends BasePooledObjectFactory<SphinxCli
 
             throw new InvalidObjectException("Could not close client, object is invalid and cannot be passivated.");
         }
+
+        // don't leak query settings, pending queries or errors to the next borrower
+        sphinxClient.ResetQuery();
     }
 
     /**
      * Restores a pooled client and establishes an open socket connection
-     * so that the client can be used.
+     * so that the client can be used. If an endpoint resolver is set, the client
+     * connects to the next resolved address.
      *
      * @param p pooled object
      * @throws Exception
      */
     @Override
     public void activateObject(PooledObject<SphinxClient> p) throws Exception {
+        if (resolver != null) {
+            p.getObject().SetServer(resolver.resolve());
+        }
         p.getObject().Open();
     }
 
@@ -2,8 +2,14 @@ package org.sphinx.pool;
 
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.sphinx.api.Facet;
+import org.sphinx.api.FacetQuery;
 import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SearchResponse;
 import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxResult;
 import org.sphinx.config.BasicPooledDataSourceConfig;
 
 /**
@@ -12,7 +18,8 @@ import org.sphinx.config.BasicPooledDataSourceConfig;
  * This data source maintains an thread-safe {@link org.apache.commons.pool2.ObjectPool} of
  * sphinx clients. Socket connections are formally established when a sphinx client is borrowed from
  * the pool and closed upon return. Care should be taken to call {@link ISphinxClient#Close()} when
- * the connection is no longer in use, to return the client to the pool.
+ * the connection is no longer in use, to return the client to the pool. Alternatively use
+ * {@link #withClient(SphinxClientCallback)}, which always returns the client, or a try-with-resources block.
  *
  * Best practice is to attempt to establish an pool where the number of active sphinx clients (concurrent
  * connections) does not exceed the <code>max_children</code> Sphinx configuration setting. This ensures
@@ -28,6 +35,7 @@ import org.sphinx.config.BasicPooledDataSourceConfig;
 public class PooledSphinxDataSource {
 
     private GenericObjectPool<SphinxClient> pool;
+    private volatile LeakDetector leakDetector;
 
 
     public PooledSphinxDataSource() {
@@ -39,7 +47,7 @@ public class PooledSphinxDataSource {
     }
 
     public PooledSphinxDataSource(BasicPooledDataSourceConfig config) {
-        this(new PooledSphinxClientFactory(config.getHost(), config.getPort()), config);
+        this(new PooledSphinxClientFactory(config), config);
     }
 
     public PooledSphinxDataSource(BasePooledObjectFactory<SphinxClient> factory) {
@@ -247,6 +255,60 @@ public class PooledSphinxDataSource {
         pool.clear();
     }
 
+    /**
+     * Returns the resolver used to look up the sphinx host address for new connections.
+     *
+     * @see PooledSphinxClientFactory#getEndpointResolver()
+     * @return endpoint resolver, null if not set
+     */
+    public EndpointResolver getEndpointResolver() {
+        return getFactory().getEndpointResolver();
+    }
+
+    /**
+     * Sets the resolver used to look up the sphinx host address for new connections. Resolved addresses
+     * are cached by the resolver, and connections are spread across all addresses of the host.
+     *
+     * @see PooledSphinxClientFactory#setEndpointResolver(EndpointResolver)
+     * @param resolver endpoint resolver, null to resolve the configured host on every connect
+     */
+    public void setEndpointResolver(EndpointResolver resolver) {
+        getFactory().setEndpointResolver(resolver);
+    }
+
+    /**
+     * Returns the time in milliseconds a client may be held before it is reported as a possible leak.
+     *
+     * @return leak detection threshold in milliseconds, 0 if leak detection is disabled
+     */
+    public long getLeakDetectionThreshold() {
+        LeakDetector detector = leakDetector;
+        return detector == null ? 0 : detector.getThresholdMillis();
+    }
+
+    /**
+     * Sets the time in milliseconds a client may be held before it is reported as a possible leak. When enabled,
+     * the stack trace of every borrow is recorded, and clients held past the threshold are logged as a warning
+     * together with the stack trace of the code that borrowed them. Recording the borrow site has a cost, leak
+     * detection is best enabled while tracking down a leak rather than permanently.
+     *
+     * @param thresholdMillis leak detection threshold in milliseconds, 0 to disable leak detection
+     */
+    public void setLeakDetectionThreshold(long thresholdMillis) {
+        if (thresholdMillis < 0) throw new IllegalArgumentException("thresholdMillis must not be negative");
+        this.leakDetector = thresholdMillis == 0 ? null : new LeakDetector(thresholdMillis);
+    }
+
+    /**
+     * Returns the number of borrowed clients held past the leak detection threshold.
+     *
+     * @return number of possibly leaked clients, 0 if leak detection is disabled
+     */
+    public int getNumLeaked() {
+        LeakDetector detector = leakDetector;
+        return detector == null ? 0 : detector.getLeakedCount();
+    }
+
     /**
      * Returns the object factory backing the pool.
      *
@@ -284,10 +346,167 @@ public class PooledSphinxDataSource {
      * @return sphinx client
      */
     public ISphinxClient getSphinxClient() {
+        SphinxClientProxy proxy = new SphinxClientProxy(borrow(), pool);
+        track(proxy);
+        return proxy;
+    }
+
+    /**
+     * Runs a callback with a pooled client. The client is always returned to the pool when the callback
+     * completes, whether it returns normally or throws an exception. Query settings made by the callback
+     * are reset when the client is returned, and do not leak into the next borrower.
+     *
+     * Each call hands the callback its own proxy, proxies are deliberately not reused. A reused proxy is the
+     * same object before and after it is handed to the next borrower, so no stamp kept on it can tell a
+     * reference that escaped an earlier callback apart from the current one. A fresh proxy is a small
+     * allocation next to the pool round trip, and one that escapes the callback is closed for good, and
+     * cannot be used to reach the connection of the next borrower.
+     *
+     * @param callback callback to run
+     * @param <T> callback result type
+     * @return result of the callback
+     * @throws SphinxException if thrown by the callback
+     */
+    public <T> T withClient(SphinxClientCallback<T> callback) throws SphinxException {
+        SphinxClientProxy proxy = new SphinxClientProxy(borrow(), pool);
+        track(proxy);
         try {
-            return new SphinxClientProxy(pool.borrowObject(), pool);
+            return callback.doWithClient(proxy);
+        } finally {
+            proxy.Close();
+        }
+    }
+
+    private SphinxClient borrow() {
+        try {
+            return pool.borrowObject();
         } catch (Exception e) {
             throw new RuntimeException("Unable to retrieve sphinx client from the pool", e);
         }
     }
+
+    private void track(SphinxClientProxy proxy) {
+        LeakDetector detector = leakDetector;
+        if (detector != null) {
+            detector.borrowed(proxy);
+        }
+    }
+
+    /**
+     * Runs a search request on a pooled client. The client is only borrowed for the network exchange,
+     * it is returned to the pool as soon as the response has been read and before the results are decoded.
+     *
+     * @param request search request
+     * @return search result
+     * @throws SphinxException if the query failed
+     */
+    public SphinxResult execute(SearchRequest request) throws SphinxException {
+        SphinxResult result = execute(new SearchRequest[] { request })[0];
+        if (result.getStatus() == SphinxClient.SEARCHD_ERROR) {
+            throw new SphinxException(result.error);
+        }
+        return result;
+    }
+
+    /**
+     * Runs search requests as a single multi-query on a pooled client. The client is only borrowed for
+     * the network exchange, it is returned to the pool as soon as the response has been read and before
+     * the results are decoded.
+     *
+     * Results are returned in the order of the requests. Failed queries are reported through the status
+     * and error message of their result, as with {@link ISphinxClient#RunQueries()}.
+     *
+     * @param requests search requests
+     * @return search results
+     * @throws SphinxException if the multi-query could not be sent or the response could not be read
+     */
+    public SphinxResult[] execute(SearchRequest... requests) throws SphinxException {
+        return fetch(requests).decode();
+    }
+
+    /**
+     * Runs a facet query on a pooled client. The client is returned to the pool before the facets are decoded.
+     *
+     * @param query facet query
+     * @return facets, in the order of the facet attributes
+     * @throws SphinxException if the query failed
+     */
+    public Facet[] execute(FacetQuery query) throws SphinxException {
+        return query.decode(fetch(query.getRequests()));
+    }
+
+    /**
+     * Iterates over all matches of a search request in document id order, fetching the matches a page at a
+     * time by id range and prefetching the next page while the current one is consumed.
+     *
+     * @see ScrollIterator
+     *
+     * @param request search request, the limits and sorting are replaced
+     * @param pageSize number of matches per page
+     * @return match iterator, to be closed if abandoned before the end
+     */
+    public ScrollIterator scroll(SearchRequest request, int pageSize) {
+        return new ScrollIterator(this, request, pageSize);
+    }
+
+    /**
+     * Runs search requests as a single multi-query on a pooled client, returning the undecoded response.
+     * The client is returned to the pool before this method returns.
+     *
+     * @param requests search requests
+     * @return undecoded response
+     * @throws SphinxException if the multi-query could not be sent or the response could not be read
+     */
+    public SearchResponse fetch(SearchRequest... requests) throws SphinxException {
+        SphinxClient client = borrow();
+        try {
+            SearchResponse response = client.FetchResults(requests);
+            if (response == null) {
+                throw new SphinxException(client.GetLastError());
+            }
+            return response;
+
+        } finally {
+            pool.returnObject(client);
+        }
+    }
+
+    /**
+     * Runs search requests as a single multi-query on a pooled client, like {@link #fetch(SearchRequest...)},
+     * unless aborted through the given handle. A query aborted while in flight fails, and its client is
+     * destroyed rather than returned to the pool.
+     *
+     * @param handle handle to abort the query with
+     * @param requests search requests
+     * @return undecoded response
+     * @throws SphinxException if the query was aborted, or the multi-query failed
+     */
+    public SearchResponse fetch(AbortHandle handle, SearchRequest... requests) throws SphinxException {
+        if (handle.isAborted()) throw new SphinxException("query aborted");
+
+        SphinxClient client = borrow();
+        try {
+            if (!handle.attach(client)) throw new SphinxException("query aborted");
+
+            SearchResponse response = client.FetchResults(requests);
+            if (handle.isAborted()) throw new SphinxException("query aborted");
+            if (response == null) throw new SphinxException(client.GetLastError());
+            return response;
+
+        } finally {
+            if (handle.detach()) {
+                pool.returnObject(client);
+            } else {
+                invalidate(client);
+            }
+        }
+    }
+
+    private void invalidate(SphinxClient client) {
+        try {
+            pool.invalidateObject(client);
+        } catch (Exception e) {
+            // the client has been removed from the pool, failing to close its connection is harmless
+        }
+    }
 }
@@ -0,0 +1,165 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Iterates over all matches of a search request in ascending document id order, one page at a time.
+ *
+ * Pages are fetched by id rather than by offset: each page is queried with an id range starting after the
+ * last document id of the previous page, so searchd never ranks and discards the matches before the
+ * current page, however deep the iteration goes. The next page is prefetched on a pooled connection as
+ * soon as the current page arrives, while the caller consumes the current page. At most two pages are
+ * held in memory at any time.
+ *
+ * The limits and sorting of the request are replaced, the id range of the request bounds the iteration.
+ * Iterators are not thread safe, and should be closed when abandoned before the end to cancel the prefetch.
+ *
+ * <code>
+ *      ScrollIterator matches = dataSource.scroll(SearchRequest.builder().index("products").build(), 1000);
+ *      try {
+ *          while (matches.hasNext()) {
+ *              SphinxMatch match = matches.next();
+ *          }
+ *      } finally {
+ *          matches.close();
+ *      }
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class ScrollIterator implements Iterator<SphinxMatch>, AutoCloseable {
+
+    private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sphinx-scroll-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final PooledSphinxDataSource dataSource;
+    private final SearchRequest template;
+    private final int pageSize;
+    private final long minId;
+    private final long maxId;
+
+    private boolean started;
+    private Future<SphinxResult> next;
+    private SphinxMatch[] page;
+    private int index;
+    private int totalFound = -1;
+    private boolean closed;
+
+
+    /**
+     * Creates an iterator. The first page is fetched on the first call to {@link #hasNext()}.
+     *
+     * @param dataSource data source to query
+     * @param request search request, the limits and sorting are replaced
+     * @param pageSize number of matches per page
+     */
+    public ScrollIterator(PooledSphinxDataSource dataSource, SearchRequest request, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be positive");
+
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.minId = request.getMinId();
+        this.maxId = request.getMaxId();
+        this.template = request.toBuilder()
+                .limits(0, pageSize, Math.max(request.getMaxMatches(), pageSize), request.getCutoff())
+                .sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc")
+                .build();
+    }
+
+    /**
+     * Returns the total number of matches found by the query, once the first page has been fetched.
+     *
+     * @return total matches found, -1 if the first page has not been fetched yet
+     */
+    public int getTotalFound() {
+        return totalFound;
+    }
+
+    public boolean hasNext() {
+        if (!started && !closed) {
+            started = true;
+            next = prefetch(minId);
+        }
+
+        while (!closed && (page == null || index >= page.length)) {
+            if (next == null) return false;
+
+            SphinxResult result = await(next);
+            next = null;
+
+            page = result.matches;
+            index = 0;
+            if (totalFound < 0) totalFound = result.totalFound;
+
+            // a full page may be followed by more matches, fetch them while this page is consumed
+            if (page.length == pageSize) {
+                long last = page[page.length - 1].docId;
+                if (last != Long.MAX_VALUE && (maxId == 0 || last < maxId)) {
+                    next = prefetch(last + 1);
+                }
+            }
+        }
+        return !closed;
+    }
+
+    public SphinxMatch next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return page[index++];
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * Stops the iteration and cancels the prefetch of the next page.
+     */
+    public void close() {
+        closed = true;
+        page = null;
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    private Future<SphinxResult> prefetch(long minId) {
+        final SearchRequest request = template.toBuilder().idRange(minId, maxId).build();
+        return PREFETCH.submit(new Callable<SphinxResult>() {
+            public SphinxResult call() throws Exception {
+                return dataSource.execute(request);
+            }
+        });
+    }
+
+    private SphinxResult await(Future<SphinxResult> future) {
+        try {
+            return future.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching the next page of matches", e);
+
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to fetch the next page of matches", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.MatchBatch;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive streams publisher of the matches of a search request, paging through the matches in document
+ * id order as the subscriber requests them.
+ *
+ * Pages are only fetched while the subscriber has outstanding demand, so backpressure reaches searchd:
+ * a slow subscriber holds no connection and causes no queries. Each page is fetched by id range after the
+ * last document id of the previous page, and a pooled connection is only held while a page query is in
+ * flight. Cancelling the subscription stops any further page queries.
+ *
+ * {@link #matches(PooledSphinxDataSource, SearchRequest, int)} publishes single matches, and
+ * {@link #batches(PooledSphinxDataSource, SearchRequest, int)} publishes each page as a columnar
+ * {@link MatchBatch}, where one unit of demand is a whole page.
+ *
+ * <code>
+ *      SearchPublisher.matches(dataSource, SearchRequest.builder().index("products").build(), 1000)
+ *              .subscribe(subscriber);
+ * </code>
+ *
+ * Every subscriber gets its own iteration over the matches.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public abstract class SearchPublisher<T> implements Flow.Publisher<T> {
+
+    private static final ExecutorService FETCH = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sphinx-publisher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final PooledSphinxDataSource dataSource;
+    private final SearchRequest template;
+    private final int pageSize;
+    private final long minId;
+    private final long maxId;
+    private final Executor executor;
+
+
+    /**
+     * @param dataSource data source to query
+     * @param request search request, the limits and sorting are replaced
+     * @param pageSize number of matches per page
+     * @param executor executor running the page queries
+     */
+    protected SearchPublisher(PooledSphinxDataSource dataSource, SearchRequest request, int pageSize, Executor executor) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be positive");
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.minId = request.getMinId();
+        this.maxId = request.getMaxId();
+        this.executor = executor;
+        this.template = request.toBuilder()
+                .limits(0, pageSize, Math.max(request.getMaxMatches(), pageSize), request.getCutoff())
+                .sortMode(SphinxClient.SPH_SORT_EXTENDED, "@id asc")
+                .build();
+    }
+
+    /**
+     * Returns a publisher of the single matches of a search request.
+     *
+     * @param dataSource data source to query
+     * @param request search request, the limits and sorting are replaced
+     * @param pageSize maximum number of matches per page query
+     * @return match publisher
+     */
+    public static SearchPublisher<SphinxMatch> matches(PooledSphinxDataSource dataSource, SearchRequest request, int pageSize) {
+        return new SearchPublisher<SphinxMatch>(dataSource, request, pageSize, FETCH) {
+            @Override
+            protected Object[] items(SphinxResult result) {
+                return result.matches;
+            }
+        };
+    }
+
+    /**
+     * Returns a publisher of the pages of matches of a search request, each page as a columnar batch.
+     *
+     * @param dataSource data source to query
+     * @param request search request, the limits and sorting are replaced
+     * @param pageSize number of matches per batch
+     * @return batch publisher
+     */
+    public static SearchPublisher<MatchBatch> batches(PooledSphinxDataSource dataSource, SearchRequest request, int pageSize) {
+        return new SearchPublisher<MatchBatch>(dataSource, request, pageSize, FETCH) {
+            @Override
+            protected Object[] items(SphinxResult result) {
+                return result.matches.length == 0 ? new Object[0] : new Object[] { MatchBatch.of(result) };
+            }
+        };
+    }
+
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        PageSubscription subscription = new PageSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Converts a page of matches to the items published to subscribers.
+     *
+     * @param result page of matches
+     * @return items to publish
+     */
+    protected abstract Object[] items(SphinxResult result);
+
+
+    /**
+     * Subscription paging through the matches. Signals to the subscriber are serialized by the drain loop,
+     * which runs on the thread requesting items or on the thread completing a page query.
+     */
+    private final class PageSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Object[] fetched;
+        private volatile Throwable error;
+
+        // owned by the drain loop
+        private Object[] items;
+        private int index;
+        private boolean fetching;
+        private boolean last;
+        private long cursor = minId;
+        private boolean done;
+
+        private PageSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive subscription request: " + n);
+            } else {
+                long current;
+                do {
+                    current = requested.get();
+                    if (current == Long.MAX_VALUE) break;
+                } while (!requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            }
+            drain();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Fetches the next page, on the executor.
+         */
+        public void run() {
+            try {
+                if (!cancelled) {
+                    SphinxResult result = dataSource.execute(template.toBuilder().idRange(cursor, maxId).build());
+
+                    SphinxMatch[] matches = result.matches;
+                    long lastId = matches.length > 0 ? matches[matches.length - 1].docId : 0;
+                    last = matches.length < pageSize || lastId == Long.MAX_VALUE || (maxId != 0 && lastId >= maxId);
+                    cursor = lastId + 1;
+                    fetched = items(result);
+                }
+            } catch (Throwable t) {
+                error = t;
+            }
+            drain();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+
+            do {
+                if (cancelled || done) {
+                    items = null;
+                    fetched = null;
+                    continue;
+                }
+
+                Object[] page = fetched;
+                if (page != null) {
+                    fetched = null;
+                    fetching = false;
+                    items = page;
+                    index = 0;
+                }
+
+                // emit buffered items while there is demand
+                while (items != null && index < items.length && requested.get() > 0 && !cancelled) {
+                    Object item = items[index];
+                    items[index++] = null;
+                    if (requested.get() != Long.MAX_VALUE) requested.decrementAndGet();
+                    subscriber.onNext((T) item);
+                }
+
+                if (cancelled) continue;
+
+                Throwable failure = error;
+                if (failure != null) {
+                    done = true;
+                    subscriber.onError(failure);
+
+                } else if (items == null || index >= items.length) {
+                    if (last && !fetching) {
+                        done = true;
+                        subscriber.onComplete();
+
+                    } else if (!fetching && requested.get() > 0) {
+                        // page exhausted with outstanding demand, fetch the next page
+                        fetching = true;
+                        items = null;
+                        executor.execute(this);
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.api.SphinxResultMerger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source for an index sharded across several searchd nodes, each with its own connection pool.
+ *
+ * Search requests are sent to all shards in parallel and the shard results merged on client side, see
+ * {@link SphinxResultMerger}. Each shard is asked for the first <code>offset + limit</code> matches so
+ * that the merged result holds the correct page of matches. Shard results are decoded on the shard
+ * threads, after the connection has been returned to the shard pool.
+ *
+ * Shards that fail or do not respond within the timeout are left out of the merged result, which then
+ * carries a warning naming the failed shards. A request only fails if no shard returned a result.
+ *
+ * <code>
+ *      ShardedSphinxDataSource sharded = new ShardedSphinxDataSource(Arrays.asList(
+ *              new PooledSphinxDataSource("sphinx-1", 9312),
+ *              new PooledSphinxDataSource("sphinx-2", 9312)));
+ *      sharded.setTimeoutMillis(500);
+ *
+ *      SphinxResult result = sharded.execute(SearchRequest.builder().query("hello world").index("products").build());
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class ShardedSphinxDataSource {
+
+    public static final long DEFAULT_TIMEOUT = 5000;
+
+    private final List<PooledSphinxDataSource> shards;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT;
+
+
+    /**
+     * Creates a sharded data source querying shards on its own thread pool.
+     *
+     * @param shards data sources of the shards
+     */
+    public ShardedSphinxDataSource(List<PooledSphinxDataSource> shards) {
+        this(shards, Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-shard-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), true);
+    }
+
+    /**
+     * Creates a sharded data source querying shards on the given executor. The executor is not shut
+     * down when the data source is closed.
+     *
+     * @param shards data sources of the shards
+     * @param executor executor to query the shards on
+     */
+    public ShardedSphinxDataSource(List<PooledSphinxDataSource> shards, ExecutorService executor) {
+        this(shards, executor, false);
+    }
+
+    private ShardedSphinxDataSource(List<PooledSphinxDataSource> shards, ExecutorService executor, boolean ownsExecutor) {
+        if (shards == null || shards.isEmpty()) throw new IllegalArgumentException("at least one shard is required");
+
+        this.shards = Collections.unmodifiableList(new ArrayList<PooledSphinxDataSource>(shards));
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+
+    public List<PooledSphinxDataSource> getShards() {
+        return shards;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for all shards to respond. Shards that have not responded
+     * by then are left out of the result.
+     *
+     * @param timeoutMillis timeout in milliseconds, 0 to wait indefinitely
+     */
+    public void setTimeoutMillis(long timeoutMillis) {
+        if (timeoutMillis < 0) throw new IllegalArgumentException("timeoutMillis must not be negative");
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs a search request against all shards and merges the results.
+     *
+     * @param request search request
+     * @return merged search result
+     * @throws SphinxException if no shard returned a result
+     */
+    public SphinxResult execute(SearchRequest request) throws SphinxException {
+        SphinxResult result = execute(new SearchRequest[] { request })[0];
+        if (result.getStatus() == SphinxClient.SEARCHD_ERROR) {
+            throw new SphinxException(result.error);
+        }
+        return result;
+    }
+
+    /**
+     * Runs search requests as a single multi-query against each shard, and merges the results of each
+     * request. Results are returned in the order of the requests, requests that failed on every shard
+     * are reported through the status and error message of their result.
+     *
+     * @param requests search requests
+     * @return merged search results
+     */
+    public SphinxResult[] execute(SearchRequest... requests) {
+        // every shard must return enough matches to fill the requested page
+        final SearchRequest[] shardRequests = new SearchRequest[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            SearchRequest request = requests[i];
+            int window = (int) Math.min(Integer.MAX_VALUE, (long) request.getOffset() + request.getLimit());
+            shardRequests[i] = request.toBuilder()
+                    .limits(0, window, Math.max(request.getMaxMatches(), window), request.getCutoff())
+                    .build();
+        }
+
+        List<Future<SphinxResult[]>> futures = new ArrayList<Future<SphinxResult[]>>(shards.size());
+        for (final PooledSphinxDataSource shard : shards) {
+            futures.add(executor.submit(new Callable<SphinxResult[]>() {
+                public SphinxResult[] call() throws Exception {
+                    return shard.execute(shardRequests);
+                }
+            }));
+        }
+
+        // gather shard results, giving up on shards that do not respond before the deadline
+        long timeout = timeoutMillis;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        List<SphinxResult[]> responses = new ArrayList<SphinxResult[]>(shards.size());
+        List<String> failures = new ArrayList<String>();
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<SphinxResult[]> future = futures.get(i);
+            try {
+                responses.add(timeout == 0
+                        ? future.get()
+                        : future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                failures.add("shard " + i + " timed out after " + timeout + " ms");
+
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failures.add("shard " + i + ": " + cause.getMessage());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                failures.add("shard " + i + ": interrupted");
+            }
+        }
+
+        SphinxResult[] merged = new SphinxResult[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            List<SphinxResult> results = new ArrayList<SphinxResult>(responses.size());
+            for (SphinxResult[] response : responses) {
+                results.add(response[i]);
+            }
+            merged[i] = SphinxResultMerger.merge(requests[i], results, failures);
+        }
+        return merged;
+    }
+
+    /**
+     * Shuts down the shard thread pool, unless an executor was provided. The shard data sources are not closed.
+     */
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxException;
+
+/**
+ * Callback for working with a pooled sphinx client, see {@link PooledSphinxDataSource#withClient(SphinxClientCallback)}.
+ *
+ * The client is only valid for the duration of the callback, it is returned to the pool as soon as the
+ * callback completes and must not be retained or closed by the callback.
+ *
+ * <code>
+ *      SphinxResult result = dataSource.withClient(new SphinxClientCallback&lt;SphinxResult&gt;() {
+ *          public SphinxResult doWithClient(ISphinxClient client) throws SphinxException {
+ *              client.SetLimits(0, 50);
+ *              return client.Query("hello world", "products");
+ *          }
+ *      });
+ * </code>
+ *
+ * @param <T> callback result type
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public interface SphinxClientCallback<T> {
+
+    /**
+     * Works with a pooled client.
+     *
+     * @param client pooled client, valid until the callback returns
+     * @return callback result
+     * @throws SphinxException if an invalid argument was passed to the client
+     */
+    T doWithClient(ISphinxClient client) throws SphinxException;
+}
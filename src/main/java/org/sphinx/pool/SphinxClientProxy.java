@@ -1,12 +1,18 @@
 package org.sphinx.pool;
 
 import org.apache.commons.pool2.ObjectPool;
+import org.sphinx.api.ExcerptOptions;
 import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SearchResponse;
 import org.sphinx.api.SphinxClient;
 import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxKeyword;
 import org.sphinx.api.SphinxResult;
 
+import java.net.InetSocketAddress;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A proxy object for pooled {@link SphinxClient} instances.
@@ -17,7 +23,8 @@ import java.util.Map;
  *
  * Note that depending on the data source configuration, abandoned clients may not always be reclaimed
  * by the pool. Calling {@link #Close()} will ensure that resources held by this client are properly
- * disposed of and that the client is immediately returned to the pool.
+ * disposed of and that the client is immediately returned to the pool. Proxies are {@link AutoCloseable},
+ * so the client can be managed with a try-with-resources block.
  *
  * @see PooledSphinxDataSource#getSphinxClient()
  *
@@ -29,12 +36,46 @@ public class SphinxClientProxy implements ISphinxClient {
     private SphinxClient delegate;
     private final ObjectPool<SphinxClient> pool;
 
+    // leak detection, only set when tracked by a leak detector
+    private LeakDetector detector;
+    private long borrowedAt;
+    private Throwable borrowSite;
+    private final AtomicBoolean reported = new AtomicBoolean();
+
 
     SphinxClientProxy(SphinxClient delegate, ObjectPool<SphinxClient> pool) {
         this.delegate = delegate;
         this.pool = pool;
     }
 
+    /**
+     * Returns true if the client has been closed and returned to the pool.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return delegate == null;
+    }
+
+    void track(LeakDetector detector, long borrowedAt, Throwable borrowSite) {
+        this.detector = detector;
+        this.borrowedAt = borrowedAt;
+        this.borrowSite = borrowSite;
+        this.reported.set(false);
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable getBorrowSite() {
+        return borrowSite;
+    }
+
+    boolean markReported() {
+        return reported.compareAndSet(false, true);
+    }
+
     /**
      * Returns the underlying sphinx client instance wrapped by this proxy instance. This method will
      * throw an exception if the client has been closed and returned to the pool.
@@ -63,10 +104,26 @@ public class SphinxClientProxy implements ISphinxClient {
         getDelegate().SetServer(host, port);
     }
 
+    public void SetServer(InetSocketAddress address) throws SphinxException {
+        getDelegate().SetServer(address);
+    }
+
     public void SetConnectTimeout(int timeout) {
         getDelegate().SetConnectTimeout(timeout);
     }
 
+    public void SetMaxBufferSize(int size) throws SphinxException {
+        getDelegate().SetMaxBufferSize(size);
+    }
+
+    public void SetParallelDecode(boolean enabled) {
+        getDelegate().SetParallelDecode(enabled);
+    }
+
+    public void SetSocketOptions(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize) throws SphinxException {
+        getDelegate().SetSocketOptions(tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize);
+    }
+
     public void SetLimits(int offset, int limit, int max, int cutoff) throws SphinxException {
         getDelegate().SetLimits(offset, limit, max, cutoff);
     }
@@ -183,6 +240,10 @@ public class SphinxClientProxy implements ISphinxClient {
         getDelegate().ResetOverrides();
     }
 
+    public void ResetQuery() {
+        getDelegate().ResetQuery();
+    }
+
     public SphinxResult Query(String query) throws SphinxException {
         return getDelegate().Query(query);
     }
@@ -203,10 +264,30 @@ public class SphinxClientProxy implements ISphinxClient {
         return getDelegate().RunQueries();
     }
 
+    public SphinxResult Query(SearchRequest request) throws SphinxException {
+        return getDelegate().Query(request);
+    }
+
+    public int AddQuery(SearchRequest request) throws SphinxException {
+        return getDelegate().AddQuery(request);
+    }
+
+    public SphinxResult[] RunQueries(SearchRequest... requests) throws SphinxException {
+        return getDelegate().RunQueries(requests);
+    }
+
+    public SearchResponse FetchResults(SearchRequest... requests) throws SphinxException {
+        return getDelegate().FetchResults(requests);
+    }
+
     public String[] BuildExcerpts(String[] docs, String index, String words, Map opts) throws SphinxException {
         return getDelegate().BuildExcerpts(docs, index, words, opts);
     }
 
+    public String[] BuildExcerpts(String[] docs, String index, String words, ExcerptOptions opts) throws SphinxException {
+        return getDelegate().BuildExcerpts(docs, index, words, opts);
+    }
+
     public int UpdateAttributes(String index, String[] attrs, long[][] values, boolean ignorenonexistent) throws SphinxException {
         return getDelegate().UpdateAttributes(index, attrs, values, ignorenonexistent);
     }
@@ -223,10 +304,22 @@ public class SphinxClientProxy implements ISphinxClient {
         return getDelegate().UpdateAttributesMVA(index, docid, attrs, values);
     }
 
+    public int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values, boolean ignorenonexistent, int maxPacketSize) throws SphinxException {
+        return getDelegate().UpdateAttributesMVA(index, attrs, docids, values, ignorenonexistent, maxPacketSize);
+    }
+
+    public int UpdateAttributesMVA(String index, String[] attrs, long[] docids, int[][][] values) throws SphinxException {
+        return getDelegate().UpdateAttributesMVA(index, attrs, docids, values);
+    }
+
     public Map[] BuildKeywords(String query, String index, boolean hits) throws SphinxException {
         return getDelegate().BuildKeywords(query, index, hits);
     }
 
+    public SphinxKeyword[] BuildKeywordList(String query, String index, boolean hits) throws SphinxException {
+        return getDelegate().BuildKeywordList(query, index, hits);
+    }
+
     public int FlushAttributes() throws SphinxException {
         return getDelegate().FlushAttributes();
     }
@@ -235,12 +328,19 @@ public class SphinxClientProxy implements ISphinxClient {
      * Return the client to the pool and close the socket connection. Once the client has been
      * closed you must retrieve a new instance from the pool.
      *
-     * @return always returns true.
+     * @return true if the client was returned to the pool, false if already closed or the return failed.
      */
     public boolean Close() {
+        if (delegate == null) return false;
 
-        // the sphinx socket connection is closed on return by the
-        // PooledSphinxClientFactory#passivateObject() method
+        if (detector != null) {
+            detector.returned(this);
+            detector = null;
+            borrowSite = null;
+        }
+
+        // the sphinx socket connection is closed and the query settings reset
+        // on return by the PooledSphinxClientFactory#passivateObject() method
 
         try {
             pool.returnObject(delegate);
@@ -253,4 +353,11 @@ public class SphinxClientProxy implements ISphinxClient {
         delegate = null;
         return true;
     }
+
+    /**
+     * Return the client to the pool, same as {@link #Close()}. Closing an already closed client has no effect.
+     */
+    public void close() {
+        Close();
+    }
 }
@@ -0,0 +1,267 @@
+package org.sphinx.pool;
+
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs search-as-you-type queries, where only the latest query of each session matters.
+ *
+ * Queries are keyed by a session, such as a user's search box. When a new query is submitted for a session,
+ * any earlier query of the session that is still queued is skipped without being sent, and a query already
+ * in flight is abandoned: its connection is closed so searchd stops sending the reply, and the client is
+ * destroyed rather than returned to the pool. The futures of superseded queries are cancelled. The load on
+ * searchd follows the pauses in typing rather than the keystrokes.
+ *
+ * <code>
+ *      TypeaheadExecutor typeahead = new TypeaheadExecutor(dataSource, 8);
+ *      typeahead.submit(sessionId, SearchRequest.builder().query(prefix + "*").index("products").build())
+ *              .thenAccept(...);
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class TypeaheadExecutor {
+
+    private final PooledSphinxDataSource dataSource;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<String, Session>();
+    private volatile boolean abortInFlight = true;
+
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+
+
+    /**
+     * @param dataSource data source to query
+     * @param threads number of queries run at the same time, across all sessions
+     */
+    public TypeaheadExecutor(PooledSphinxDataSource dataSource, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+
+        this.dataSource = dataSource;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-typeahead-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+
+    public boolean getAbortInFlight() {
+        return abortInFlight;
+    }
+
+    /**
+     * Sets whether superseded queries already in flight are abandoned. Abandoning a query frees the searchd
+     * worker and the pooled connection right away, at the cost of opening a new connection in its place.
+     * When disabled, in-flight queries run to completion and only their results are discarded.
+     *
+     * The default value is "true".
+     *
+     * @param abortInFlight true to abandon superseded queries in flight
+     */
+    public void setAbortInFlight(boolean abortInFlight) {
+        this.abortInFlight = abortInFlight;
+    }
+
+    /**
+     * Submits a query for a session, superseding any earlier query of the session.
+     *
+     * @param session session key
+     * @param request search request
+     * @return future holding the search result, cancelled if superseded by a later query of the session
+     */
+    public CompletableFuture<SphinxResult> submit(String session, SearchRequest request) {
+        if (session == null) throw new IllegalArgumentException("session must not be null");
+        if (executor.isShutdown()) throw new IllegalStateException("Typeahead executor has been closed.");
+
+        final Task task = new Task(request);
+        while (true) {
+            final Session current = session(session);
+            synchronized (current) {
+                if (current.removed) continue;
+
+                supersede(current);
+                current.queued = task;
+            }
+
+            executor.execute(new Runnable() {
+                public void run() {
+                    runIfLatest(current, task);
+                }
+            });
+            return task.future;
+        }
+    }
+
+    /**
+     * Cancels the queued and in-flight queries of a session.
+     *
+     * @param session session key
+     */
+    public void cancel(String session) {
+        Session current = sessions.get(session);
+        if (current == null) return;
+
+        synchronized (current) {
+            supersede(current);
+            release(session, current);
+        }
+    }
+
+    private Session session(String key) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            Session created = new Session(key);
+            session = sessions.putIfAbsent(key, created);
+            if (session == null) session = created;
+        }
+        return session;
+    }
+
+    /**
+     * Cancels the queued query of a session, and abandons the query in flight. Called with the session lock held.
+     */
+    private void supersede(Session session) {
+        if (session.queued != null) {
+            session.queued.future.cancel(false);
+            session.queued = null;
+            skipped.incrementAndGet();
+        }
+
+        if (session.running != null && !session.running.future.isDone()) {
+            session.running.future.cancel(false);
+            if (abortInFlight) {
+                session.running.handle.abort();
+                aborted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes a session without queued or running queries. Called with the session lock held.
+     */
+    private void release(String key, Session session) {
+        if (session.queued == null && session.running == null) {
+            session.removed = true;
+            sessions.remove(key, session);
+        }
+    }
+
+    /**
+     * Runs a query, unless it has been superseded while queued. Runs on an executor thread.
+     */
+    private void runIfLatest(Session session, Task task) {
+        synchronized (session) {
+            if (session.queued != task) return;
+            session.queued = null;
+            session.running = task;
+        }
+
+        try {
+            SphinxResult result = dataSource.fetch(task.handle, task.request).decode(0);
+            if (result.getStatus() == SphinxClient.SEARCHD_ERROR) {
+                task.future.completeExceptionally(new SphinxException(result.error));
+            } else {
+                task.future.complete(result);
+            }
+
+        } catch (Exception e) {
+            task.future.completeExceptionally(e);
+
+        } finally {
+            synchronized (session) {
+                if (session.running == task) session.running = null;
+                release(session.key, session);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of superseded queries skipped before they were sent.
+     *
+     * @return number of skipped queries
+     */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    /**
+     * Returns the number of superseded queries abandoned while in flight.
+     *
+     * @return number of abandoned queries
+     */
+    public long getAbortedCount() {
+        return aborted.get();
+    }
+
+    /**
+     * Returns the number of sessions with a queued or running query.
+     *
+     * @return number of active sessions
+     */
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the executor, abandoning all queued and in-flight queries.
+     */
+    public void close() {
+        executor.shutdown();
+        for (String session : sessions.keySet()) {
+            cancel(session);
+        }
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Queued and in-flight query of a session.
+     */
+    private static final class Session {
+        private final String key;
+        private Task queued;
+        private Task running;
+        private boolean removed;
+
+        private Session(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Single query, with the future of its result and the handle to abandon it.
+     */
+    private static final class Task {
+        private final SearchRequest request;
+        private final AbortHandle handle = new AbortHandle();
+        private final CompletableFuture<SphinxResult> future = new CompletableFuture<SphinxResult>();
+
+        private Task(SearchRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package org.sphinx.update;
+
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.pool.PooledSphinxDataSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous, write-behind batching of attribute updates.
+ *
+ * Updates are buffered per index and attribute set, and written to searchd as a single
+ * {@link ISphinxClient#UpdateAttributes(String, String[], long[][])} request once the batch reaches
+ * the configured size, or when the flush interval elapses, whichever comes first. Repeated updates to
+ * the same document within a batch are coalesced, the last written values win. A document updated through
+ * overlapping attribute sets is written in the order of the updates, the pending batch holding the earlier
+ * update is flushed before the later update is buffered.
+ *
+ * Each update returns a future that completes with the number of documents updated by the batch the
+ * update was written in, or completes exceptionally if the batch could not be written.
+ *
+ * When constructed with an {@link UpdateJournal}, updates are appended to the journal before returning
+ * and the updater thread replays the journal in batches of up to the max batch size. If searchd cannot
+ * be reached the records stay in the journal and are retried with an increasing back-off until it is
+ * healthy again, so no update is dropped and callers never wait on the network. Futures of journaled
+ * updates only complete once the update has been written.
+ *
+ * <code>
+ *      AttributeUpdater updater = new AttributeUpdater(dataSource, 1000, 100);
+ *      updater.update("products", new String[] { "price" }, 123L, 999L);
+ *      ...
+ *      updater.close();
+ * </code>
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class AttributeUpdater {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL = 100;
+    public static final long MAX_RETRY_DELAY = 30000;
+
+    /** Prefix of the error message set by the client for a SEARCHD_ERROR reply. */
+    private static final String SEARCHD_ERROR_PREFIX = "searchd error: ";
+
+    private final PooledSphinxDataSource dataSource;
+    private final int maxBatchSize;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<BatchKey, Batch> batches = new LinkedHashMap<BatchKey, Batch>();
+
+    private final UpdateJournal journal;
+    private final Map<Long, CompletableFuture<Integer>> journalFutures = new HashMap<Long, CompletableFuture<Integer>>();
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+    private long retryDelay;
+    private long nextAttempt;
+
+    private volatile boolean attributesDirty;
+    private volatile boolean closed;
+
+
+    public AttributeUpdater(PooledSphinxDataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param dataSource data source to write updates to
+     * @param maxBatchSize number of buffered documents that triggers a flush of the batch
+     * @param flushIntervalMillis maximum time in milliseconds an update is buffered before being flushed
+     */
+    public AttributeUpdater(PooledSphinxDataSource dataSource, int maxBatchSize, long flushIntervalMillis) {
+        this(dataSource, maxBatchSize, flushIntervalMillis, null);
+    }
+
+    /**
+     * @param dataSource data source to write updates to
+     * @param maxBatchSize number of buffered documents that triggers a flush of the batch
+     * @param flushIntervalMillis maximum time in milliseconds an update is buffered before being flushed
+     * @param journal journal to record updates in before they are sent, or null to buffer in memory only
+     */
+    public AttributeUpdater(PooledSphinxDataSource dataSource, int maxBatchSize, long flushIntervalMillis, UpdateJournal journal) {
+        if (maxBatchSize <= 0) throw new IllegalArgumentException("maxBatchSize must be positive");
+        if (flushIntervalMillis <= 0) throw new IllegalArgumentException("flushIntervalMillis must be positive");
+
+        this.dataSource = dataSource;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.journal = journal;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sphinx-attribute-updater");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                flushAll();
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Periodically calls {@link ISphinxClient#FlushAttributes()} if any updates were written since the
+     * last call, coalescing attribute flushes for all batches into one request per interval.
+     *
+     * @param intervalMillis interval in milliseconds between attribute flushes
+     */
+    public void setFlushAttributesInterval(long intervalMillis) {
+        if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis must be positive");
+
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                flushAttributes();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers an update of the given attributes of a single document.
+     *
+     * @param index index name(s) to update
+     * @param attrs names of the attributes to update
+     * @param docId id of the document to update
+     * @param values new attribute values, one per attribute
+     * @return future holding the number of documents updated by the batch
+     */
+    public CompletableFuture<Integer> update(String index, String[] attrs, long docId, long... values) {
+        if (values.length != attrs.length) throw new IllegalArgumentException("update entry has wrong length");
+
+        long[] row = new long[values.length + 1];
+        row[0] = docId;
+        System.arraycopy(values, 0, row, 1, values.length);
+
+        return update(index, attrs, new long[][] { row });
+    }
+
+    /**
+     * Buffers an update of the given attributes, in the same format accepted by
+     * {@link ISphinxClient#UpdateAttributes(String, String[], long[][])}.
+     *
+     * @param index index name(s) to update
+     * @param attrs names of the attributes to update
+     * @param values array of updates, each entry holding the document ID followed by the new attribute values
+     * @return future holding the number of documents updated by the batch
+     */
+    public CompletableFuture<Integer> update(String index, String[] attrs, long[][] values) {
+        if (index == null || index.length() == 0) throw new IllegalArgumentException("no index name provided");
+        if (attrs == null || attrs.length == 0) throw new IllegalArgumentException("no attribute names provided");
+        if (values == null || values.length == 0) throw new IllegalArgumentException("no update entries provided");
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null || values[i].length != attrs.length + 1) {
+                throw new IllegalArgumentException("update entry #" + i + " has wrong length");
+            }
+        }
+
+        CompletableFuture<Integer> future = new CompletableFuture<Integer>();
+        if (journal != null) {
+            return journal(index, attrs, values, future);
+        }
+
+        synchronized (batches) {
+            if (closed) throw new IllegalStateException("Attribute updater has been closed.");
+
+            BatchKey key = new BatchKey(index, attrs);
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                batch = new Batch(key);
+                batches.put(key, batch);
+            }
+
+            for (long[] row : values) {
+                flushConflicts(key, row[0]);
+                batch.rows.put(row[0], row.clone());
+            }
+            batch.futures.add(future);
+
+            // submitted under the lock, so close() can't shut the scheduler down in between
+            if (batch.rows.size() >= maxBatchSize) {
+                final Batch full = batches.remove(key);
+                scheduler.execute(new Runnable() {
+                    public void run() {
+                        write(full);
+                    }
+                });
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Flushes the pending batches that update the given document through attributes overlapping the given
+     * attribute set, so that they reach searchd before a later update of the document. Called with the lock held.
+     */
+    private void flushConflicts(BatchKey key, long docId) {
+        for (Iterator<Batch> it = batches.values().iterator(); it.hasNext(); ) {
+            final Batch other = it.next();
+            if (other.key.equals(key) || !other.conflicts(key, docId)) continue;
+
+            it.remove();
+            scheduler.execute(new Runnable() {
+                public void run() {
+                    write(other);
+                }
+            });
+        }
+    }
+
+    /**
+     * Appends an update to the journal, and schedules a replay once a full batch worth of records is waiting.
+     */
+    private CompletableFuture<Integer> journal(String index, String[] attrs, long[][] values, CompletableFuture<Integer> future) {
+        synchronized (batches) {
+            if (closed) throw new IllegalStateException("Attribute updater has been closed.");
+
+            try {
+                journalFutures.put(journal.append(index, attrs, values), future);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+                return future;
+            }
+
+            if (journal.size() >= maxBatchSize && replayScheduled.compareAndSet(false, true)) {
+                scheduler.execute(new Runnable() {
+                    public void run() {
+                        replayScheduled.set(false);
+                        replay();
+                    }
+                });
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Drains the journal in batches, until it is empty or searchd becomes unavailable. Runs on the updater thread.
+     */
+    private void replay() {
+        if (System.currentTimeMillis() < nextAttempt) return;
+
+        while (true) {
+            List<UpdateJournal.Record> records = journal.read(maxBatchSize);
+            if (records.isEmpty()) return;
+
+            // coalesce the records into batches per index and attribute set, in write order
+            List<Batch> pending = new ArrayList<Batch>();
+            Map<BatchKey, Batch> open = new HashMap<BatchKey, Batch>();
+            synchronized (batches) {
+                for (UpdateJournal.Record record : records) {
+                    BatchKey key = new BatchKey(record.getIndex(), record.getAttrs());
+                    CompletableFuture<Integer> future = journalFutures.get(record.getSequence());
+
+                    for (long[] row : record.getValues()) {
+                        Batch batch = open.get(key);
+                        if (batch == null || conflictsAfter(pending, batch, row[0])) {
+                            // a later batch already holds an earlier update of the document, start a new one after it
+                            batch = new Batch(key);
+                            pending.add(batch);
+                            open.put(key, batch);
+                        }
+
+                        batch.rows.put(row[0], row);
+                        if (future != null && !batch.futures.contains(future)) batch.futures.add(future);
+                    }
+                }
+            }
+
+            for (Batch batch : pending) {
+                try {
+                    int updated = send(batch);
+                    for (CompletableFuture<Integer> future : batch.futures) {
+                        future.complete(updated);
+                    }
+
+                } catch (EndpointUnavailableException e) {
+                    // leave everything in the journal, records already written will simply be re-applied
+                    retryDelay = Math.min(Math.max(flushIntervalMillis, retryDelay * 2), MAX_RETRY_DELAY);
+                    nextAttempt = System.currentTimeMillis() + retryDelay;
+                    return;
+
+                } catch (Exception e) {
+                    // searchd rejected the update, retrying will not help
+                    for (CompletableFuture<Integer> future : batch.futures) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            }
+
+            synchronized (batches) {
+                journal.acknowledge(records.get(records.size() - 1));
+                for (UpdateJournal.Record record : records) {
+                    journalFutures.remove(record.getSequence());
+                }
+            }
+
+            retryDelay = 0;
+            nextAttempt = 0;
+        }
+    }
+
+    /**
+     * Returns true if any batch following the given batch updates the document through overlapping attributes.
+     */
+    private static boolean conflictsAfter(List<Batch> pending, Batch batch, long docId) {
+        for (int i = pending.indexOf(batch) + 1; i < pending.size(); i++) {
+            if (pending.get(i).conflicts(batch.key, docId)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes all buffered batches. Runs on the updater thread.
+     */
+    private void flushAll() {
+        if (journal != null) {
+            replay();
+            return;
+        }
+
+        List<Batch> pending;
+        synchronized (batches) {
+            pending = new ArrayList<Batch>(batches.values());
+            batches.clear();
+        }
+
+        for (Batch batch : pending) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Writes a single batch as one update request, and completes the futures of all buffered updates.
+     */
+    private void write(Batch batch) {
+        try {
+            int updated = send(batch);
+            for (CompletableFuture<Integer> future : batch.futures) {
+                future.complete(updated);
+            }
+
+        } catch (Exception e) {
+            for (CompletableFuture<Integer> future : batch.futures) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Sends a single batch as one update request.
+     *
+     * @return number of documents updated
+     * @throws EndpointUnavailableException if searchd could not be reached or the reply was lost
+     * @throws SphinxException if searchd rejected the update
+     */
+    private int send(Batch batch) throws SphinxException {
+        long[][] values = batch.rows.values().toArray(new long[batch.rows.size()][]);
+
+        ISphinxClient client;
+        try {
+            client = dataSource.getSphinxClient();
+        } catch (RuntimeException e) {
+            throw new EndpointUnavailableException(e.getMessage());
+        }
+
+        try {
+            int updated = client.UpdateAttributes(batch.key.index, batch.key.attrs, values);
+            if (updated < 0) {
+                String error = client.GetLastError();
+                if (isRejected(error)) throw new SphinxException(error);
+                throw new EndpointUnavailableException(error);
+            }
+
+            attributesDirty = true;
+            return updated;
+
+        } finally {
+            client.Close();
+        }
+    }
+
+    /**
+     * Returns true if the error is a SEARCHD_ERROR reply, meaning searchd received the update and refused it.
+     * Anything else - connect and network errors, truncated or unreadable responses, SEARCHD_RETRY replies -
+     * may succeed on a later attempt.
+     */
+    private static boolean isRejected(String error) {
+        return error != null && error.startsWith(SEARCHD_ERROR_PREFIX);
+    }
+
+    /**
+     * Flushes attributes if any updates have been written since the last flush. Runs on the updater thread.
+     */
+    private void flushAttributes() {
+        if (!attributesDirty) return;
+        attributesDirty = false;
+
+        try {
+            ISphinxClient client = dataSource.getSphinxClient();
+            try {
+                if (client.FlushAttributes() < 0) attributesDirty = true;
+            } finally {
+                client.Close();
+            }
+        } catch (Exception e) {
+            attributesDirty = true;
+        }
+    }
+
+    /**
+     * Returns the number of documents currently buffered and waiting to be written. When journaling,
+     * returns the number of journal records waiting to be replayed.
+     *
+     * @return number of buffered documents
+     */
+    public int getPendingCount() {
+        synchronized (batches) {
+            if (journal != null) return (int) journal.size();
+
+            int pending = 0;
+            for (Batch batch : batches.values()) {
+                pending += batch.rows.size();
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * Flushes all buffered updates and stops the updater, waiting for outstanding writes to finish. Journaled
+     * updates that could not be written are left in the journal, the journal itself is not closed.
+     */
+    public void close() {
+        synchronized (batches) {
+            if (closed) return;
+            closed = true;
+        }
+
+        scheduler.execute(new Runnable() {
+            public void run() {
+                flushAll();
+                flushAttributes();
+            }
+        });
+        scheduler.shutdown();
+
+        try {
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Thrown when searchd could not be reached, as opposed to searchd rejecting the update.
+     */
+    private static final class EndpointUnavailableException extends SphinxException {
+        private static final long serialVersionUID = 1L;
+
+        private EndpointUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Batches are keyed by index and the exact list of updated attributes.
+     */
+    static final class BatchKey {
+        final String index;
+        final String[] attrs;
+
+        BatchKey(String index, String[] attrs) {
+            this.index = index;
+            this.attrs = attrs.clone();
+        }
+
+        /**
+         * Returns true if both keys update at least one attribute of the same name. Index names are not
+         * compared, as a list of indexes can overlap with another list.
+         */
+        boolean overlaps(BatchKey other) {
+            for (String attr : attrs) {
+                for (String otherAttr : other.attrs) {
+                    if (attr.equals(otherAttr)) return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            BatchKey that = (BatchKey) o;
+            return index.equals(that.index) && Arrays.equals(attrs, that.attrs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * index.hashCode() + Arrays.hashCode(attrs);
+        }
+    }
+
+    /**
+     * Buffered updates for one index and attribute set, coalesced by document id.
+     */
+    static final class Batch {
+        final BatchKey key;
+        final Map<Long, long[]> rows = new LinkedHashMap<Long, long[]>();
+        final List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+
+        Batch(BatchKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Returns true if this batch updates the given document through attributes overlapping the given key.
+         */
+        boolean conflicts(BatchKey other, long docId) {
+            return rows.containsKey(docId) && key.overlaps(other);
+        }
+    }
+}
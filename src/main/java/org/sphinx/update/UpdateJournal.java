@@ -0,0 +1,334 @@
+package org.sphinx.update;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only, memory-mapped journal of attribute updates on local disk.
+ *
+ * Updates are appended to the journal before they are sent to searchd, and removed once they have been
+ * written successfully. Appending is a copy into the mapped file, it never waits on the network, so
+ * updates can be recorded even while searchd is unavailable and replayed once it is back.
+ *
+ * The journal file starts with a small header holding the read and write positions, followed by length
+ * prefixed update records. Space is reclaimed whenever the journal is fully drained, or by moving unread
+ * records to the front of the file when the end is reached. The mapping grows up to the configured
+ * maximum size when that is not enough.
+ *
+ * @see AttributeUpdater#AttributeUpdater(org.sphinx.pool.PooledSphinxDataSource, int, long, UpdateJournal)
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class UpdateJournal implements Closeable {
+
+    public static final long DEFAULT_INITIAL_SIZE = 1024 * 1024;
+    public static final long DEFAULT_MAX_SIZE = 256 * 1024 * 1024;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x53504a31; // "SPJ1"
+    private static final int HEADER_SIZE = 32;
+    private static final int READ_POS_OFFSET = 8;
+    private static final int WRITE_POS_OFFSET = 16;
+
+    private final File file;
+    private final long maxSize;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private int readPos;
+    private int writePos;
+    private long readSequence;
+    private long writeSequence;
+    private boolean syncOnAppend;
+
+
+    public UpdateJournal(File file) throws IOException {
+        this(file, DEFAULT_INITIAL_SIZE, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Opens the journal file, creating it if it does not exist. Records left in an existing journal
+     * are kept and will be replayed.
+     *
+     * @param file journal file
+     * @param initialSize initial size of the mapped file in bytes
+     * @param maxSize maximum size the mapped file may grow to in bytes
+     * @throws IOException if the file could not be opened, or is not a journal file
+     */
+    public UpdateJournal(File file, long initialSize, long maxSize) throws IOException {
+        if (maxSize > Integer.MAX_VALUE) throw new IllegalArgumentException("maxSize must not exceed 2GB");
+        if (initialSize < HEADER_SIZE || initialSize > maxSize) throw new IllegalArgumentException("invalid initialSize");
+
+        this.file = file;
+        this.maxSize = maxSize;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+
+        boolean exists = channel.size() >= HEADER_SIZE;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, channel.size()));
+
+        if (exists) {
+            if (buffer.getInt(0) != MAGIC) {
+                close();
+                throw new IOException("Not an update journal: " + file);
+            }
+            readPos = (int) buffer.getLong(READ_POS_OFFSET);
+            writePos = (int) buffer.getLong(WRITE_POS_OFFSET);
+            writeSequence = countRecords(readPos, writePos);
+
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, 1);
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE;
+            writeHeader();
+        }
+    }
+
+
+    /**
+     * Returns the journal file.
+     *
+     * @return journal file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Sets whether the mapped file is forced to the storage device after every append. When false,
+     * records survive a crash of the process but may be lost if the operating system crashes.
+     *
+     * @param syncOnAppend true to force every append to disk
+     */
+    public synchronized void setSyncOnAppend(boolean syncOnAppend) {
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    /**
+     * Appends an update to the journal.
+     *
+     * @param index index name(s) to update
+     * @param attrs names of the attributes to update
+     * @param values array of updates, each entry holding the document ID followed by the new attribute values
+     * @return sequence number of the appended record
+     * @throws IOException if the journal is full
+     */
+    public synchronized long append(String index, String[] attrs, long[][] values) throws IOException {
+        byte[] indexBytes = index.getBytes(UTF8);
+        byte[][] attrBytes = new byte[attrs.length][];
+
+        int length = 4 + indexBytes.length + 4 + 4;
+        for (int i = 0; i < attrs.length; i++) {
+            attrBytes[i] = attrs[i].getBytes(UTF8);
+            length += 4 + attrBytes[i].length;
+        }
+        length += values.length * (attrs.length + 1) * 8;
+
+        ensureCapacity(4 + length);
+
+        buffer.position(writePos);
+        buffer.putInt(length);
+        buffer.putInt(indexBytes.length);
+        buffer.put(indexBytes);
+        buffer.putInt(attrBytes.length);
+        for (byte[] attr : attrBytes) {
+            buffer.putInt(attr.length);
+            buffer.put(attr);
+        }
+        buffer.putInt(values.length);
+        for (long[] row : values) {
+            for (long value : row) {
+                buffer.putLong(value);
+            }
+        }
+
+        writePos = buffer.position();
+        writeHeader();
+        if (syncOnAppend) buffer.force();
+
+        return writeSequence++;
+    }
+
+    /**
+     * Reads unacknowledged records from the head of the journal, without removing them.
+     *
+     * @param maxRows maximum number of update rows to read, at least one record is always read
+     * @return records in append order, empty if the journal is drained
+     */
+    public synchronized List<Record> read(int maxRows) {
+        List<Record> records = new ArrayList<Record>();
+        int pos = readPos;
+        long sequence = readSequence;
+        int rows = 0;
+
+        while (pos < writePos && (records.isEmpty() || rows < maxRows)) {
+            buffer.position(pos);
+            int length = buffer.getInt();
+
+            String index = readString();
+            String[] attrs = new String[buffer.getInt()];
+            for (int i = 0; i < attrs.length; i++) {
+                attrs[i] = readString();
+            }
+
+            long[][] values = new long[buffer.getInt()][attrs.length + 1];
+            for (long[] row : values) {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = buffer.getLong();
+                }
+            }
+
+            pos += 4 + length;
+            rows += values.length;
+            records.add(new Record(sequence++, index, attrs, values));
+        }
+
+        return records;
+    }
+
+    /**
+     * Removes all records up to and including the given record from the journal.
+     *
+     * @param record last record that was written successfully
+     */
+    public synchronized void acknowledge(Record record) {
+        if (record.sequence < readSequence) return;
+
+        // skip by record count rather than position, records may have been moved since they were read
+        for (; readSequence <= record.sequence && readPos < writePos; readSequence++) {
+            readPos += 4 + buffer.getInt(readPos);
+        }
+
+        // drained, start writing from the front again
+        if (readPos == writePos) {
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE;
+        }
+        writeHeader();
+    }
+
+    /**
+     * Returns true if there are no unacknowledged records in the journal.
+     *
+     * @return true if drained
+     */
+    public synchronized boolean isEmpty() {
+        return readPos == writePos;
+    }
+
+    /**
+     * Returns the number of unacknowledged records in the journal.
+     *
+     * @return number of records
+     */
+    public synchronized long size() {
+        return writeSequence - readSequence;
+    }
+
+    /**
+     * Forces the journal and closes the file.
+     *
+     * @throws IOException if the file could not be closed
+     */
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+        raf.close();
+    }
+
+    private String readString() {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private void writeHeader() {
+        buffer.putLong(READ_POS_OFFSET, readPos);
+        buffer.putLong(WRITE_POS_OFFSET, writePos);
+    }
+
+    private long countRecords(int from, int to) {
+        long count = 0;
+        for (int pos = from; pos < to; pos += 4 + buffer.getInt(pos)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Makes room for a record of the given size, first by moving unread records to the front of
+     * the file, then by growing the mapping.
+     */
+    private void ensureCapacity(int length) throws IOException {
+        if (writePos + length <= buffer.capacity()) return;
+
+        if (readPos > HEADER_SIZE) {
+            int unread = writePos - readPos;
+            byte[] pending = new byte[unread];
+            buffer.position(readPos);
+            buffer.get(pending);
+            buffer.position(HEADER_SIZE);
+            buffer.put(pending);
+
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE + unread;
+            writeHeader();
+
+            if (writePos + length <= buffer.capacity()) return;
+        }
+
+        long required = (long) writePos + length;
+        if (required > maxSize) throw new IOException("Update journal is full: " + file);
+
+        long capacity = buffer.capacity();
+        while (capacity < required) capacity *= 2;
+
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, maxSize));
+    }
+
+
+    /**
+     * An update record read from the journal.
+     */
+    public static final class Record {
+        private final long sequence;
+        private final String index;
+        private final String[] attrs;
+        private final long[][] values;
+
+        private Record(long sequence, String index, String[] attrs, long[][] values) {
+            this.sequence = sequence;
+            this.index = index;
+            this.attrs = attrs;
+            this.values = values;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public String[] getAttrs() {
+            return attrs;
+        }
+
+        public long[][] getValues() {
+            return values;
+        }
+    }
+}
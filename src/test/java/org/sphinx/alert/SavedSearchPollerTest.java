@@ -0,0 +1,302 @@
+package org.sphinx.alert;
+
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.api.SphinxSchema;
+import org.sphinx.api.TestSchemas;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SavedSearchPollerTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class SavedSearchPollerTest {
+
+    private static final SphinxSchema CREATED_SCHEMA = TestSchemas.of(new String[] { "created" }, new int[] { SphinxClient.SPH_ATTR_TIMESTAMP });
+
+    /**
+     * Scripted multi-query over a growing list of document ids, recording the multi-query sizes. Documents
+     * given a <code>created</code> value can be filtered and sorted on that attribute.
+     */
+    private static class ScriptedIndex implements Answer<SphinxResult[]> {
+        private final List<Long> ids = new ArrayList<Long>();
+        private final Map<Long, Long> created = new HashMap<Long, Long>();
+        private final List<Integer> batches = new ArrayList<Integer>();
+
+        void add(long id, long createdAt) {
+            ids.add(id);
+            created.put(id, createdAt);
+        }
+
+        @SuppressWarnings("unchecked")
+        public SphinxResult[] answer(InvocationOnMock invocation) throws Throwable {
+            Object[] args = invocation.getArguments();
+            SearchRequest[] requests = Arrays.copyOf(args, args.length, SearchRequest[].class);
+            batches.add(requests.length);
+
+            SphinxResult[] results = new SphinxResult[requests.length];
+            for (int i = 0; i < requests.length; i++) {
+                SearchRequest request = requests[i];
+                if (request.getIndex().equals("missing")) throw new SphinxException("unknown index");
+                if (request.getIndex().equals("closed")) throw new IllegalStateException("Pool not open");
+                results[i] = new SphinxResult();
+
+                List<Long> sorted = new ArrayList<Long>(ids);
+                if (request.getSortBy().startsWith("created")) {
+                    Collections.sort(sorted, new Comparator<Long>() {
+                        public int compare(Long a, Long b) {
+                            int c = created.get(a).compareTo(created.get(b));
+                            return c != 0 ? c : a.compareTo(b);
+                        }
+                    });
+                }
+
+                List<SphinxMatch> matches = new ArrayList<SphinxMatch>();
+                int found = 0;
+                for (long id : sorted) {
+                    if (id < request.getMinId() || (request.getMaxId() != 0 && id > request.getMaxId())) continue;
+                    if (!accepts(request, id)) continue;
+                    if (found++ < request.getLimit()) {
+                        SphinxMatch match = new SphinxMatch(id, 1);
+                        if (created.containsKey(id)) match.attrValues.add(created.get(id));
+                        matches.add(match);
+                    }
+                }
+                if (!created.isEmpty()) results[i].schema = CREATED_SCHEMA;
+                results[i].matches = matches.toArray(new SphinxMatch[matches.size()]);
+                results[i].totalFound = found;
+            }
+            return results;
+        }
+
+        private boolean accepts(SearchRequest request, long id) {
+            for (SearchRequest.Filter filter : request.getFilters()) {
+                long value = created.get(id);
+                if (value < filter.getMin() || value > filter.getMax()) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Listener recording the reported document ids and errors of each search.
+     */
+    private static class RecordingListener implements SavedSearchListener {
+        private final Map<String, List<Long>> matches = new HashMap<String, List<Long>>();
+        private final List<String> errors = new ArrayList<String>();
+
+        public void onMatches(SavedSearch search, SphinxSchema schema, SphinxMatch[] found) {
+            List<Long> ids = matches.get(search.getId());
+            if (ids == null) matches.put(search.getId(), ids = new ArrayList<Long>());
+            for (SphinxMatch match : found) {
+                ids.add(match.docId);
+            }
+        }
+
+        public void onError(SavedSearch search, SphinxException e) {
+            errors.add(search.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ScriptedIndex index;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        index = new ScriptedIndex();
+        when(dataSource.execute(Matchers.<SearchRequest[]>anyVararg())).thenAnswer(index);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    private static SavedSearch search(String id, String index, int limit) {
+        return new SavedSearch(id, SearchRequest.builder().index(index).limits(0, limit).build(), 1, 0);
+    }
+
+    @Test
+    public void testReportsOnlyNewMatches() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 60000);
+        poller.setBatchSize(2);
+
+        poller.add(search("a", "products", 10));
+        poller.add(search("b", "products", 10));
+        poller.add(search("c", "products", 10));
+
+        index.ids.add(10L);
+        index.ids.add(20L);
+        assertEquals(poller.poll(), 3);
+        assertEquals(index.batches.size(), 2);
+        assertEquals(listener.matches.get("a").size(), 2);
+
+        Thread.sleep(5);
+        index.ids.add(30L);
+        poller.poll();
+
+        assertEquals(listener.matches.get("a").toString(), "[10, 20, 30]");
+        assertEquals(listener.matches.get("c").toString(), "[10, 20, 30]");
+        assertEquals(poller.get("b").getHighWaterMark(), 30);
+        poller.close();
+    }
+
+    /**
+     * Test that a search with more new matches than its limit continues on the next tick.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCatchUpPastLimit() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 60000);
+        poller.add(new SavedSearch("a", SearchRequest.builder().index("products").limits(0, 2).build(), 60000, 0));
+
+        for (long id = 1; id <= 5; id++) {
+            index.ids.add(id);
+        }
+
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.poll(), 0);
+        assertEquals(listener.matches.get("a").toString(), "[1, 2, 3, 4, 5]");
+        poller.close();
+    }
+
+    /**
+     * Test that matches sharing the attribute value of the last match of a truncated run are not skipped.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTiedAttributeMark() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 60000);
+        poller.add(new SavedSearch("a", SearchRequest.builder().index("products").limits(0, 2).build(), 60000, "created", 0));
+
+        index.add(1, 100);
+        index.add(2, 200);
+        index.add(3, 200);
+        index.add(4, 200);
+        index.add(5, 300);
+
+        // page ends part way through the matches created at 200
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.get("a").getHighWaterMark(), 200);
+        assertEquals(poller.get("a").getMarkDocId(), 2);
+
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.get("a").getMarkDocId(), 0);
+
+        assertEquals(poller.poll(), 1);
+        assertEquals(poller.poll(), 0);
+        assertEquals(listener.matches.get("a").toString(), "[1, 2, 3, 4, 5]");
+        assertEquals(poller.get("a").getHighWaterMark(), 300);
+        poller.close();
+    }
+
+    /**
+     * Test that a listener throwing on the matches of one search does not stop the other searches of the batch.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testThrowingListener() throws Exception {
+        final RecordingListener recorder = new RecordingListener();
+        SavedSearchListener listener = new SavedSearchListener() {
+            public void onMatches(SavedSearch search, SphinxSchema schema, SphinxMatch[] matches) {
+                if (search.getId().equals("a")) throw new IllegalStateException("listener failed");
+                recorder.onMatches(search, schema, matches);
+            }
+
+            public void onError(SavedSearch search, SphinxException e) {
+                recorder.onError(search, e);
+            }
+        };
+
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 60000);
+        poller.add(search("a", "products", 10));
+        poller.add(search("b", "products", 10));
+        index.ids.add(10L);
+
+        assertEquals(poller.poll(), 2);
+        assertEquals(recorder.matches.get("b").toString(), "[10]");
+        assertTrue(recorder.errors.isEmpty());
+        assertEquals(poller.get("a").getHighWaterMark(), 10);
+        poller.close();
+    }
+
+    /**
+     * Test that the poller keeps running on its schedule when the data source throws an unchecked exception.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testScheduleSurvivesUncheckedFailure() throws Exception {
+        final CountDownLatch errors = new CountDownLatch(3);
+        SavedSearchListener listener = new SavedSearchListener() {
+            public void onMatches(SavedSearch search, SphinxSchema schema, SphinxMatch[] matches) {
+            }
+
+            public void onError(SavedSearch search, SphinxException e) {
+                errors.countDown();
+                throw new IllegalStateException("listener failed");
+            }
+        };
+
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 5);
+        poller.add(search("a", "closed", 10));
+
+        assertTrue(errors.await(5, TimeUnit.SECONDS), "Poller stopped after an unchecked exception");
+        poller.close();
+    }
+
+    /**
+     * Test that a failed multi-query does not affect the searches in other batches.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFailedBatch() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        SavedSearchPoller poller = new SavedSearchPoller(dataSource, listener, 60000);
+        poller.setBatchSize(1);
+        poller.add(search("a", "missing", 10));
+        poller.add(search("b", "products", 10));
+        index.ids.add(10L);
+
+        poller.poll();
+
+        assertEquals(listener.errors.toString(), "[a: unknown index]");
+        assertEquals(poller.get("a").getHighWaterMark(), 0);
+        assertEquals(poller.get("b").getHighWaterMark(), 10);
+        poller.close();
+    }
+}
@@ -0,0 +1,334 @@
+package org.sphinx.api;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import static org.testng.Assert.*;
+
+/**
+ * ConnectionTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class ConnectionTest {
+
+    private static final byte[] MESSAGE = "hello searchd".getBytes();
+
+    private static void start(Runnable runnable) {
+        Thread thread = new Thread(runnable, "sphinx-test-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static byte[] echo(Connection connection) throws IOException {
+        OutputStream out = connection.getOutputStream();
+        out.write(MESSAGE);
+        out.flush();
+
+        byte[] reply = new byte[MESSAGE.length];
+        new DataInputStream(connection.getInputStream()).readFully(reply);
+        return reply;
+    }
+
+    private static void assertTimesOut(Connection connection, long timeout) throws IOException {
+        InputStream in = connection.getInputStream();
+        long start = System.nanoTime();
+        try {
+            in.read();
+            fail("Read should have timed out");
+        } catch (SocketTimeoutException e) {
+            long elapsed = (System.nanoTime() - start) / 1000000;
+            assertTrue(elapsed >= timeout - 10, "Timed out early, after " + elapsed + "ms");
+        }
+    }
+
+    private static void assumeUnixSockets() {
+        if (Runtime.version().feature() < 16) throw new SkipException("Unix domain sockets require Java 16 or later");
+    }
+
+    private static File socketPath() throws IOException {
+        File file = File.createTempFile("sphinx", ".sock");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * TCP server that echoes everything it receives back to the client.
+     */
+    private static ServerSocket tcpEchoServer() throws IOException {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        start(new Runnable() {
+            public void run() {
+                try (Socket socket = server.accept()) {
+                    byte[] buffer = new byte[1024];
+                    int read;
+                    while ((read = socket.getInputStream().read(buffer)) != -1) {
+                        socket.getOutputStream().write(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    // client hung up
+                }
+            }
+        });
+        return server;
+    }
+
+    /**
+     * Unix socket server that echoes everything it receives back to the client.
+     */
+    private static ServerSocketChannel unixEchoServer(File path) throws IOException {
+        final ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path.getPath()));
+        start(new Runnable() {
+            public void run() {
+                try (SocketChannel channel = server.accept()) {
+                    ByteBuffer buffer = ByteBuffer.allocate(1024);
+                    while (channel.read(buffer) != -1) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) channel.write(buffer);
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    // client hung up
+                }
+            }
+        });
+        return server;
+    }
+
+    @Test
+    public void testTcpEcho() throws Exception {
+        ServerSocket server = tcpEchoServer();
+        try {
+            Connection connection = new Connection.Tcp(new InetSocketAddress(server.getInetAddress(), server.getLocalPort()), 1000, true, true, 64 * 1024, 64 * 1024);
+            assertTrue(connection.isConnected());
+            assertEquals(echo(connection), MESSAGE);
+            connection.close();
+
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testTcpReadTimeout() throws Exception {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        try {
+            Connection connection = new Connection.Tcp(new InetSocketAddress(server.getInetAddress(), server.getLocalPort()), 200, true, false, 0, 0);
+            assertTimesOut(connection, 200);
+            connection.close();
+
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTcpConnectRefused() throws Exception {
+        ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        int port = server.getLocalPort();
+        server.close();
+
+        new Connection.Tcp(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1000, true, false, 0, 0);
+    }
+
+    @Test
+    public void testUnixSocketEcho() throws Exception {
+        assumeUnixSockets();
+
+        File path = socketPath();
+        ServerSocketChannel server = unixEchoServer(path);
+        try {
+            Connection connection = new UnixSocketConnection(path.getPath(), 1000, 64 * 1024, 64 * 1024);
+            assertTrue(connection.isConnected());
+            assertEquals(echo(connection), MESSAGE);
+            connection.close();
+            assertFalse(connection.isConnected());
+
+        } finally {
+            server.close();
+            path.delete();
+        }
+    }
+
+    @Test
+    public void testUnixSocketReadTimeout() throws Exception {
+        assumeUnixSockets();
+
+        File path = socketPath();
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path.getPath()));
+        try {
+            Connection connection = new UnixSocketConnection(path.getPath(), 200, 0, 0);
+            assertTimesOut(connection, 200);
+            connection.close();
+
+        } finally {
+            server.close();
+            path.delete();
+        }
+    }
+
+    /**
+     * Closes a connection from another thread after the given delay.
+     */
+    private static void closeLater(final long delay, final Runnable close) {
+        start(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                close.run();
+            }
+        });
+    }
+
+    /**
+     * Test that closing a unix socket connection from another thread fails a blocked read with an IOException.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUnixSocketCloseWhileReading() throws Exception {
+        assumeUnixSockets();
+
+        File path = socketPath();
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path.getPath()));
+        try {
+            final Connection connection = new UnixSocketConnection(path.getPath(), 5000, 0, 0);
+            closeLater(100, new Runnable() {
+                public void run() {
+                    try {
+                        connection.close();
+                    } catch (IOException e) {
+                        // ignored
+                    }
+                }
+            });
+
+            try {
+                connection.getInputStream().read();
+                fail("Read should have failed");
+            } catch (AsynchronousCloseException e) {
+                // expected
+            }
+
+        } finally {
+            server.close();
+            path.delete();
+        }
+    }
+
+    /**
+     * Test that aborting a query over a unix socket fails the query with an error, rather than an unchecked exception.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testAbortOverUnixSocket() throws Exception {
+        assumeUnixSockets();
+
+        File path = socketPath();
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path.getPath()));
+        start(new Runnable() {
+            public void run() {
+                try (SocketChannel channel = server.accept()) {
+                    channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 1 }));
+
+                    // never reply to the query
+                    ByteBuffer buffer = ByteBuffer.allocate(1024);
+                    while (channel.read(buffer) != -1) {
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    // client hung up
+                }
+            }
+        });
+
+        try {
+            final SphinxClient client = new SphinxClient();
+            client.SetServer("unix://" + path.getPath(), 0);
+            client.SetConnectTimeout(5000);
+            assertTrue(client.Open(), client.GetLastError());
+
+            closeLater(100, new Runnable() {
+                public void run() {
+                    client.Abort();
+                }
+            });
+
+            long start = System.nanoTime();
+            assertNull(client.FetchResults(SearchRequest.builder().query("hello").build()));
+            assertTrue(client.GetLastError().length() > 0);
+            assertTrue((System.nanoTime() - start) / 1000000 < 5000, "Query should have been aborted before the timeout");
+
+        } finally {
+            server.close();
+            path.delete();
+        }
+    }
+
+    /**
+     * Test that searchd can be reached through the client over a unix socket path.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testClientOverUnixSocket() throws Exception {
+        assumeUnixSockets();
+
+        File path = socketPath();
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(path.getPath()));
+        start(new Runnable() {
+            public void run() {
+                try (SocketChannel channel = server.accept()) {
+                    channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 1 }));
+
+                    // read the client version and persist request until the client hangs up
+                    ByteBuffer buffer = ByteBuffer.allocate(1024);
+                    while (channel.read(buffer) != -1) {
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    // client hung up
+                }
+            }
+        });
+
+        try {
+            SphinxClient client = new SphinxClient();
+            client.SetServer("unix://" + path.getPath(), 0);
+            assertTrue(client.Open(), client.GetLastError());
+            assertTrue(client.Close());
+
+        } finally {
+            server.close();
+            path.delete();
+        }
+    }
+}
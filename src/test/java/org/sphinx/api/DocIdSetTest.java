@@ -0,0 +1,96 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.testng.Assert.*;
+
+/**
+ * DocIdSetTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class DocIdSetTest {
+
+    /**
+     * Random ids, dense enough in the first 64K block to be held as a bitmap and sparse above it.
+     */
+    private static long[] random(Random random, int dense, int sparse) {
+        long[] ids = new long[dense + sparse];
+        for (int i = 0; i < dense; i++) {
+            ids[i] = random.nextInt(65536);
+        }
+        for (int i = dense; i < ids.length; i++) {
+            ids[i] = 65536 + random.nextInt(1 << 24);
+        }
+        return ids;
+    }
+
+    private static long[] toArray(TreeSet<Long> set) {
+        long[] ids = new long[set.size()];
+        int i = 0;
+        for (Long id : set) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    private static TreeSet<Long> toSet(long[] ids) {
+        TreeSet<Long> set = new TreeSet<Long>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Test
+    public void testSetOperations() throws Exception {
+        Random random = new Random(42);
+        long[] a = random(random, 20000, 3000);
+        long[] b = random(random, 3000, 20000);
+
+        DocIdSet setA = DocIdSet.of(a);
+        DocIdSet setB = DocIdSet.of(b);
+
+        TreeSet<Long> union = toSet(a);
+        union.addAll(toSet(b));
+        TreeSet<Long> intersection = toSet(a);
+        intersection.retainAll(toSet(b));
+        TreeSet<Long> difference = toSet(a);
+        difference.removeAll(toSet(b));
+
+        assertEquals(setA.toArray(), toArray(toSet(a)));
+        assertEquals(setA.or(setB).toArray(), toArray(union));
+        assertEquals(setA.and(setB).toArray(), toArray(intersection));
+        assertEquals(setA.andNot(setB).toArray(), toArray(difference));
+        assertEquals(setB.andNot(setA).getCardinality(), union.size() - setA.getCardinality());
+
+        TreeSet<Long> inA = toSet(a);
+        for (long id : b) {
+            assertTrue(setB.contains(id));
+            assertEquals(setA.contains(id), inA.contains(id));
+        }
+    }
+
+    @Test
+    public void testUnsignedOrder() throws Exception {
+        DocIdSet set = DocIdSet.of(-1L, 5, Long.MIN_VALUE, 5, 70000);
+
+        assertEquals(set.getCardinality(), 4);
+        assertEquals(set.toArray(), new long[] { 5, 70000, Long.MIN_VALUE, -1L });
+        assertTrue(set.contains(-1L));
+        assertFalse(set.contains(6));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        DocIdSet set = DocIdSet.of(1, 2, 3);
+
+        assertTrue(set.andNot(set).isEmpty());
+        assertEquals(set.and(DocIdSet.EMPTY), DocIdSet.EMPTY);
+        assertEquals(set.or(DocIdSet.EMPTY), set);
+    }
+}
@@ -0,0 +1,117 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import static org.testng.Assert.*;
+
+/**
+ * FacetQueryTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class FacetQueryTest {
+
+    /**
+     * Encodes a group-by result, with a string attribute in front of the group key and count.
+     */
+    private static void writeGroups(DataOutputStream out, int keyType, long[] keys, long[] counts) throws Exception {
+        out.writeInt(SphinxClient.SEARCHD_OK);
+        out.writeInt(0);            // fields
+        out.writeInt(3);
+        SphinxClient.writeNetUTF8(out, "title");
+        out.writeInt(SphinxClient.SPH_ATTR_STRING);
+        SphinxClient.writeNetUTF8(out, "@groupby");
+        out.writeInt(keyType);
+        SphinxClient.writeNetUTF8(out, "@count");
+        out.writeInt(SphinxClient.SPH_ATTR_INTEGER);
+
+        out.writeInt(keys.length);
+        out.writeInt(1);            // 64-bit ids
+        for (int i = 0; i < keys.length; i++) {
+            out.writeLong(i + 1);
+            out.writeInt(1);
+            SphinxClient.writeNetUTF8(out, "document " + i);
+            switch (keyType) {
+                case SphinxClient.SPH_ATTR_BIGINT:  out.writeLong(keys[i]); break;
+                case SphinxClient.SPH_ATTR_STRING:  SphinxClient.writeNetUTF8(out, String.valueOf(keys[i])); break;
+                case SphinxClient.SPH_ATTR_MULTI:   out.writeInt(1); out.writeInt((int) keys[i]); break;
+                case SphinxClient.SPH_ATTR_MULTI64: out.writeInt(2); out.writeLong(keys[i]); break;
+                default:                            out.writeInt((int) keys[i]);
+            }
+            out.writeInt((int) counts[i]);
+        }
+
+        out.writeInt(keys.length);
+        out.writeInt(keys.length + 5);
+        out.writeInt(0);
+        out.writeInt(0);            // words
+    }
+
+    @Test
+    public void testRequests() throws Exception {
+        FacetQuery query = FacetQuery.of(SearchRequest.builder().query("hello").index("products").build(), 5, "brand_id", "category_id");
+        SearchRequest[] requests = query.getRequests();
+
+        assertEquals(requests.length, 2);
+        assertEquals(requests[1].getGroupBy(), "category_id");
+        assertEquals(requests[1].getGroupFunc(), SphinxClient.SPH_GROUPBY_ATTR);
+        assertEquals(requests[1].getGroupSort(), "@count desc");
+        assertEquals(requests[1].getLimit(), 5);
+        assertEquals(requests[1].getQuery(), "hello");
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        writeGroups(out, SphinxClient.SPH_ATTR_INTEGER, new long[] { 3000000000L, 7 }, new long[] { 12, 4 });
+        writeGroups(out, SphinxClient.SPH_ATTR_BIGINT, new long[] { 1L << 40 }, new long[] { 9 });
+        out.flush();
+
+        FacetQuery query = FacetQuery.of(SearchRequest.builder().build(), "brand_id", "category_id");
+        Facet[] facets = query.decode(new SearchResponse(buf.toByteArray(), 2));
+
+        assertEquals(facets[0].getAttribute(), "brand_id");
+        assertEquals(facets[0].getKeys(), new long[] { 3000000000L, 7 });
+        assertEquals(facets[0].getCounts(), new long[] { 12, 4 });
+        assertEquals(facets[0].getCountOf(7), 4);
+        assertEquals(facets[0].getTotalFound(), 7);
+
+        assertEquals(facets[1].size(), 1);
+        assertEquals(facets[1].getKey(0), 1L << 40);
+        assertEquals(facets[1].getCount(0), 9);
+    }
+
+    @Test
+    public void testUnsupportedKeyType() throws Exception {
+        int[] types = { SphinxClient.SPH_ATTR_FLOAT, SphinxClient.SPH_ATTR_STRING, SphinxClient.SPH_ATTR_MULTI, SphinxClient.SPH_ATTR_MULTI64 };
+        for (int type : types) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            writeGroups(out, type, new long[] { 1 }, new long[] { 3 });
+            out.flush();
+
+            try {
+                FacetQuery.of(SearchRequest.builder().build(), "price").decode(new SearchResponse(buf.toByteArray(), 1));
+                fail("Key type " + type + " should have been rejected");
+            } catch (SphinxException e) {
+                assertTrue(e.getMessage().contains("unsupported group key type"), e.getMessage());
+            }
+        }
+    }
+
+    @Test(expectedExceptions = SphinxException.class)
+    public void testFailedFacet() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        out.writeInt(SphinxClient.SEARCHD_ERROR);
+        SphinxClient.writeNetUTF8(out, "unknown attribute");
+        out.flush();
+
+        FacetQuery.of(SearchRequest.builder().build(), "brand_id").decode(new SearchResponse(buf.toByteArray(), 1));
+    }
+}
@@ -0,0 +1,143 @@
+package org.sphinx.api;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Minimal in-process searchd, speaking just enough of the protocol to test the client over a real socket.
+ *
+ * Every request received is recorded. Each request other than a persistent connection request is answered
+ * with the next queued reply: an Integer is sent as an OK reply holding that int, a String as a SEARCHD_ERROR
+ * reply with that message. When no reply is queued the connection is dropped.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class FakeSearchd implements Closeable {
+
+    public static final int COMMAND_PERSIST = 4;
+
+    private final ServerSocket server;
+    private final Queue<Object> replies = new ConcurrentLinkedQueue<Object>();
+    private final List<Request> requests = new CopyOnWriteArrayList<Request>();
+
+    public FakeSearchd() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+        start(new Runnable() {
+            public void run() {
+                try {
+                    while (true) {
+                        final Socket socket = server.accept();
+                        start(new Runnable() {
+                            public void run() {
+                                try {
+                                    serve(socket);
+                                } catch (IOException e) {
+                                    // connection lost
+                                }
+                            }
+                        });
+                    }
+                } catch (IOException e) {
+                    // server closed
+                }
+            }
+        });
+    }
+
+    private static void start(Runnable runnable) {
+        Thread thread = new Thread(runnable, "sphinx-fake-searchd");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public FakeSearchd reply(Object... replies) {
+        for (Object reply : replies) {
+            this.replies.add(reply);
+        }
+        return this;
+    }
+
+    public List<Request> getRequests() {
+        return requests;
+    }
+
+    private void serve(Socket socket) throws IOException {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            out.writeInt(1);
+            out.flush();
+            in.readInt();
+
+            while (true) {
+                int command = in.readUnsignedShort();
+                int version = in.readUnsignedShort();
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                requests.add(new Request(command, version, body));
+
+                if (command == COMMAND_PERSIST) continue;
+
+                Object reply = replies.poll();
+                if (reply instanceof Integer) {
+                    out.writeShort(SphinxClient.SEARCHD_OK);
+                    out.writeShort(0);
+                    out.writeInt(4);
+                    out.writeInt((Integer) reply);
+
+                } else if (reply instanceof String) {
+                    byte[] message = ((String) reply).getBytes("UTF-8");
+                    out.writeShort(SphinxClient.SEARCHD_ERROR);
+                    out.writeShort(0);
+                    out.writeInt(4 + message.length);
+                    out.writeInt(message.length);
+                    out.write(message);
+
+                } else {
+                    return;
+                }
+                out.flush();
+            }
+
+        } catch (EOFException e) {
+            // client hung up
+
+        } finally {
+            socket.close();
+        }
+    }
+
+    public void close() throws IOException {
+        server.close();
+    }
+
+
+    public static final class Request {
+        public final int command;
+        public final int version;
+        public final byte[] body;
+
+        private Request(int command, int version, byte[] body) {
+            this.command = command;
+            this.version = version;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * NetUTF8Test
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class NetUTF8Test {
+
+    private static final String[] STRINGS = new String[] {
+            "", "price", "hello wörld", "€100", "😀 emoji", "lone \ud83d surrogate", "trailing \ude00"
+    };
+
+    @Test
+    public void testEncodeMatchesGetBytes() throws Exception {
+        for (String s : STRINGS) {
+            byte[] expected = s.getBytes("UTF-8");
+
+            assertEquals(NetUTF8.encodedLength(s), expected.length, s);
+
+            byte[] encoded = new byte[expected.length + 2];
+            assertEquals(NetUTF8.encode(s, encoded, 1), expected.length + 1, s);
+            assertEquals(Arrays.copyOfRange(encoded, 1, expected.length + 1), expected, s);
+        }
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        for (String s : STRINGS) {
+            byte[] bytes = s.getBytes("UTF-8");
+            assertEquals(NetUTF8.decode(bytes, 0, bytes.length), new String(bytes, "UTF-8"));
+        }
+    }
+
+    @Test
+    public void testIntern() throws Exception {
+        StringInterner interner = new StringInterner(16, 8);
+        byte[] packet = "xxpricexxprice".getBytes("UTF-8");
+
+        String first = interner.intern(packet, 2, 5);
+        assertEquals(first, "price");
+        assertSame(interner.intern(packet, 9, 5), first);
+
+        // longer than max length, decoded but not cached
+        byte[] longer = "price_with_discount".getBytes("UTF-8");
+        assertNotSame(interner.intern(longer, 0, longer.length), interner.intern(longer, 0, longer.length));
+    }
+}
@@ -0,0 +1,67 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * PacketBufferTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class PacketBufferTest {
+
+    @Test
+    public void testBuffersAreReused() throws Exception {
+        PacketBuffer buffers = new PacketBuffer(16, 1024);
+
+        PacketBuffer.Output output = buffers.output();
+        output.write(new byte[100]);
+        byte[] array = output.array();
+
+        assertSame(buffers.output(), output);
+        assertEquals(output.size(), SphinxClient.PACKET_HEADER_SIZE, "Request buffer should be emptied, keeping space for the header");
+        output.write(new byte[50]);
+        assertSame(output.array(), array, "Backing array should be kept");
+
+        PacketBuffer.Input input = buffers.input(200);
+        byte[] response = input.array();
+        assertSame(buffers.input(100).array(), response);
+        assertEquals(input.length(), 100);
+    }
+
+    @Test
+    public void testTrimOversizedBuffers() throws Exception {
+        PacketBuffer buffers = new PacketBuffer(16, 8 * 1024);
+
+        buffers.output().write(new byte[64 * 1024]);
+        buffers.input(64 * 1024);
+        assertTrue(buffers.getRetainedSize() >= 128 * 1024);
+
+        buffers.trim();
+        assertTrue(buffers.getRetainedSize() <= 16 * 1024, "Buffers should be trimmed to the retention limit");
+        assertEquals(buffers.request().size(), 0);
+    }
+
+    @Test
+    public void testQueriesKeptUntilCleared() throws Exception {
+        PacketBuffer buffers = new PacketBuffer(16, 1024);
+
+        PacketBuffer.Output queries = buffers.queries();
+        queries.write(new byte[100]);
+
+        // releasing the connection must not drop queries that have not been sent yet
+        buffers.trim();
+        assertEquals(buffers.queries().size(), 100);
+
+        queries.write(new byte[50]);
+        byte[] array = queries.array();
+        queries.truncate(100);
+        assertEquals(queries.size(), 100, "Partly written query should be discarded");
+
+        buffers.clearQueries();
+        assertEquals(queries.size(), 0);
+        assertSame(buffers.queries().array(), array, "Backing array should be kept");
+    }
+}
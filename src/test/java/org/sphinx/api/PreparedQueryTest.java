@@ -0,0 +1,47 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * PreparedQueryTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class PreparedQueryTest {
+
+    private SearchRequest.Builder template() {
+        return SearchRequest.builder()
+                .index("products")
+                .rankingMode(SphinxClient.SPH_RANK_EXPR, "sum(lcs)")
+                .sortMode(SphinxClient.SPH_SORT_ATTR_DESC, "created")
+                .filterRange("price", 10, 100, false)
+                .groupBy("category_id", SphinxClient.SPH_GROUPBY_ATTR)
+                .select("*, price * 2 AS double_price");
+    }
+
+    @Test
+    public void testBindMatchesBuiltRequest() throws Exception {
+        PreparedQuery prepared = PreparedQuery.prepare(template().build(), "tenant_id", "status");
+        SearchRequest bound = prepared.bind("hello wörld", 40, 20, new long[][] { { 42 }, { 1, 2 } });
+
+        SearchRequest built = template()
+                .query("hello wörld")
+                .limits(40, 20)
+                .filter("tenant_id", 42, false)
+                .filter("status", new long[] { 1, 2 }, false)
+                .build();
+
+        assertEquals(bound.getEncoded(), built.getEncoded());
+        assertEquals(bound.getQuery(), "hello wörld");
+        assertEquals(bound.getOffset(), 40);
+        assertEquals(bound.getFilters().size(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBindWrongSlotCount() throws Exception {
+        PreparedQuery.prepare(template().build(), "tenant_id").bind("hello", 0, 20);
+    }
+}
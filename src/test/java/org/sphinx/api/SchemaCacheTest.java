@@ -0,0 +1,118 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+/**
+ * SchemaCacheTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SchemaCacheTest {
+
+    /**
+     * Encodes a schema with title and body fields, followed by a single match.
+     */
+    private static byte[] response(String... attrNames) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+
+        out.writeInt(2);
+        SphinxClient.writeNetUTF8(out, "title");
+        SphinxClient.writeNetUTF8(out, "body");
+
+        int[] types = { SphinxClient.SPH_ATTR_INTEGER, SphinxClient.SPH_ATTR_FLOAT, SphinxClient.SPH_ATTR_STRING, SphinxClient.SPH_ATTR_MULTI };
+        out.writeInt(attrNames.length);
+        for (int i = 0; i < attrNames.length; i++) {
+            SphinxClient.writeNetUTF8(out, attrNames[i]);
+            out.writeInt(types[i]);
+        }
+
+        out.writeInt(-1);           // unsigned integer
+        out.writeFloat(1.5f);
+        SphinxClient.writeNetUTF8(out, "red");
+        out.writeInt(2);            // multi-value count
+        out.writeInt(7);
+        out.writeInt(9);
+        out.flush();
+        return buf.toByteArray();
+    }
+
+    private static PacketBuffer.Reader reader(byte[] response) {
+        PacketBuffer.Input input = new PacketBuffer().input(response.length);
+        System.arraycopy(response, 0, input.array(), 0, response.length);
+        return new PacketBuffer.Reader(input);
+    }
+
+    @Test
+    public void testSchemaIsShared() throws Exception {
+        SchemaCache cache = new SchemaCache(16, 1024);
+        byte[] response = response("size", "price", "color", "tags");
+
+        PacketBuffer.Reader first = reader(response);
+        SphinxSchema schema = cache.read(first);
+        PacketBuffer.Reader second = reader(response);
+
+        assertSame(cache.read(second), schema);
+        assertEquals(second.position(), first.position(), "Cached schema should be skipped over");
+        assertEquals(schema.getFields(), new String[] { "title", "body" });
+        assertEquals(schema.getColumn("color"), 2);
+        assertEquals(schema.getColumn("missing"), -1);
+
+        assertFalse(cache.read(reader(response("size", "price", "colour", "tags"))) == schema, "Different schema should not be shared");
+    }
+
+    @Test
+    public void testDecodeAttributes() throws Exception {
+        PacketBuffer.Reader in = reader(response("size", "price", "color", "tags"));
+        SphinxSchema schema = new SchemaCache(16, 1024).read(in);
+
+        SphinxMatch match = new SphinxMatch(1, 1, 4);
+        schema.readAttributes(in, match);
+
+        assertEquals(schema.getAttribute("size").getLong(match), 4294967295L);
+        assertEquals(schema.getAttribute("price").getFloat(match), 1.5f);
+        assertEquals(schema.getAttribute("color").getString(match), "red");
+        assertEquals(schema.getAttribute("tags").getMulti(match), new long[] { 7, 9 });
+        assertTrue(schema.getAttribute("tags").isMulti());
+        assertEquals(in.available(), 0);
+    }
+
+    @Test
+    public void testTruncatedSchema() throws Exception {
+        byte[] response = response("size");
+        byte[] truncated = new byte[10];
+        System.arraycopy(response, 0, truncated, 0, truncated.length);
+
+        assertEquals(SchemaCache.extent(truncated, 0, truncated.length), -1);
+
+        // other streams are decoded without caching
+        SphinxSchema schema = new SchemaCache(16, 1024).read(new DataInputStream(new ByteArrayInputStream(response)));
+        assertEquals(schema.getAttrNames(), new String[] { "size" });
+    }
+
+    @Test
+    public void testResultArraysAreCopies() throws Exception {
+        SphinxSchema schema = new SchemaCache(16, 1024).read(reader(response("size", "price")));
+
+        SphinxResult result = new SphinxResult();
+        result.setSchema(schema);
+        result.attrNames[0] = "changed";
+        result.attrTypes[0] = SphinxClient.SPH_ATTR_STRING;
+        result.fields[0] = "changed";
+        schema.getAttrNames()[1] = "changed";
+
+        assertEquals(schema.getAttrNames(), new String[] { "size", "price" });
+        assertEquals(schema.getAttrTypes()[0], SphinxClient.SPH_ATTR_INTEGER);
+        assertEquals(schema.getFields(), new String[] { "title", "body" });
+        assertEquals(schema.getColumn("size"), 0);
+    }
+}
@@ -0,0 +1,281 @@
+package org.sphinx.api;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * SearchRequestTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SearchRequestTest {
+
+    private static final int COMMAND_SEARCH = 0;
+
+    private FakeSearchd searchd;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        searchd = new FakeSearchd();
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        searchd.close();
+    }
+
+    /**
+     * Returns the body of the last search request received by the fake searchd.
+     */
+    private byte[] lastSearch() {
+        List<FakeSearchd.Request> requests = searchd.getRequests();
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            if (requests.get(i).command == COMMAND_SEARCH) return requests.get(i).body;
+        }
+        fail("No search request received");
+        return null;
+    }
+
+    /**
+     * Sends the queries added to the client, and returns the request as received by searchd.
+     */
+    private byte[] sent(SphinxClient client) throws Exception {
+        client.RunQueries();
+        return lastSearch();
+    }
+
+    private byte[] sent(SearchRequest request) throws Exception {
+        new SphinxClient("127.0.0.1", searchd.getPort()).RunQueries(request);
+        return lastSearch();
+    }
+
+    private SearchRequest.Builder fullRequest() {
+        Map<String, Integer> fieldWeights = new LinkedHashMap<String, Integer>();
+        fieldWeights.put("title", 10);
+        fieldWeights.put("body", 1);
+
+        Map<String, Integer> indexWeights = new LinkedHashMap<String, Integer>();
+        indexWeights.put("products", 2);
+
+        return SearchRequest.builder()
+                .query("hello world")
+                .index("products")
+                .comment("test")
+                .limits(10, 50, 500, 10000)
+                .maxQueryTime(300)
+                .rankingMode(SphinxClient.SPH_RANK_EXPR, "sum(lcs)")
+                .sortMode(SphinxClient.SPH_SORT_EXTENDED, "price desc, @id asc")
+                .weights(new int[] { 3, 1 })
+                .fieldWeights(fieldWeights)
+                .indexWeights(indexWeights)
+                .idRange(5, 100000)
+                .filter("tenant_id", 42, false)
+                .filter("status", new long[] { 1, 2, 3 }, true)
+                .filterRange("price", 10, 100, false)
+                .filterFloatRange("rating", 2.5f, 5f, false)
+                .geoAnchor("lat", "lng", 0.5f, 1.5f)
+                .groupBy("category_id", SphinxClient.SPH_GROUPBY_ATTR, "@count desc")
+                .groupDistinct("brand_id")
+                .retries(2, 50)
+                .select("*, price * 2 AS double_price");
+    }
+
+    /**
+     * Test that a request built with the defaults encodes to the same bytes as a query added with a new client.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDefaultsMatchAddQuery() throws Exception {
+        SphinxClient client = new SphinxClient("127.0.0.1", searchd.getPort());
+        client.AddQuery("hello", "*", "");
+
+        assertEquals(sent(SearchRequest.builder().query("hello").build()), sent(client));
+    }
+
+    /**
+     * Test that every setting is encoded to the same bytes as the equivalent client settings and AddQuery().
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSettingsMatchAddQuery() throws Exception {
+        Map<String, Integer> fieldWeights = new LinkedHashMap<String, Integer>();
+        fieldWeights.put("title", 10);
+        fieldWeights.put("body", 1);
+
+        Map<String, Integer> indexWeights = new LinkedHashMap<String, Integer>();
+        indexWeights.put("products", 2);
+
+        SphinxClient client = new SphinxClient("127.0.0.1", searchd.getPort());
+        client.SetLimits(10, 50, 500, 10000);
+        client.SetMaxQueryTime(300);
+        client.SetRankingMode(SphinxClient.SPH_RANK_EXPR, "sum(lcs)");
+        client.SetSortMode(SphinxClient.SPH_SORT_EXTENDED, "price desc, @id asc");
+        client.SetWeights(new int[] { 3, 1 });
+        client.SetFieldWeights(fieldWeights);
+        client.SetIndexWeights(indexWeights);
+        client.SetIDRange(5, 100000);
+        client.SetFilter("tenant_id", 42, false);
+        client.SetFilter("status", new long[] { 1, 2, 3 }, true);
+        client.SetFilterRange("price", 10, 100, false);
+        client.SetFilterFloatRange("rating", 2.5f, 5f, false);
+        client.SetGeoAnchor("lat", "lng", 0.5f, 1.5f);
+        client.SetGroupBy("category_id", SphinxClient.SPH_GROUPBY_ATTR, "@count desc");
+        client.SetGroupDistinct("brand_id");
+        client.SetRetries(2, 50);
+        client.SetSelect("*, price * 2 AS double_price");
+        client.AddQuery("hello world", "products", "test");
+
+        assertEquals(sent(fullRequest().build()), sent(client));
+    }
+
+    /**
+     * Test that several requests are sent as one multi-query in the same order as added queries.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testMultiQueryMatchesAddQuery() throws Exception {
+        SphinxClient client = new SphinxClient("127.0.0.1", searchd.getPort());
+        client.AddQuery("first", "*", "");
+        client.SetLimits(20, 20);
+        client.AddQuery("second", "*", "");
+
+        SphinxClient requestClient = new SphinxClient("127.0.0.1", searchd.getPort());
+        requestClient.RunQueries(SearchRequest.builder().query("first").build(), SearchRequest.builder().query("second").limits(20, 20).build());
+        byte[] requests = lastSearch();
+
+        assertEquals(requests, sent(client));
+    }
+
+    /**
+     * Test that a request copied with toBuilder() encodes to the same bytes and keeps all settings.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testToBuilderRoundTrip() throws Exception {
+        SearchRequest request = fullRequest().build();
+        SearchRequest copy = request.toBuilder().build();
+
+        assertEquals(copy.getEncoded(), request.getEncoded());
+        assertEquals(copy.getQuery(), "hello world");
+        assertEquals(copy.getIndex(), "products");
+        assertEquals(copy.getOffset(), 10);
+        assertEquals(copy.getLimit(), 50);
+        assertEquals(copy.getMaxMatches(), 500);
+        assertEquals(copy.getCutoff(), 10000);
+        assertEquals(copy.getSortBy(), "price desc, @id asc");
+        assertEquals(copy.getMinId(), 5);
+        assertEquals(copy.getMaxId(), 100000);
+        assertEquals(copy.getFilters().size(), 4);
+        assertEquals(copy.getFieldWeights(), request.getFieldWeights());
+        assertEquals(copy.getIndexWeights(), request.getIndexWeights());
+        assertEquals(copy.getGroupBy(), "category_id");
+        assertEquals(copy.getSelect(), "*, price * 2 AS double_price");
+    }
+
+    /**
+     * Test that deriving a request changes only the derived copy.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testToBuilderDerivesNewRequest() throws Exception {
+        SearchRequest request = fullRequest().build();
+        byte[] encoded = request.getEncoded().clone();
+
+        SearchRequest next = request.toBuilder().limits(60, 50).filter("in_stock", 1, false).build();
+
+        assertEquals(next.getEncoded(), fullRequest().limits(60, 50).filter("in_stock", 1, false).build().getEncoded());
+        assertEquals(next.getFilters().size(), 5);
+
+        assertEquals(request.getEncoded(), encoded);
+        assertEquals(request.getOffset(), 10);
+        assertEquals(request.getFilters().size(), 4);
+    }
+
+    /**
+     * Test that 64-bit id ranges are sent when the ids do not fit in 32 bits.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testWideIdRange() throws Exception {
+        byte[] narrow = SearchRequest.builder().idRange(1, 2).build().getEncoded();
+        byte[] wide = SearchRequest.builder().idRange(1, 1L << 40).build().getEncoded();
+
+        assertEquals(wide.length, narrow.length + 8);
+        assertFalse(Arrays.equals(wide, narrow));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testFiltersUnmodifiable() throws Exception {
+        fullRequest().build().getFilters().clear();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeOffset() throws Exception {
+        SearchRequest.builder().limits(-1, 20);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroLimit() throws Exception {
+        SearchRequest.builder().limits(0, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testEmptyIndex() throws Exception {
+        SearchRequest.builder().index("");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownRanker() throws Exception {
+        SearchRequest.builder().rankingMode(SphinxClient.SPH_RANK_TOTAL, null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSortModeWithoutSortBy() throws Exception {
+        SearchRequest.builder().sortMode(SphinxClient.SPH_SORT_ATTR_DESC, "");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonPositiveWeight() throws Exception {
+        SearchRequest.builder().weights(new int[] { 1, 0 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvertedIdRange() throws Exception {
+        SearchRequest.builder().idRange(10, 5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testEmptyFilterValues() throws Exception {
+        SearchRequest.builder().filter("tenant_id", new long[0], false);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvertedFilterRange() throws Exception {
+        SearchRequest.builder().filterRange("price", 100, 10, false);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownGroupFunc() throws Exception {
+        SearchRequest.builder().groupBy("category_id", 99);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNullSelect() throws Exception {
+        SearchRequest.builder().select(null);
+    }
+}
@@ -0,0 +1,132 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import static org.testng.Assert.*;
+
+/**
+ * SearchResponseTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SearchResponseTest {
+
+    @Test
+    public void testDecode() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+
+        // successful result with a single match
+        out.writeInt(SphinxClient.SEARCHD_OK);
+        out.writeInt(1);
+        SphinxClient.writeNetUTF8(out, "title");
+        out.writeInt(1);
+        SphinxClient.writeNetUTF8(out, "price");
+        out.writeInt(SphinxClient.SPH_ATTR_INTEGER);
+        out.writeInt(1);            // matches
+        out.writeInt(1);            // 64-bit ids
+        out.writeLong(42);
+        out.writeInt(7);            // weight
+        out.writeInt(100);          // price
+        out.writeInt(1);            // total
+        out.writeInt(1);            // total found
+        out.writeInt(5);            // time in msec
+        out.writeInt(1);            // words
+        SphinxClient.writeNetUTF8(out, "hello");
+        out.writeInt(1);
+        out.writeInt(2);
+
+        // failed result
+        out.writeInt(SphinxClient.SEARCHD_ERROR);
+        SphinxClient.writeNetUTF8(out, "unknown index");
+        out.flush();
+
+        SphinxResult[] results = new SearchResponse(buf.toByteArray(), 2).decode();
+
+        assertEquals(results.length, 2);
+        assertEquals(results[0].matches[0].docId, 42);
+        assertEquals(results[0].schema.getAttribute("price").getLong(results[0].matches[0]), 100);
+        assertEquals(results[0].words[0].word, "hello");
+        assertEquals(results[0].time, 0.005f);
+        assertEquals(results[1].getStatus(), SphinxClient.SEARCHD_ERROR);
+        assertEquals(results[1].error, "unknown index");
+    }
+
+    /**
+     * Encodes a result with string and multi-valued attributes, which are skipped over when scanning.
+     */
+    private static void writeResult(DataOutputStream out, long docId, String color) throws Exception {
+        out.writeInt(SphinxClient.SEARCHD_WARNING);
+        SphinxClient.writeNetUTF8(out, "slow query");
+        out.writeInt(0);            // fields
+        out.writeInt(2);
+        SphinxClient.writeNetUTF8(out, "color");
+        out.writeInt(SphinxClient.SPH_ATTR_STRING);
+        SphinxClient.writeNetUTF8(out, "tags");
+        out.writeInt(SphinxClient.SPH_ATTR_MULTI64);
+        out.writeInt(2);            // matches
+        out.writeInt(0);            // 32-bit ids
+        for (int i = 0; i < 2; i++) {
+            out.writeInt((int) docId + i);
+            out.writeInt(1);
+            SphinxClient.writeNetUTF8(out, color);
+            out.writeInt(4);        // two 64-bit values, counted in dwords
+            out.writeLong(docId);
+            out.writeLong(-1);
+        }
+        out.writeInt(2);
+        out.writeInt(2);
+        out.writeInt(0);
+        out.writeInt(0);            // words
+    }
+
+    @Test
+    public void testDecodeParallel() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        for (int i = 0; i < 5; i++) {
+            writeResult(out, i * 100, "color-" + i);
+        }
+        out.writeInt(SphinxClient.SEARCHD_ERROR);
+        SphinxClient.writeNetUTF8(out, "unknown index");
+        out.flush();
+
+        SearchResponse response = new SearchResponse(buf.toByteArray(), 6);
+        SphinxResult[] parallel = response.decodeParallel();
+
+        assertEquals(parallel.length, 6);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(parallel[i].warning, "slow query");
+            assertEquals(parallel[i].matches[1].docId, i * 100 + 1);
+            assertEquals(parallel[i].schema.getAttribute("color").getString(parallel[i].matches[1]), "color-" + i);
+            assertEquals(parallel[i].schema.getAttribute("tags").getMulti(parallel[i].matches[1]), new long[] { i * 100, -1 });
+        }
+        assertEquals(parallel[5].error, "unknown index");
+
+        assertEquals(response.decode(3).matches[0].docId, 300);
+        assertEquals(response.decode(5).getStatus(), SphinxClient.SEARCHD_ERROR);
+    }
+
+    @Test
+    public void testDecodeIds() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        writeResult(out, 300, "red");
+        writeResult(out, 100, "blue");
+        out.flush();
+
+        DocIdSet ids = new SearchResponse(buf.toByteArray(), 2).decodeIds(1);
+
+        assertEquals(ids.getCardinality(), 2);
+        assertEquals(ids.toArray(), new long[] { 100, 101 });
+    }
+
+    @Test(expectedExceptions = SphinxException.class)
+    public void testIncompleteResponse() throws Exception {
+        new SearchResponse(new byte[] { 0, 0, 0, 0 }, 1).decode();
+    }
+}
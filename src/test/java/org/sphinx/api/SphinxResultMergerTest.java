@@ -0,0 +1,118 @@
+package org.sphinx.api;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+/**
+ * SphinxResultMergerTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class SphinxResultMergerTest {
+
+    private static final SphinxSchema SCHEMA = new SphinxSchema(
+            new String[] { "title" },
+            new String[] { "price" },
+            new int[] { SphinxClient.SPH_ATTR_INTEGER });
+
+    private static final SphinxSchema GROUP_SCHEMA = new SphinxSchema(
+            new String[] { "title" },
+            new String[] { "category_id", "@groupby", "@count" },
+            new int[] { SphinxClient.SPH_ATTR_INTEGER, SphinxClient.SPH_ATTR_INTEGER, SphinxClient.SPH_ATTR_INTEGER });
+
+    @SuppressWarnings("unchecked")
+    private static SphinxMatch match(long docId, int weight, long... values) {
+        SphinxMatch match = new SphinxMatch(docId, weight);
+        for (long value : values) {
+            match.attrValues.add(value);
+        }
+        return match;
+    }
+
+    private static SphinxResult result(SphinxSchema schema, int totalFound, SphinxMatch... matches) {
+        SphinxResult result = new SphinxResult();
+        result.setStatus(SphinxClient.SEARCHD_OK);
+        result.setSchema(schema);
+        result.matches = matches;
+        result.total = matches.length;
+        result.totalFound = totalFound;
+        result.words = new SphinxWordInfo[] { new SphinxWordInfo("hello", totalFound, totalFound * 2) };
+        return result;
+    }
+
+    @Test
+    public void testTopMatchesByWeight() throws Exception {
+        SearchRequest request = SearchRequest.builder().query("hello").limits(1, 3).build();
+
+        SphinxResult merged = SphinxResultMerger.merge(request, Arrays.asList(
+                result(SCHEMA, 10, match(1, 90, 10), match(2, 50, 20), match(3, 10, 30)),
+                result(SCHEMA, 20, match(4, 80, 40), match(5, 70, 50), match(6, 5, 60))
+        ), Collections.<String>emptyList());
+
+        assertEquals(merged.getStatus(), SphinxClient.SEARCHD_OK);
+        assertEquals(merged.matches.length, 3);
+        assertEquals(merged.matches[0].docId, 4);
+        assertEquals(merged.matches[1].docId, 5);
+        assertEquals(merged.matches[2].docId, 2);
+        assertEquals(merged.totalFound, 30);
+        assertEquals(merged.words[0].docs, 30);
+        assertEquals(merged.words[0].hits, 60);
+    }
+
+    @Test
+    public void testTopMatchesByAttribute() throws Exception {
+        SearchRequest request = SearchRequest.builder().sortMode(SphinxClient.SPH_SORT_EXTENDED, "price ASC, @id DESC").limits(0, 2).build();
+
+        SphinxResult merged = SphinxResultMerger.merge(request, Arrays.asList(
+                result(SCHEMA, 2, match(1, 1, 30), match(2, 1, 20)),
+                result(SCHEMA, 2, match(3, 1, 20), match(4, 1, 40))
+        ), Collections.<String>emptyList());
+
+        assertEquals(merged.matches[0].docId, 3);
+        assertEquals(merged.matches[1].docId, 2);
+    }
+
+    @Test
+    public void testMergeGroups() throws Exception {
+        SearchRequest request = SearchRequest.builder().groupBy("category_id", SphinxClient.SPH_GROUPBY_ATTR, "@count desc").build();
+
+        SphinxResult merged = SphinxResultMerger.merge(request, Arrays.asList(
+                result(GROUP_SCHEMA, 5, match(1, 1, 7, 7, 3), match(2, 1, 8, 8, 2)),
+                result(GROUP_SCHEMA, 5, match(3, 1, 8, 8, 4), match(4, 1, 9, 9, 1))
+        ), Collections.<String>emptyList());
+
+        SphinxAttribute groupBy = merged.schema.getAttribute("@groupby");
+        SphinxAttribute count = merged.schema.getAttribute("@count");
+
+        assertEquals(merged.matches.length, 3);
+        assertEquals(groupBy.getLong(merged.matches[0]), 8);
+        assertEquals(count.getLong(merged.matches[0]), 6);
+        assertEquals(groupBy.getLong(merged.matches[1]), 7);
+        assertEquals(groupBy.getLong(merged.matches[2]), 9);
+    }
+
+    @Test
+    public void testPartialResult() throws Exception {
+        SearchRequest request = SearchRequest.builder().build();
+
+        SphinxResult failed = new SphinxResult();
+        failed.setStatus(SphinxClient.SEARCHD_ERROR);
+        failed.error = "unknown index";
+
+        SphinxResult merged = SphinxResultMerger.merge(request,
+                Arrays.asList(result(SCHEMA, 1, match(1, 1, 10)), failed),
+                Collections.singletonList("shard 2 timed out after 500 ms"));
+
+        assertEquals(merged.getStatus(), SphinxClient.SEARCHD_WARNING);
+        assertEquals(merged.matches.length, 1);
+        assertTrue(merged.warning.contains("2 of 3 shards failed"), merged.warning);
+
+        SphinxResult none = SphinxResultMerger.merge(request, Arrays.asList(failed), Collections.<String>emptyList());
+        assertEquals(none.getStatus(), SphinxClient.SEARCHD_ERROR);
+    }
+}
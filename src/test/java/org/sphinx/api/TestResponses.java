@@ -0,0 +1,46 @@
+package org.sphinx.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Builds undecoded search responses for tests outside of the api package.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class TestResponses {
+
+    private TestResponses() {
+    }
+
+    /**
+     * Returns a response of successful queries without matches.
+     *
+     * @param count number of results
+     * @return search response
+     */
+    public static SearchResponse empty(int count) {
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            for (int i = 0; i < count; i++) {
+                out.writeInt(SphinxClient.SEARCHD_OK);
+                out.writeInt(0);    // fields
+                out.writeInt(0);    // attributes
+                out.writeInt(0);    // matches
+                out.writeInt(1);    // 64-bit ids
+                out.writeInt(0);    // total
+                out.writeInt(0);    // total found
+                out.writeInt(0);    // time
+                out.writeInt(0);    // words
+            }
+            out.flush();
+            return new SearchResponse(buf.toByteArray(), count);
+
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
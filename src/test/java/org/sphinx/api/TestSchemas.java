@@ -0,0 +1,24 @@
+package org.sphinx.api;
+
+/**
+ * Builds result schemas for tests outside of the api package.
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public final class TestSchemas {
+
+    private TestSchemas() {
+    }
+
+    /**
+     * Returns a schema without fields, with the given attributes.
+     *
+     * @param attrNames attribute names
+     * @param attrTypes attribute types
+     * @return schema
+     */
+    public static SphinxSchema of(String[] attrNames, int[] attrTypes) {
+        return new SphinxSchema(new String[0], attrNames, attrTypes);
+    }
+}
@@ -0,0 +1,141 @@
+package org.sphinx.api;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * UpdateAttributesMVATest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class UpdateAttributesMVATest {
+
+    private static final String[] ATTRS = new String[] { "tags" };
+
+    /* index (4 + 3) + attr count + ignore flag + attr name (4 + 4) + attr type */
+    private static final int HEADER_SIZE = 27;
+
+    /* docid + value count + one value */
+    private static final int DOC_SIZE = 16;
+
+    private FakeSearchd searchd;
+    private SphinxClient client;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        searchd = new FakeSearchd();
+        client = new SphinxClient("127.0.0.1", searchd.getPort());
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        searchd.close();
+    }
+
+    private static long[] docids(int count) {
+        long[] docids = new long[count];
+        for (int i = 0; i < count; i++) {
+            docids[i] = i + 1;
+        }
+        return docids;
+    }
+
+    private static int[][][] values(int count) {
+        int[][][] values = new int[count][][];
+        for (int i = 0; i < count; i++) {
+            values[i] = new int[][] { { i } };
+        }
+        return values;
+    }
+
+    private static int docCount(FakeSearchd.Request request) {
+        return ByteBuffer.wrap(request.body).getInt(HEADER_SIZE);
+    }
+
+    /**
+     * Test that documents are split into as few requests as fit the max packet size, and that
+     * a request filled up to exactly the max packet size is not split.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testChunkBoundaries() throws Exception {
+        searchd.reply(2, 2, 1);
+
+        int maxPacketSize = HEADER_SIZE + 4 + 2 * DOC_SIZE;
+        assertEquals(client.UpdateAttributesMVA("idx", ATTRS, docids(5), values(5), false, maxPacketSize), 5);
+
+        List<FakeSearchd.Request> requests = searchd.getRequests();
+        assertEquals(requests.size(), 4);
+        assertEquals(requests.get(0).command, FakeSearchd.COMMAND_PERSIST);
+
+        assertEquals(docCount(requests.get(1)), 2);
+        assertEquals(requests.get(1).body.length, maxPacketSize);
+        assertEquals(docCount(requests.get(2)), 2);
+        assertEquals(docCount(requests.get(3)), 1);
+        assertEquals(requests.get(3).body.length, maxPacketSize - DOC_SIZE);
+    }
+
+    /**
+     * Test that a single document is never split, and is refused if it can't fit in one request.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testEntryExceedsMaxPacketSize() throws Exception {
+        try {
+            client.UpdateAttributesMVA("idx", ATTRS, docids(1), values(1), false, HEADER_SIZE + 4 + DOC_SIZE - 1);
+            fail("Entry larger than the max packet size should be refused");
+        } catch (SphinxException e) {
+            assertTrue(e.getMessage().contains("exceeds max packet size"));
+        }
+
+        assertEquals(searchd.getRequests().size(), 0);
+    }
+
+    /**
+     * Test that a failed request in the middle of the pipeline fails the whole call with the first error,
+     * and drops the persistent connection so later replies are not read as answers to the next call.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPartialFailure() throws Exception {
+        searchd.reply(2, "unknown attribute 'tags'", 1);
+
+        assertTrue(client.Open());
+        int maxPacketSize = HEADER_SIZE + 4 + 2 * DOC_SIZE;
+        assertEquals(client.UpdateAttributesMVA("idx", ATTRS, docids(5), values(5), false, maxPacketSize), -1);
+        assertEquals(client.GetLastError(), "searchd error: unknown attribute 'tags'");
+
+        assertFalse(client.Close(), "Connection should have been dropped");
+
+        // next call starts on a fresh connection
+        searchd.reply(1);
+        assertEquals(client.UpdateAttributesMVA("idx", ATTRS, docids(1), values(1), false, maxPacketSize), 1);
+    }
+
+    /**
+     * Test that a connection lost mid-pipeline fails the call and drops the persistent connection.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testConnectionLost() throws Exception {
+        searchd.reply(2);
+
+        assertTrue(client.Open());
+        int maxPacketSize = HEADER_SIZE + 4 + 2 * DOC_SIZE;
+        assertEquals(client.UpdateAttributesMVA("idx", ATTRS, docids(5), values(5), false, maxPacketSize), -1);
+        assertNotNull(client.GetLastError());
+
+        assertFalse(client.Close(), "Connection should have been dropped");
+    }
+}
@@ -0,0 +1,150 @@
+package org.sphinx.cache;
+
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DocumentLoaderTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class DocumentLoaderTest {
+
+    /**
+     * Scripted multi-query, returning a match for every even document id.
+     */
+    private static class ScriptedIndex implements Answer<SphinxResult[]> {
+        private final List<SearchRequest[]> batches = new ArrayList<SearchRequest[]>();
+        private volatile boolean fail;
+
+        public SphinxResult[] answer(InvocationOnMock invocation) throws Throwable {
+            Object[] args = invocation.getArguments();
+            SearchRequest[] requests = Arrays.copyOf(args, args.length, SearchRequest[].class);
+            synchronized (batches) {
+                batches.add(requests);
+            }
+            if (fail) throw new SphinxException("connection refused");
+
+            SphinxResult[] results = new SphinxResult[requests.length];
+            for (int i = 0; i < requests.length; i++) {
+                List<SphinxMatch> matches = new ArrayList<SphinxMatch>();
+                for (long id : requests[i].getFilters().get(0).getValues()) {
+                    if (id % 2 == 0) matches.add(new SphinxMatch(id, 1));
+                }
+                results[i] = new SphinxResult();
+                results[i].matches = matches.toArray(new SphinxMatch[matches.size()]);
+            }
+            return results;
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ScriptedIndex index;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        index = new ScriptedIndex();
+        when(dataSource.execute(Matchers.<SearchRequest[]>anyVararg())).thenAnswer(index);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    private DocumentLoader loader(int maxFilterSize, long batchWindowMillis) {
+        return new DocumentLoader(dataSource, SearchRequest.builder().index("products").build(), maxFilterSize, batchWindowMillis);
+    }
+
+    /**
+     * Test that lookups from several threads within the window are loaded in one multi-query.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBatchAcrossThreads() throws Exception {
+        final DocumentLoader loader = loader(3, 60000);
+        final List<CompletableFuture<SphinxMatch>> futures = new ArrayList<CompletableFuture<SphinxMatch>>();
+        final CountDownLatch started = new CountDownLatch(8);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            final long docId = i;
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    CompletableFuture<SphinxMatch> future = loader.load(docId);
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                    started.countDown();
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        loader.close();
+
+        // 8 ids in filters of at most 3, sent as a single multi-query
+        int found = 0;
+        for (CompletableFuture<SphinxMatch> future : futures) {
+            if (future.get() != null) found++;
+        }
+        assertEquals(found, 4);
+        assertEquals(index.batches.size(), 1);
+        assertEquals(index.batches.get(0).length, 3);
+        assertEquals(index.batches.get(0)[0].getFilters().get(0).getAttribute(), "@id");
+    }
+
+    @Test
+    public void testScopeCachesLookups() throws Exception {
+        DocumentLoader loader = loader(100, 1);
+
+        DocumentLoader.Scope scope = loader.newScope();
+        SphinxMatch first = scope.load(2).get(5, TimeUnit.SECONDS);
+        SphinxMatch second = scope.load(2).get(5, TimeUnit.SECONDS);
+
+        assertSame(first, second);
+        assertNull(scope.load(3).get(5, TimeUnit.SECONDS));
+        assertEquals(index.batches.size(), 2);
+
+        assertNotSame(loader.newScope().load(2).get(5, TimeUnit.SECONDS), first);
+        loader.close();
+    }
+
+    @Test
+    public void testFailedBatch() throws Exception {
+        DocumentLoader loader = loader(100, 1);
+        index.fail = true;
+
+        try {
+            loader.load(2).get(5, TimeUnit.SECONDS);
+            fail("expected the lookup to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SphinxException);
+        }
+        loader.close();
+    }
+}
@@ -0,0 +1,103 @@
+package org.sphinx.cache;
+
+import org.sphinx.api.ExcerptOptions;
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExcerptCacheTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class ExcerptCacheTest {
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ISphinxClient client = mock(ISphinxClient.class);
+
+    @BeforeMethod
+    public void setup() {
+        when(dataSource.getSphinxClient()).thenReturn(client);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource, client);
+    }
+
+    /**
+     * Test that cached documents are not sent to searchd again.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCachedDocumentsNotResent() throws Exception {
+        ExcerptCache cache = new ExcerptCache(dataSource);
+        ExcerptOptions opts = ExcerptOptions.builder().limit(100).build();
+
+        when(client.BuildExcerpts(new String[] { "doc one", "doc two" }, "idx", "doc", opts)).thenReturn(new String[] { "one", "two" });
+        when(client.BuildExcerpts(new String[] { "doc three" }, "idx", "doc", opts)).thenReturn(new String[] { "three" });
+
+        assertEquals(cache.buildExcerpts(new String[] { "doc one", "doc two" }, "idx", "doc", opts), new String[] { "one", "two" });
+        assertEquals(cache.buildExcerpts(new String[] { "doc two", "doc three" }, "idx", "doc", opts), new String[] { "two", "three" });
+
+        verify(client).BuildExcerpts(new String[] { "doc three" }, "idx", "doc", opts);
+        assertEquals(cache.size(), 3);
+    }
+
+    /**
+     * Test that cached excerpts are keyed on the excerpt options.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testKeyedOnOptions() throws Exception {
+        ExcerptCache cache = new ExcerptCache(dataSource);
+        ExcerptOptions bold = ExcerptOptions.builder().build();
+        ExcerptOptions em = ExcerptOptions.builder().beforeMatch("<em>").afterMatch("</em>").build();
+
+        when(client.BuildExcerpts(new String[] { "doc" }, "idx", "doc", bold)).thenReturn(new String[] { "<b>doc</b>" });
+        when(client.BuildExcerpts(new String[] { "doc" }, "idx", "doc", em)).thenReturn(new String[] { "<em>doc</em>" });
+
+        assertEquals(cache.buildExcerpts(new String[] { "doc" }, "idx", "doc", bold)[0], "<b>doc</b>");
+        assertEquals(cache.buildExcerpts(new String[] { "doc" }, "idx", "doc", em)[0], "<em>doc</em>");
+        assertEquals(ExcerptOptions.builder().build(), bold);
+    }
+
+    /**
+     * Test that large document arrays are split into chunks, and re-assembled in order.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelChunks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ExcerptCache cache = new ExcerptCache(dataSource, 0, executor, 2);
+
+            when(client.BuildExcerpts(new String[] { "a", "b" }, "idx", "w", ExcerptOptions.DEFAULT)).thenReturn(new String[] { "A", "B" });
+            when(client.BuildExcerpts(new String[] { "c", "d" }, "idx", "w", ExcerptOptions.DEFAULT)).thenReturn(new String[] { "C", "D" });
+            when(client.BuildExcerpts(new String[] { "e" }, "idx", "w", ExcerptOptions.DEFAULT)).thenReturn(new String[] { "E" });
+
+            String[] excerpts = cache.buildExcerpts(new String[] { "a", "b", "c", "d", "e" }, "idx", "w", null);
+            assertEquals(excerpts, new String[] { "A", "B", "C", "D", "E" });
+
+            verify(dataSource, times(3)).getSphinxClient();
+            verify(client, times(3)).Close();
+            assertEquals(cache.size(), 0);
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.sphinx.cache;
+
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SphinxKeyword;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * KeywordCacheTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class KeywordCacheTest {
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ISphinxClient client = mock(ISphinxClient.class);
+
+    @BeforeMethod
+    public void setup() {
+        when(dataSource.getSphinxClient()).thenReturn(client);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource, client);
+    }
+
+    private static SphinxKeyword keyword(String word) {
+        return new SphinxKeyword(word, word, 10, 20);
+    }
+
+    /**
+     * Test that only unseen terms are sent to searchd, in one batched request.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOnlyUnseenTermsFetched() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        when(client.BuildKeywordList("hello world", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("hello"), keyword("world") });
+        when(client.BuildKeywordList("foo", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("foo") });
+
+        SphinxKeyword[] first = cache.getKeywords("hello world", "idx");
+        assertEquals(first.length, 2);
+        assertEquals(first[0].normalized, "hello");
+        assertEquals(first[1].normalized, "world");
+
+        // "world" is cached, only "foo" should go to searchd
+        SphinxKeyword[] second = cache.getKeywords("world foo", "idx");
+        assertEquals(second.length, 2);
+        assertEquals(second[0].normalized, "world");
+        assertEquals(second[1].normalized, "foo");
+
+        // fully cached, should not touch the pool
+        cache.getKeywords("foo hello", "idx");
+
+        verify(client).BuildKeywordList("hello world", "idx", true);
+        verify(client).BuildKeywordList("foo", "idx", true);
+        verify(dataSource, times(2)).getSphinxClient();
+        verify(client, times(2)).Close();
+    }
+
+    /**
+     * Test that stop-words dropped by searchd are cached as empty keyword lists.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testMismatchedKeywordCount() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        when(client.BuildKeywordList("the cat", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("cat") });
+
+        SphinxKeyword[] keywords = cache.getKeywords("the cat", "idx");
+        assertEquals(keywords.length, 1);
+        assertEquals(keywords[0].normalized, "cat");
+
+        // stop-word is cached as an empty keyword list
+        assertEquals(cache.getKeywords("the", "idx").length, 0);
+        verify(client, times(1)).BuildKeywordList(anyString(), anyString(), anyBoolean());
+    }
+
+    /**
+     * Test that keywords are mapped to their terms when a stop-word is dropped and another term is split,
+     * leaving the keyword count equal to the term count.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testStopWordAndSplitTerm() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        when(client.BuildKeywordList("the Wi-Fi", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("wi"), keyword("fi") });
+
+        SphinxKeyword[] keywords = cache.getKeywords("the Wi-Fi", "idx");
+        assertEquals(keywords.length, 2);
+        assertEquals(keywords[0].normalized, "wi");
+        assertEquals(keywords[1].normalized, "fi");
+
+        assertEquals(cache.getKeywords("the", "idx").length, 0);
+
+        SphinxKeyword[] split = cache.getKeywords("Wi-Fi", "idx");
+        assertEquals(split.length, 2);
+        assertEquals(split[0].normalized, "wi");
+        assertEquals(split[1].normalized, "fi");
+
+        verify(client, times(1)).BuildKeywordList(anyString(), anyString(), anyBoolean());
+    }
+
+    /**
+     * Test that a keyword is only matched against whole tokens, so a stop-word containing the next
+     * term is not mistaken for it.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testKeywordInsideStopWord() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        when(client.BuildKeywordList("the he", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("he") });
+
+        SphinxKeyword[] keywords = cache.getKeywords("the he", "idx");
+        assertEquals(keywords.length, 1);
+        assertEquals(keywords[0].normalized, "he");
+
+        assertEquals(cache.getKeywords("the", "idx").length, 0);
+        assertEquals(cache.getKeywords("he", "idx").length, 1);
+        verify(client, times(1)).BuildKeywordList(anyString(), anyString(), anyBoolean());
+    }
+
+    /**
+     * Test that keywords that could belong to more than one term are not cached.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testAmbiguousKeywordsNotCached() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        // "b" is either the second token of "a-b" or the second term
+        when(client.BuildKeywordList("a-b b", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("b") });
+
+        SphinxKeyword[] keywords = cache.getKeywords("a-b b", "idx");
+        assertEquals(keywords.length, 1);
+        assertEquals(keywords[0].normalized, "b");
+        assertEquals(cache.size(), 0);
+    }
+
+    /**
+     * Test that keywords which can't be traced back to a term are returned for the whole query
+     * from a single request, and nothing is cached.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUnalignedKeywordsNotCached() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource);
+
+        when(client.BuildKeywordList("hello", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("hello") });
+        cache.getKeywords("hello", "idx");
+
+        // charset folding changes the token, so "cafe" can't be found in the accented term
+        when(client.BuildKeywordList("caf\u00e9", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("cafe") });
+        when(client.BuildKeywordList("hello caf\u00e9", "idx", true)).thenReturn(new SphinxKeyword[] { keyword("hello"), keyword("cafe") });
+
+        SphinxKeyword[] keywords = cache.getKeywords("hello caf\u00e9", "idx");
+        assertEquals(keywords.length, 2);
+        assertEquals(keywords[0].normalized, "hello");
+        assertEquals(keywords[1].normalized, "cafe");
+        assertEquals(cache.size(), 1);
+
+        verify(client).BuildKeywordList("caf\u00e9", "idx", true);
+        verify(client).BuildKeywordList("hello caf\u00e9", "idx", true);
+        verify(client, times(2)).Close();
+    }
+
+    /**
+     * Test that the cache is bounded and keyed per index.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBoundedPerIndex() throws Exception {
+        KeywordCache cache = new KeywordCache(dataSource, 2, 0);
+
+        when(client.BuildKeywordList(anyString(), anyString(), eq(true))).thenReturn(new SphinxKeyword[] { keyword("a") });
+
+        cache.getKeywords("a", "idx1");
+        cache.getKeywords("a", "idx2");
+        cache.getKeywords("b", "idx1");
+        assertEquals(cache.size(), 2);
+
+        cache.invalidate("idx1");
+        assertEquals(cache.size(), 1);
+    }
+}
@@ -28,5 +28,9 @@ public class ConfigurationReaderTest {
         assertEquals(config.getMinIdle(), 0);
         assertEquals(config.getMaxIdle(), 10);
         assertEquals(config.getMaxTotal(), 10);
+        assertEquals(config.getTcpNoDelay(), false);
+        assertEquals(config.getKeepAlive(), true);
+        assertEquals(config.getSendBufferSize(), 65536);
+        assertEquals(config.getReceiveBufferSize(), 131072);
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package org.sphinx.export;
+
+import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.TestSchemas;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * BinaryExportSinkTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class BinaryExportSinkTest {
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testLongStrings() throws Exception {
+        char[] chars = new char[40000];
+        Arrays.fill(chars, 'é'); // 2 bytes each in UTF-8, 80000 bytes encoded
+        String body = new String(chars);
+
+        SphinxMatch match = new SphinxMatch(7, 3);
+        match.attrValues.add(body);
+        match.attrValues.add(Long.valueOf(42));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryExportSink sink = new BinaryExportSink(bytes);
+        sink.write(TestSchemas.of(new String[] { "body", "price" }, new int[] { SphinxClient.SPH_ATTR_STRING, SphinxClient.SPH_ATTR_INTEGER }),
+                   new SphinxMatch[] { match });
+        sink.flush();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(in.readInt(), BinaryExportSink.MAGIC);
+        assertEquals(in.readInt(), BinaryExportSink.VERSION);
+        assertEquals(in.readInt(), 2);
+        assertEquals(readString(in), "body");
+        assertEquals(in.readInt(), SphinxClient.SPH_ATTR_STRING);
+        assertEquals(readString(in), "price");
+        assertEquals(in.readInt(), SphinxClient.SPH_ATTR_INTEGER);
+
+        assertEquals(in.readByte(), 1);
+        assertEquals(in.readLong(), 7L);
+        assertEquals(in.readInt(), 3);
+        assertEquals(readString(in), body);
+        assertEquals(in.readInt(), 42);
+
+        assertEquals(in.readByte(), 0);
+        assertEquals(in.read(), -1);
+    }
+}
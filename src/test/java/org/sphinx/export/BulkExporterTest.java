@@ -0,0 +1,218 @@
+package org.sphinx.export;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.api.SphinxSchema;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * BulkExporterTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class BulkExporterTest {
+
+    /**
+     * Scripted search over a sorted set of document ids, answering {@link PooledSphinxDataSource#execute(SearchRequest)}.
+     */
+    private static class ScriptedIndex implements Answer<SphinxResult> {
+        private final long[] ids;
+        private final AtomicInteger queries = new AtomicInteger();
+        private volatile long failAt = -1;
+
+        ScriptedIndex(long... ids) {
+            this.ids = ids;
+        }
+
+        public SphinxResult answer(InvocationOnMock invocation) throws Throwable {
+            SearchRequest request = (SearchRequest) invocation.getArguments()[0];
+            queries.incrementAndGet();
+
+            long min = request.getMinId();
+            long max = request.getMaxId() == 0 ? Long.MAX_VALUE : request.getMaxId();
+            if (failAt >= 0 && min <= failAt && failAt <= max) throw new SphinxException("searchd error");
+
+            boolean descending = request.getSortBy().endsWith("desc");
+            List<SphinxMatch> matches = new ArrayList<SphinxMatch>();
+            int found = 0;
+            for (int i = 0; i < ids.length; i++) {
+                long id = descending ? ids[ids.length - 1 - i] : ids[i];
+                if (id < min || id > max) continue;
+                if (found++ < request.getLimit()) matches.add(new SphinxMatch(id, 1));
+            }
+
+            SphinxResult result = new SphinxResult();
+            result.matches = matches.toArray(new SphinxMatch[matches.size()]);
+            result.total = result.matches.length;
+            result.totalFound = found;
+            return result;
+        }
+    }
+
+    /**
+     * Sink collecting the exported ids.
+     */
+    private static class CollectingSink implements ExportSink {
+        private final List<Long> ids = new ArrayList<Long>();
+        private boolean flushed;
+
+        public void write(SphinxSchema schema, SphinxMatch[] matches) {
+            for (SphinxMatch match : matches) {
+                ids.add(match.docId);
+            }
+        }
+
+        public void flush() {
+            flushed = true;
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    private BulkExporter exporter(ScriptedIndex index) throws SphinxException {
+        when(dataSource.execute(any(SearchRequest.class))).thenAnswer(index);
+        return new BulkExporter(dataSource);
+    }
+
+    private static long[] ids(int count, int step) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = 100 + (long) i * step;
+        }
+        return ids;
+    }
+
+    @Test
+    public void testExportInOrder() throws Exception {
+        long[] ids = ids(2000, 7);
+        BulkExporter exporter = exporter(new ScriptedIndex(ids));
+        exporter.setParallelism(3);
+        exporter.setTargetRangeSize(50);
+
+        CollectingSink sink = new CollectingSink();
+        long exported = exporter.export(SearchRequest.builder().index("products").build(), sink);
+
+        assertEquals(exported, ids.length);
+        assertEquals(sink.ids.size(), ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals((long) sink.ids.get(i), ids[i]);
+        }
+        assertTrue(sink.flushed);
+    }
+
+    /**
+     * Test that a range holding more matches than a single query returns is continued after the last match.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTruncatedRangeContinues() throws Exception {
+        // dense cluster of ids at the end of a sparse range
+        long[] sparse = ids(20, 1000);
+        long[] dense = ids(500, 1);
+        long[] ids = Arrays.copyOf(sparse, sparse.length + dense.length);
+        for (int i = 0; i < dense.length; i++) {
+            ids[sparse.length + i] = 100000 + dense[i];
+        }
+
+        BulkExporter exporter = exporter(new ScriptedIndex(ids));
+        exporter.setParallelism(2);
+        exporter.setTargetRangeSize(10);
+
+        CollectingSink sink = new CollectingSink();
+        long exported = exporter.export(SearchRequest.builder().index("products").build(), ids[0], ids[ids.length - 1], sink);
+
+        assertEquals(exported, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals((long) sink.ids.get(i), ids[i]);
+        }
+    }
+
+    /**
+     * Test that the highest id is looked up when the request only has a lower bound.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testExportFromLowerBound() throws Exception {
+        long[] ids = ids(500, 5);
+        BulkExporter exporter = exporter(new ScriptedIndex(ids));
+        exporter.setTargetRangeSize(20);
+
+        CollectingSink sink = new CollectingSink();
+        long exported = exporter.export(SearchRequest.builder().index("products").idRange(1000, 0).build(), sink);
+
+        long[] expected = ids(500 - 180, 5);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] += 900;
+        }
+
+        assertEquals(exported, expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals((long) sink.ids.get(i), expected[i]);
+        }
+    }
+
+    /**
+     * Test that a range ending at the largest document id does not wrap around.
+     *
+     * @throws Exception
+     */
+    @Test(timeOut = 10000)
+    public void testExportUpToMaxId() throws Exception {
+        long[] ids = { Long.MAX_VALUE - 20, Long.MAX_VALUE - 3, Long.MAX_VALUE };
+        BulkExporter exporter = exporter(new ScriptedIndex(ids));
+        exporter.setParallelism(2);
+        exporter.setTargetRangeSize(1);
+
+        CollectingSink sink = new CollectingSink();
+        long exported = exporter.export(SearchRequest.builder().index("products").build(), Long.MAX_VALUE - 30, Long.MAX_VALUE, sink);
+
+        assertEquals(exported, ids.length);
+        assertEquals(sink.ids, Arrays.asList(ids[0], ids[1], ids[2]));
+    }
+
+    @Test
+    public void testEmptyExport() throws Exception {
+        ScriptedIndex index = new ScriptedIndex();
+        BulkExporter exporter = exporter(index);
+        CollectingSink sink = new CollectingSink();
+
+        assertEquals(exporter.export(SearchRequest.builder().index("products").build(), sink), 0);
+        assertTrue(sink.ids.isEmpty());
+        assertTrue(sink.flushed);
+        assertEquals(index.queries.get(), 1);
+    }
+
+    @Test(expectedExceptions = SphinxException.class)
+    public void testRangeFailure() throws Exception {
+        ScriptedIndex index = new ScriptedIndex(ids(1000, 1));
+        index.failAt = 600;
+
+        BulkExporter exporter = exporter(index);
+        exporter.setTargetRangeSize(20);
+
+        exporter.export(SearchRequest.builder().index("products").build(), new CollectingSink());
+    }
+}
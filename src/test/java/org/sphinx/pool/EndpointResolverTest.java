@@ -0,0 +1,89 @@
+package org.sphinx.pool;
+
+import org.testng.annotations.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * EndpointResolverTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class EndpointResolverTest {
+
+    /**
+     * Resolver with a scripted lookup, counting the number of lookups made.
+     */
+    private static class TestResolver extends EndpointResolver {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile InetAddress[] result;
+
+        TestResolver(long ttlMillis, InetAddress... result) {
+            super("sphinx.example.com", 9312, ttlMillis);
+            this.result = result;
+        }
+
+        @Override
+        protected InetAddress[] lookup(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (result == null) throw new UnknownHostException(host);
+            return result;
+        }
+    }
+
+    private static InetAddress address(int last) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[] { 10, 0, 0, (byte) last });
+    }
+
+    /**
+     * Test that resolved addresses are cached, and connections rotate through all addresses.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCachedRoundRobin() throws Exception {
+        TestResolver resolver = new TestResolver(60000, address(1), address(2));
+
+        InetSocketAddress first = resolver.resolve();
+        InetSocketAddress second = resolver.resolve();
+        InetSocketAddress third = resolver.resolve();
+
+        assertEquals(resolver.lookups.get(), 1);
+        assertFalse(first.equals(second));
+        assertEquals(first, third);
+        assertEquals(first.getPort(), 9312);
+    }
+
+    /**
+     * Test that the last known addresses are kept when a lookup fails after expiry.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testKeepAddressesOnFailedLookup() throws Exception {
+        TestResolver resolver = new TestResolver(1, address(1));
+        InetSocketAddress resolved = resolver.resolve();
+
+        resolver.result = null;
+        Thread.sleep(5);
+
+        assertEquals(resolver.resolve(), resolved);
+        assertEquals(resolver.lookups.get(), 2);
+    }
+
+    /**
+     * Test that resolving fails if the host has never been resolved.
+     *
+     * @throws Exception
+     */
+    @Test(expectedExceptions = UnknownHostException.class)
+    public void testUnknownHost() throws Exception {
+        new TestResolver(60000).resolve();
+    }
+}
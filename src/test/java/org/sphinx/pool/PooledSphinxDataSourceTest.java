@@ -3,7 +3,10 @@ package org.sphinx.pool;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.sphinx.api.ISphinxClient;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SearchResponse;
 import org.sphinx.api.SphinxClient;
+import org.sphinx.api.SphinxException;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
@@ -85,6 +88,136 @@ public class PooledSphinxDataSourceTest {
         verify(pool).returnObject(delegate);
     }
 
+    /**
+     * Test that a client borrowed to execute a search request is returned to the pool when the request fails.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "mock")
+    public void testExecuteReturnsClient() throws Exception {
+        PooledSphinxDataSource dataSource = new PooledSphinxDataSource(pool);
+
+        SphinxClient delegate = new SphinxClient("localhost", 1);
+        when(pool.borrowObject()).thenReturn(delegate);
+
+        try {
+            dataSource.execute(SearchRequest.builder().query("hello").build());
+            fail("Query against non-existent sphinx server should have failed");
+
+        } catch (SphinxException e) {
+            assertEquals(e.getMessage(), delegate.GetLastError());
+        }
+
+        verify(pool).borrowObject();
+        verify(pool).returnObject(delegate);
+    }
+
+    /**
+     * Test that a client running an aborted query is destroyed rather than returned to the pool.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "mock")
+    public void testFetchAbortedInvalidatesClient() throws Exception {
+        PooledSphinxDataSource dataSource = new PooledSphinxDataSource(pool);
+        final AbortHandle handle = new AbortHandle();
+
+        SphinxClient delegate = new SphinxClient() {
+            @Override
+            public SearchResponse FetchResults(SearchRequest... requests) throws SphinxException {
+                handle.abort();
+                return null;
+            }
+        };
+        when(pool.borrowObject()).thenReturn(delegate);
+
+        try {
+            dataSource.fetch(handle, SearchRequest.builder().query("hello").build());
+            fail("Aborted query should have failed");
+
+        } catch (SphinxException e) {
+            assertEquals(e.getMessage(), "query aborted");
+        }
+
+        verify(pool).invalidateObject(delegate);
+        verify(pool, never()).returnObject(delegate);
+
+        // aborted before being sent, no client is borrowed
+        reset(pool);
+        try {
+            dataSource.fetch(handle, SearchRequest.builder().query("hello").build());
+            fail("Aborted query should have failed");
+        } catch (SphinxException e) {
+            verify(pool, never()).borrowObject();
+        }
+    }
+
+    /**
+     * Test that a client borrowed by withClient() is returned to the pool when the callback fails, and that
+     * a proxy leaked out of the callback cannot be used by later calls.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "mock")
+    public void testWithClient() throws Exception {
+        PooledSphinxDataSource dataSource = new PooledSphinxDataSource(pool);
+
+        SphinxClient delegate = new SphinxClient();
+        when(pool.borrowObject()).thenReturn(delegate);
+
+        final ISphinxClient[] used = new ISphinxClient[2];
+        try {
+            dataSource.withClient(new SphinxClientCallback<Object>() {
+                public Object doWithClient(ISphinxClient client) throws SphinxException {
+                    used[0] = client;
+                    throw new SphinxException("failed");
+                }
+            });
+            fail("Callback exception should have been propagated");
+
+        } catch (SphinxException e) {
+            assertEquals(e.getMessage(), "failed");
+        }
+
+        verify(pool).returnObject(delegate);
+
+        ISphinxClient result = dataSource.withClient(new SphinxClientCallback<ISphinxClient>() {
+            public ISphinxClient doWithClient(ISphinxClient client) throws SphinxException {
+                return client;
+            }
+        });
+
+        assertFalse(result == used[0], "Each call should get its own proxy");
+        verify(pool, times(2)).returnObject(delegate);
+
+        try {
+            used[0].SetLimits(0, 10);
+            fail("Leaked proxy should not reach the pooled client");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test that clients held past the leak detection threshold are reported until closed.
+     *
+     * @throws Exception
+     */
+    @Test(groups = "mock")
+    public void testLeakDetection() throws Exception {
+        PooledSphinxDataSource dataSource = new PooledSphinxDataSource(pool);
+        dataSource.setLeakDetectionThreshold(1);
+
+        when(pool.borrowObject()).thenReturn(new SphinxClient());
+
+        ISphinxClient client = dataSource.getSphinxClient();
+        Thread.sleep(5);
+        assertEquals(dataSource.getNumLeaked(), 1);
+
+        client.close();
+        assertEquals(dataSource.getNumLeaked(), 0);
+    }
+
     /**
      * Test that borrowed connections are tested for errors when setTestOnBorrow() is set to true.
      *
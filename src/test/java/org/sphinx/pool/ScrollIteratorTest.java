@@ -0,0 +1,139 @@
+package org.sphinx.pool;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ScrollIteratorTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class ScrollIteratorTest {
+
+    /**
+     * Scripted search over a sorted set of document ids, recording the requested id ranges.
+     */
+    private static class ScriptedIndex implements Answer<SphinxResult> {
+        private final long[] ids;
+        private final List<Long> cursors = new ArrayList<Long>();
+        private final AtomicInteger queries = new AtomicInteger();
+        private final CountDownLatch prefetched = new CountDownLatch(2);
+
+        ScriptedIndex(long... ids) {
+            this.ids = ids;
+        }
+
+        public SphinxResult answer(InvocationOnMock invocation) throws Throwable {
+            SearchRequest request = (SearchRequest) invocation.getArguments()[0];
+            synchronized (cursors) {
+                cursors.add(request.getMinId());
+            }
+            queries.incrementAndGet();
+            prefetched.countDown();
+
+            List<SphinxMatch> matches = new ArrayList<SphinxMatch>();
+            int found = 0;
+            for (long id : ids) {
+                if (id < request.getMinId()) continue;
+                if (found++ < request.getLimit()) matches.add(new SphinxMatch(id, 1));
+            }
+
+            SphinxResult result = new SphinxResult();
+            result.matches = matches.toArray(new SphinxMatch[matches.size()]);
+            result.total = result.matches.length;
+            result.totalFound = found;
+            return result;
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    private ScrollIterator scroll(ScriptedIndex index, int pageSize) throws SphinxException {
+        when(dataSource.execute(any(SearchRequest.class))).thenAnswer(index);
+        return new ScrollIterator(dataSource, SearchRequest.builder().index("products").limits(500, 10).build(), pageSize);
+    }
+
+    @Test
+    public void testScrollByIdCursor() throws Exception {
+        long[] ids = new long[25];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 10 + i * 3;
+        }
+
+        ScriptedIndex index = new ScriptedIndex(ids);
+        ScrollIterator iterator = scroll(index, 10);
+        List<Long> scrolled = new ArrayList<Long>();
+        while (iterator.hasNext()) {
+            scrolled.add(iterator.next().docId);
+        }
+
+        assertEquals(scrolled.size(), ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals((long) scrolled.get(i), ids[i]);
+        }
+
+        // each page starts after the last id of the previous page, no offsets
+        assertEquals(iterator.getTotalFound(), 25);
+        assertEquals(index.cursors.size(), 3);
+        assertEquals((long) index.cursors.get(1), ids[9] + 1);
+        assertEquals((long) index.cursors.get(2), ids[19] + 1);
+    }
+
+    /**
+     * Test that the next page is fetched while the current page is consumed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPrefetchNextPage() throws Exception {
+        ScriptedIndex index = new ScriptedIndex(1, 2, 3, 4, 5);
+        ScrollIterator iterator = scroll(index, 2);
+        iterator.next();
+
+        assertTrue(index.prefetched.await(5, TimeUnit.SECONDS));
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Test that a full last page is followed by a single empty page query.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFullLastPage() throws Exception {
+        ScriptedIndex index = new ScriptedIndex(1, 2, 3, 4);
+        ScrollIterator iterator = scroll(index, 2);
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+
+        assertEquals(count, 4);
+        assertEquals(index.queries.get(), 3);
+    }
+}
@@ -0,0 +1,181 @@
+package org.sphinx.pool;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.MatchBatch;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxMatch;
+import org.sphinx.api.SphinxResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SearchPublisherTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class SearchPublisherTest {
+
+    private static final Executor CALLER_RUNS = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Scripted search over a sorted set of document ids, counting the page queries.
+     */
+    private static class ScriptedIndex implements Answer<SphinxResult> {
+        private final long[] ids;
+        private final AtomicInteger queries = new AtomicInteger();
+
+        ScriptedIndex(long... ids) {
+            this.ids = ids;
+        }
+
+        public SphinxResult answer(InvocationOnMock invocation) throws Throwable {
+            SearchRequest request = (SearchRequest) invocation.getArguments()[0];
+            queries.incrementAndGet();
+
+            List<SphinxMatch> matches = new ArrayList<SphinxMatch>();
+            for (long id : ids) {
+                if (id >= request.getMinId() && matches.size() < request.getLimit()) matches.add(new SphinxMatch(id, 1));
+            }
+
+            SphinxResult result = new SphinxResult();
+            result.matches = matches.toArray(new SphinxMatch[matches.size()]);
+            return result;
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    /**
+     * Returns a match publisher paging on the calling thread.
+     */
+    private SearchPublisher<SphinxMatch> publisher(ScriptedIndex index, int pageSize) throws SphinxException {
+        when(dataSource.execute(any(SearchRequest.class))).thenAnswer(index);
+        return new SearchPublisher<SphinxMatch>(dataSource, SearchRequest.builder().index("products").build(), pageSize, CALLER_RUNS) {
+            @Override
+            protected Object[] items(SphinxResult result) {
+                return result.matches;
+            }
+        };
+    }
+
+    /**
+     * Subscriber recording the received items, requesting more only when asked to.
+     */
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        private final List<T> items = new ArrayList<T>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static long[] ids(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = 100 + i * 2;
+        }
+        return ids;
+    }
+
+    /**
+     * Test that pages are only fetched when the subscriber requests more matches.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDemandDrivesPaging() throws Exception {
+        ScriptedIndex index = new ScriptedIndex(ids(10));
+        SearchPublisher<SphinxMatch> publisher = publisher(index, 4);
+        RecordingSubscriber<SphinxMatch> subscriber = new RecordingSubscriber<SphinxMatch>();
+        publisher.subscribe(subscriber);
+
+        assertEquals(index.queries.get(), 0);
+
+        subscriber.subscription.request(3);
+        assertEquals(subscriber.items.size(), 3);
+        assertEquals(index.queries.get(), 1);
+
+        subscriber.subscription.request(2);
+        assertEquals(subscriber.items.size(), 5);
+        assertEquals(index.queries.get(), 2);
+        assertEquals(subscriber.items.get(4).docId, 108);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(subscriber.items.size(), 10);
+        assertEquals(subscriber.items.get(9).docId, 118);
+        assertEquals(index.queries.get(), 3);
+    }
+
+    @Test
+    public void testCancelStopsPaging() throws Exception {
+        ScriptedIndex index = new ScriptedIndex(ids(10));
+        SearchPublisher<SphinxMatch> publisher = publisher(index, 4);
+        RecordingSubscriber<SphinxMatch> subscriber = new RecordingSubscriber<SphinxMatch>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(4);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+
+        assertEquals(subscriber.items.size(), 4);
+        assertEquals(index.queries.get(), 1);
+        assertEquals(subscriber.completed.getCount(), 1);
+    }
+
+    @Test
+    public void testBatches() throws Exception {
+        when(dataSource.execute(any(SearchRequest.class))).thenAnswer(new ScriptedIndex(ids(10)));
+        SearchPublisher<MatchBatch> publisher = SearchPublisher.batches(dataSource, SearchRequest.builder().index("products").build(), 4);
+
+        RecordingSubscriber<MatchBatch> subscriber = new RecordingSubscriber<MatchBatch>();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(subscriber.items.size(), 3);
+        assertEquals(subscriber.items.get(0).size(), 4);
+        assertEquals(subscriber.items.get(2).getDocIds()[1], 118);
+    }
+}
@@ -0,0 +1,133 @@
+package org.sphinx.pool;
+
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.SearchRequest;
+import org.sphinx.api.SearchResponse;
+import org.sphinx.api.SphinxException;
+import org.sphinx.api.SphinxResult;
+import org.sphinx.api.TestResponses;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TypeaheadExecutorTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class TypeaheadExecutorTest {
+
+    /**
+     * Scripted query answering {@link PooledSphinxDataSource#fetch(AbortHandle, SearchRequest...)}. Queries
+     * for "i" stay in flight until aborted, and keep the executor thread busy until released.
+     */
+    private static class ScriptedIndex implements Answer<SearchResponse> {
+        private final List<String> sent = new ArrayList<String>();
+        private final CountDownLatch inFlight = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        public SearchResponse answer(InvocationOnMock invocation) throws Throwable {
+            AbortHandle handle = (AbortHandle) invocation.getArguments()[0];
+            SearchRequest request = (SearchRequest) invocation.getArguments()[1];
+            synchronized (sent) {
+                sent.add(request.getQuery());
+            }
+
+            if (request.getQuery().equals("i")) {
+                inFlight.countDown();
+                long deadline = System.currentTimeMillis() + 5000;
+                while (!handle.isAborted() && System.currentTimeMillis() < deadline) {
+                    Thread.yield();
+                }
+                released.await(5, TimeUnit.SECONDS);
+                throw new SphinxException("query aborted");
+            }
+
+            return TestResponses.empty(1);
+        }
+    }
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ScriptedIndex index;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        index = new ScriptedIndex();
+        when(dataSource.fetch(any(AbortHandle.class), Matchers.<SearchRequest[]>anyVararg())).thenAnswer(index);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource);
+    }
+
+    private static SearchRequest query(String query) {
+        return SearchRequest.builder().query(query).index("products").build();
+    }
+
+    private static void assertCancelled(CompletableFuture<SphinxResult> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected the query to be superseded");
+        } catch (CancellationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test that superseded queries are skipped while queued, and abandoned while in flight.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testLatestWins() throws Exception {
+        TypeaheadExecutor executor = new TypeaheadExecutor(dataSource, 1);
+
+        CompletableFuture<SphinxResult> i = executor.submit("user-1", query("i"));
+        assertTrue(index.inFlight.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<SphinxResult> ip = executor.submit("user-1", query("ip"));
+        CompletableFuture<SphinxResult> iph = executor.submit("user-1", query("iph"));
+        CompletableFuture<SphinxResult> iphone = executor.submit("user-1", query("iphone"));
+        index.released.countDown();
+
+        assertNotNull(iphone.get(5, TimeUnit.SECONDS));
+        assertCancelled(i);
+        assertCancelled(ip);
+        assertCancelled(iph);
+
+        assertEquals(index.sent.toString(), "[i, iphone]");
+        assertEquals(executor.getSkippedCount(), 2);
+        assertEquals(executor.getAbortedCount(), 1);
+
+        executor.close();
+        assertEquals(executor.getActiveSessions(), 0);
+    }
+
+    @Test
+    public void testSessionsAreIndependent() throws Exception {
+        TypeaheadExecutor executor = new TypeaheadExecutor(dataSource, 1);
+
+        CompletableFuture<SphinxResult> first = executor.submit("user-1", query("ipad"));
+        CompletableFuture<SphinxResult> second = executor.submit("user-2", query("iphone"));
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(executor.getSkippedCount(), 0);
+        executor.close();
+    }
+}
@@ -0,0 +1,365 @@
+package org.sphinx.update;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sphinx.api.ISphinxClient;
+import org.sphinx.pool.PooledSphinxDataSource;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AttributeUpdaterTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+@Test(groups = "mock")
+public class AttributeUpdaterTest {
+
+    private static final String[] ATTRS = new String[] { "price" };
+
+    private PooledSphinxDataSource dataSource = mock(PooledSphinxDataSource.class);
+    private ISphinxClient client = mock(ISphinxClient.class);
+
+    @BeforeMethod
+    public void setup() {
+        when(dataSource.getSphinxClient()).thenReturn(client);
+    }
+
+    @AfterMethod
+    public void resetMocks() {
+        reset(dataSource, client);
+    }
+
+    /**
+     * Test that repeated updates to the same document are coalesced, and the last write wins.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCoalesceByDocId() throws Exception {
+        when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(2);
+
+        AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 10000);
+        CompletableFuture<Integer> first = updater.update("idx", ATTRS, 1L, 10L);
+        updater.update("idx", ATTRS, 2L, 20L);
+        CompletableFuture<Integer> last = updater.update("idx", ATTRS, 1L, 11L);
+        assertEquals(updater.getPendingCount(), 2);
+
+        updater.close();
+
+        ArgumentCaptor<long[][]> values = ArgumentCaptor.forClass(long[][].class);
+        verify(client, times(1)).UpdateAttributes(eq("idx"), eq(ATTRS), values.capture());
+        assertEquals(values.getValue(), new long[][] { { 1L, 11L }, { 2L, 20L } });
+
+        assertEquals(first.get(1, TimeUnit.SECONDS).intValue(), 2);
+        assertEquals(last.get(1, TimeUnit.SECONDS).intValue(), 2);
+    }
+
+    /**
+     * Records the update requests sent to the client, as "attrs: docId=values" strings.
+     */
+    private List<String> recordUpdates() throws Exception {
+        final List<String> sent = new CopyOnWriteArrayList<String>();
+        when(client.UpdateAttributes(eq("idx"), any(String[].class), any(long[][].class))).thenAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocation) {
+                String[] attrs = (String[]) invocation.getArguments()[1];
+                long[][] values = (long[][]) invocation.getArguments()[2];
+                StringBuilder update = new StringBuilder(Arrays.toString(attrs)).append(":");
+                for (long[] row : values) {
+                    update.append(" ").append(row[0]).append("=").append(Arrays.toString(Arrays.copyOfRange(row, 1, row.length)));
+                }
+                sent.add(update.toString());
+                return values.length;
+            }
+        });
+        return sent;
+    }
+
+    /**
+     * Test that updates of the same document through overlapping attribute sets are written in update order.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOverlappingAttributeSets() throws Exception {
+        List<String> sent = recordUpdates();
+        String[] priceAndStock = new String[] { "price", "stock" };
+
+        AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 60000);
+        updater.update("idx", ATTRS, 1L, 5L);
+        updater.update("idx", priceAndStock, 1L, 7L, 3L);
+        updater.update("idx", ATTRS, 1L, 9L);
+        updater.update("idx", ATTRS, 2L, 4L);
+        updater.close();
+
+        assertEquals(sent.toString(), "[[price]: 1=[5], [price, stock]: 1=[7, 3], [price]: 1=[9] 2=[4]]");
+    }
+
+    /**
+     * Test that journal replay writes updates of the same document through overlapping attribute sets in
+     * update order.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJournalOverlappingAttributeSets() throws Exception {
+        File file = File.createTempFile("sphinx-journal", ".dat");
+        file.delete();
+        UpdateJournal journal = new UpdateJournal(file);
+
+        try {
+            List<String> sent = recordUpdates();
+            String[] priceAndStock = new String[] { "price", "stock" };
+
+            AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 60000, journal);
+            updater.update("idx", ATTRS, 1L, 5L);
+            updater.update("idx", ATTRS, 2L, 6L);
+            updater.update("idx", priceAndStock, 1L, 7L, 3L);
+            updater.update("idx", ATTRS, 1L, 9L);
+            updater.close();
+
+            assertEquals(sent.toString(), "[[price]: 1=[5] 2=[6], [price, stock]: 1=[7, 3], [price]: 1=[9]]");
+            assertTrue(journal.isEmpty());
+
+        } finally {
+            journal.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Test that buffered rows are copied, so a caller reusing its row buffer does not change pending updates.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRowsAreCopied() throws Exception {
+        List<String> sent = recordUpdates();
+
+        AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 60000);
+        long[] row = new long[] { 1L, 10L };
+        updater.update("idx", ATTRS, new long[][] { row });
+        row[0] = 2L;
+        row[1] = 20L;
+        updater.update("idx", ATTRS, new long[][] { row });
+        updater.close();
+
+        assertEquals(sent.toString(), "[[price]: 1=[10] 2=[20]]");
+    }
+
+    /**
+     * Test that a batch is flushed as soon as it reaches the max batch size.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFlushOnBatchSize() throws Exception {
+        when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(2);
+
+        AttributeUpdater updater = new AttributeUpdater(dataSource, 2, 10000);
+        updater.update("idx", ATTRS, 1L, 10L);
+        CompletableFuture<Integer> future = updater.update("idx", ATTRS, 2L, 20L);
+
+        // should be written without waiting for the flush interval
+        assertEquals(future.get(5, TimeUnit.SECONDS).intValue(), 2);
+        assertEquals(updater.getPendingCount(), 0);
+
+        updater.close();
+    }
+
+    /**
+     * Test that a failed update is reported through the futures.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFailedUpdate() throws Exception {
+        when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(-1);
+        when(client.GetLastError()).thenReturn("connection refused");
+
+        AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 10);
+        CompletableFuture<Integer> future = updater.update("idx", ATTRS, 1L, 10L);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Update should have failed");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "connection refused");
+        }
+
+        updater.close();
+        verify(client, atLeastOnce()).Close();
+    }
+
+    /**
+     * Test that full batches submitted while the updater is closing are still written, and that updates
+     * are only ever refused with an IllegalStateException once closed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUpdateRacingClose() throws Exception {
+        when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(1);
+
+        for (int round = 0; round < 20; round++) {
+            updateRacingClose();
+        }
+    }
+
+    private void updateRacingClose() throws Exception {
+        final AttributeUpdater updater = new AttributeUpdater(dataSource, 1, 10000);
+        final List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<CompletableFuture<Integer>>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<Throwable>();
+        final CountDownLatch started = new CountDownLatch(4);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final long base = t * 1000000L;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    started.countDown();
+                    for (long id = base; ; id++) {
+                        try {
+                            futures.add(updater.update("idx", ATTRS, id, id));
+                        } catch (Throwable e) {
+                            errors.add(e);
+                            return;
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        started.await();
+        Thread.sleep(2);
+        updater.close();
+
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(errors.size(), 4);
+        for (Throwable e : errors) {
+            assertTrue(e instanceof IllegalStateException, "unexpected " + e);
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(future.get(5, TimeUnit.SECONDS).intValue(), 1);
+        }
+    }
+
+    /**
+     * Test that journaled updates are kept while searchd is unavailable, and replayed once it is back.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJournalReplayAfterOutage() throws Exception {
+        File file = File.createTempFile("sphinx-journal", ".dat");
+        file.delete();
+        UpdateJournal journal = new UpdateJournal(file);
+
+        try {
+            when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(-1).thenReturn(1);
+            when(client.IsConnectError()).thenReturn(true);
+
+            AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 10, journal);
+            CompletableFuture<Integer> future = updater.update("idx", ATTRS, 1L, 10L);
+
+            // first attempt fails with a connection error, the update must survive in the journal
+            assertEquals(future.get(5, TimeUnit.SECONDS).intValue(), 1);
+            updater.close();
+
+            verify(client, times(2)).UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class));
+            assertTrue(journal.isEmpty());
+
+        } finally {
+            journal.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Test that a failure to read the reply is treated as searchd being unavailable, even when the client
+     * does not flag it as a connect error, so the update stays in the journal.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJournalReplayAfterReadFailure() throws Exception {
+        File file = File.createTempFile("sphinx-journal", ".dat");
+        file.delete();
+        UpdateJournal journal = new UpdateJournal(file);
+
+        try {
+            when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(-1).thenReturn(1);
+            when(client.IsConnectError()).thenReturn(false);
+            when(client.GetLastError()).thenReturn("received zero-sized searchd response (searchd crashed?): null");
+
+            AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 10, journal);
+            CompletableFuture<Integer> future = updater.update("idx", ATTRS, 1L, 10L);
+
+            assertEquals(future.get(5, TimeUnit.SECONDS).intValue(), 1);
+            updater.close();
+
+            verify(client, times(2)).UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class));
+            assertTrue(journal.isEmpty());
+
+        } finally {
+            journal.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Test that an update refused by searchd is reported and dropped from the journal, not retried.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJournalRejectedUpdate() throws Exception {
+        File file = File.createTempFile("sphinx-journal", ".dat");
+        file.delete();
+        UpdateJournal journal = new UpdateJournal(file);
+
+        try {
+            when(client.UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class))).thenReturn(-1);
+            when(client.GetLastError()).thenReturn("searchd error: attribute 'price' not found");
+
+            AttributeUpdater updater = new AttributeUpdater(dataSource, 100, 10, journal);
+            CompletableFuture<Integer> future = updater.update("idx", ATTRS, 1L, 10L);
+
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Update should have been rejected");
+            } catch (ExecutionException e) {
+                assertEquals(e.getCause().getMessage(), "searchd error: attribute 'price' not found");
+            }
+            updater.close();
+
+            verify(client, times(1)).UpdateAttributes(eq("idx"), eq(ATTRS), any(long[][].class));
+            assertTrue(journal.isEmpty());
+
+        } finally {
+            journal.close();
+            file.delete();
+        }
+    }
+}
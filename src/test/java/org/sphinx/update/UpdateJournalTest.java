@@ -0,0 +1,112 @@
+package org.sphinx.update;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * UpdateJournalTest
+ *
+ * @author Brian Cowdery
+ * @since 19-10-2026
+ */
+public class UpdateJournalTest {
+
+    private static final String[] ATTRS = new String[] { "price", "stock" };
+
+    private File file;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        file = File.createTempFile("sphinx-journal", ".dat");
+        file.delete();
+    }
+
+    @AfterMethod
+    public void cleanup() {
+        file.delete();
+    }
+
+    @Test
+    public void testAppendReadAcknowledge() throws Exception {
+        UpdateJournal journal = new UpdateJournal(file);
+        assertTrue(journal.isEmpty());
+
+        journal.append("idx", ATTRS, new long[][] { { 1, 10, 100 } });
+        journal.append("idx", ATTRS, new long[][] { { 2, 20, 200 }, { 3, 30, 300 } });
+        assertEquals(journal.size(), 2);
+
+        List<UpdateJournal.Record> records = journal.read(100);
+        assertEquals(records.size(), 2);
+        assertEquals(records.get(0).getIndex(), "idx");
+        assertEquals(records.get(0).getAttrs(), ATTRS);
+        assertEquals(records.get(1).getValues(), new long[][] { { 2, 20, 200 }, { 3, 30, 300 } });
+
+        // reading does not remove records
+        assertEquals(journal.read(100).size(), 2);
+
+        journal.acknowledge(records.get(0));
+        assertEquals(journal.size(), 1);
+        assertEquals(journal.read(100).get(0).getValues()[0][0], 2L);
+
+        journal.acknowledge(records.get(1));
+        assertTrue(journal.isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void testReadLimitedByRows() throws Exception {
+        UpdateJournal journal = new UpdateJournal(file);
+        for (int i = 1; i <= 5; i++) {
+            journal.append("idx", ATTRS, new long[][] { { i, i, i } });
+        }
+
+        assertEquals(journal.read(3).size(), 3);
+        assertEquals(journal.read(0).size(), 1, "Should always read at least one record");
+        journal.close();
+    }
+
+    @Test
+    public void testReopenKeepsRecords() throws Exception {
+        UpdateJournal journal = new UpdateJournal(file);
+        journal.append("idx", ATTRS, new long[][] { { 1, 10, 100 } });
+        UpdateJournal.Record first = journal.read(1).get(0);
+        journal.append("idx", ATTRS, new long[][] { { 2, 20, 200 } });
+        journal.acknowledge(first);
+        journal.close();
+
+        UpdateJournal reopened = new UpdateJournal(file);
+        assertEquals(reopened.size(), 1);
+        assertEquals(reopened.read(100).get(0).getValues()[0][0], 2L);
+        reopened.close();
+    }
+
+    @Test
+    public void testCompactAndGrow() throws Exception {
+        UpdateJournal journal = new UpdateJournal(file, 128, 4096);
+
+        // fill past the initial mapping, acknowledging as we go so that records are moved to the front
+        for (int i = 0; i < 50; i++) {
+            journal.append("idx", ATTRS, new long[][] { { i, i, i } });
+            if (i % 2 == 1) {
+                journal.acknowledge(journal.read(1).get(0));
+            }
+        }
+        assertEquals(journal.size(), 25);
+        assertEquals(journal.read(1).get(0).getValues()[0][0], 25L);
+
+        try {
+            journal.append("idx", ATTRS, new long[200][]);
+            fail("Journal should be full");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Update journal is full"));
+        }
+        journal.close();
+    }
+}